@@ -4,6 +4,12 @@ import controller.StockAppController;
 import controller.StockAppControllerImpl;
 import model.User;
 import model.UserImpl;
+import util.AlphavantagePriceSource;
+import util.DirectoryPriceSource;
+import util.PriceSource;
+import util.StockPriceUtil;
+import util.StockUtil;
+import util.SyntheticPriceSource;
 import view.IView;
 import view.StockAppGUIView;
 import view.StockAppView;
@@ -21,36 +27,58 @@ public class Driver {
 
   private static final String RESOURCES_DIRECTORY = "res/";
   private static final String STOCK_PRICE_DATA_DIRECTORY = "stock_value_data/";
+  private static final String STOCK_PRICE_DATA_CACHE_DIRECTORY = "stock_value_data_cache/";
+  private static final String USAGE = "usage: java -cp stocks-app.jar Driver <api-key> "
+      + "<interface-type> [price-source]   - interface-type can be 'gui' or 'text', price-source "
+      + "can be 'api' (default), 'replay[:directory]' or 'synthetic[:seed]'";
 
   /**
    * Main method to set all the necessary objects and information and invoke the running of the
    * application by calling the controller.
    *
-   * @param args params to be passed to main method including api-key and kind of interface gui or
-   *             text
+   * @param args params to be passed to main method including api-key, kind of interface gui or
+   *             text and optionally the source of price data
    */
   public static void main(String[] args) {
 
     if (args.length < 2) {
-      throw new IllegalArgumentException("usage: java -cp stocks-app.jar Driver <api-key> "
-          + "<interface-type>   - interface-type can be 'gui' or 'text'");
+      throw new IllegalArgumentException(USAGE);
     }
     String apiKey = args[0];
     String userInterface = args[1];
+    PriceSource priceSource = createPriceSource(apiKey, args.length > 2 ? args[2] : "api");
+    StockUtil stockUtil = new StockPriceUtil(priceSource,
+        RESOURCES_DIRECTORY + STOCK_PRICE_DATA_DIRECTORY);
     User user = new UserImpl();
     if (userInterface.equalsIgnoreCase("GUI")) {
-      Feature controller = new GUIController(user, RESOURCES_DIRECTORY, apiKey);
+      Feature controller = new GUIController(user, RESOURCES_DIRECTORY, stockUtil);
       IView view = new StockAppGUIView();
       controller.setView(view);
     } else if (userInterface.equalsIgnoreCase("text")) {
       StockAppView view = new StockAppViewImpl(System.out);
       StockAppController controller = new StockAppControllerImpl(user, view, System.in,
-          RESOURCES_DIRECTORY, STOCK_PRICE_DATA_DIRECTORY, apiKey);
+          RESOURCES_DIRECTORY, STOCK_PRICE_DATA_DIRECTORY, stockUtil);
       controller.run();
     } else {
-      throw new IllegalArgumentException(
-          "usage: java -cp stocks-app.jar Driver <api-key> <interface-type>   - interface-type "
-              + "can be 'gui' or 'text'");
+      throw new IllegalArgumentException(USAGE);
     }
   }
+
+  private static PriceSource createPriceSource(String apiKey, String source) {
+    String[] parts = source.split(":", 2);
+    String argument = parts.length > 1 ? parts[1] : null;
+    if (parts[0].equalsIgnoreCase("api")) {
+      return new AlphavantagePriceSource(apiKey);
+    } else if (parts[0].equalsIgnoreCase("replay")) {
+      return new DirectoryPriceSource(argument != null ? argument
+          : RESOURCES_DIRECTORY + STOCK_PRICE_DATA_CACHE_DIRECTORY);
+    } else if (parts[0].equalsIgnoreCase("synthetic")) {
+      try {
+        return new SyntheticPriceSource(argument != null ? Long.parseLong(argument) : 0L);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException(USAGE);
+      }
+    }
+    throw new IllegalArgumentException(USAGE);
+  }
 }
@@ -5,8 +5,8 @@ import java.util.Map;
 import java.util.Scanner;
 import model.TypeOfPortfolio;
 import model.User;
-import util.ApiPeriod;
-import util.StockPriceUtil;
+import util.PriceStore;
+import util.StockUtil;
 import view.StockAppView;
 
 /**
@@ -16,20 +16,20 @@ import view.StockAppView;
 public class BuyFractionalShareCommand implements AppCommand {
 
   private final AppInputCommand appInputCommand;
-  private final String API_KEY;
-  private Map<String, Map<String, Double>> stockPriceMap;
+  private final StockUtil stockUtil;
+  private final PriceStore priceStore;
 
   /**
-   * Constructs an instance of BuyFractionalShareCommand by taking a map of stock prices on a range
-   * of dates and api key to make the api call.
+   * Constructs an instance of BuyFractionalShareCommand by taking a store of stock prices on a
+   * range of dates and a stock utility to fetch missing stock data.
    *
-   * @param stockPriceMap a map of stock prices on a range of dates
-   * @param apiKey        api key for stocks data api
+   * @param priceStore a store of stock prices on a range of dates
+   * @param stockUtil  fetches the data of stocks missing from the price store
    */
-  public BuyFractionalShareCommand(Map<String, Map<String, Double>> stockPriceMap, String apiKey) {
+  public BuyFractionalShareCommand(PriceStore priceStore, StockUtil stockUtil) {
     this.appInputCommand = new StockAppInputCommand();
-    this.stockPriceMap = stockPriceMap;
-    this.API_KEY = apiKey;
+    this.priceStore = priceStore;
+    this.stockUtil = stockUtil;
   }
 
 
@@ -52,12 +52,10 @@ public class BuyFractionalShareCommand implements AppCommand {
         continue;
       }
       try {
-        String stockPriceDataFileName = ticker + "_" + ApiPeriod.DAILY.getApiPeriod();
-        if (!stockPriceMap.containsKey(stockPriceDataFileName)) {
-          stockPriceMap = new StockPriceUtil().fetchStockData(API_KEY, ticker,
-              stockPriceMap);
+        if (!priceStore.containsTicker(ticker)) {
+          stockUtil.fetchStockData(ticker, priceStore);
         }
-        if (!stockPriceMap.get(stockPriceDataFileName).containsKey(date)) {
+        if (!priceStore.hasPriceOnDate(ticker, date)) {
           view.showStockDetailsNotAvailableOnDate(ticker, date);
           return;
         }
@@ -92,7 +90,7 @@ public class BuyFractionalShareCommand implements AppCommand {
     }
     Double amount = Double.parseDouble(amountStr);
 
-    user.addFractionalTradeToFlexiblePortfolio(portfolioName, stockPriceMap, amount, tickerRatios,
+    user.addFractionalTradeToFlexiblePortfolio(portfolioName, priceStore, amount, tickerRatios,
         date);
   }
 
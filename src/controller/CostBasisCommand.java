@@ -1,9 +1,9 @@
 package controller;
 
-import java.util.Map;
 import java.util.Scanner;
 import model.TypeOfPortfolio;
 import model.User;
+import util.PriceStore;
 import view.StockAppView;
 
 /**
@@ -11,18 +11,17 @@ import view.StockAppView;
  */
 final class CostBasisCommand implements AppCommand {
 
-  private final Map<String, Map<String, Double>> stockPriceMap;
+  private final PriceStore priceStore;
   private final AppInputCommand appInputCommand;
 
   /**
    * Constructs an instance of {@link CostBasisCommand} that can show cost basis of a flexible
    * portfolio.
    *
-   * @param stockPriceMap a map of maps of stock names and their respective values on a range of
-   *                      dates
+   * @param priceStore a store of stock names and their respective values on a range of dates
    */
-  public CostBasisCommand(Map<String, Map<String, Double>> stockPriceMap) {
-    this.stockPriceMap = stockPriceMap;
+  public CostBasisCommand(PriceStore priceStore) {
+    this.priceStore = priceStore;
     this.appInputCommand = new StockAppInputCommand();
   }
 
@@ -32,7 +31,7 @@ final class CostBasisCommand implements AppCommand {
         TypeOfPortfolio.FLEXIBLE);
     String date = appInputCommand.handleGetDate(view, sc);
     Double costBasis;
-    costBasis = user.getCostBasisForFlexiblePortfolio(portfolioName, date, stockPriceMap);
+    costBasis = user.getCostBasisForFlexiblePortfolio(portfolioName, date, priceStore);
     view.showCostBasisOfPortfolio(portfolioName, costBasis, date);
   }
 }
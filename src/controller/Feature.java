@@ -1,5 +1,6 @@
 package controller;
 
+import util.RefreshStatus;
 import view.IView;
 
 /**
@@ -126,4 +127,18 @@ public interface Feature {
    * Tells the view to show the performance of a portfolio in suitable viewable form.
    */
   void showPerformance();
+
+  /**
+   * Fetches the progress of the background refresh of the prices of held stocks, for the view to
+   * poll.
+   *
+   * @return status of the running or last refresh
+   */
+  RefreshStatus getPriceRefreshStatus();
+
+  /**
+   * Releases what the features hold in the background once the view is closed, such as the
+   * refresh of the prices of held stocks.
+   */
+  void handleClose();
 }
@@ -1,9 +1,10 @@
 package controller;
 
-import java.util.Map;
 import java.util.Scanner;
 import model.TypeOfPortfolio;
 import model.User;
+import util.PriceStore;
+import util.StockUtil;
 import util.TradeType;
 import view.StockAppView;
 
@@ -13,20 +14,19 @@ import view.StockAppView;
  */
 final class FlexiblePortfolioCommand implements AppCommand {
 
-  private final String API_KEY;
-  private final Map<String, Map<String, Double>> stockPriceMap;
+  private final StockUtil stockUtil;
+  private final PriceStore priceStore;
 
   /**
    * Constructs an instance of {@link FlexiblePortfolioCommand} that will enable all the features of
    * flexible portfolio.
    *
-   * @param stockPriceMap a map of maps of stock names and their respective values on a range of
-   *                      dates
-   * @param apiKey        for making the api calls to fetch data for stocks
+   * @param priceStore a store of stock names and their respective values on a range of dates
+   * @param stockUtil  fetches the data of stocks missing from the price store
    */
-  public FlexiblePortfolioCommand(Map<String, Map<String, Double>> stockPriceMap, String apiKey) {
-    this.stockPriceMap = stockPriceMap;
-    this.API_KEY = apiKey;
+  public FlexiblePortfolioCommand(PriceStore priceStore, StockUtil stockUtil) {
+    this.priceStore = priceStore;
+    this.stockUtil = stockUtil;
   }
 
   @Override
@@ -39,21 +39,21 @@ final class FlexiblePortfolioCommand implements AppCommand {
       if (userChoice.equals("1")) {
         createFlexiblePortfolio(user, view, sc);
       } else if (userChoice.equals("2")) {
-        command = new TradeCommand(stockPriceMap, API_KEY, TradeType.BUY);
+        command = new TradeCommand(priceStore, stockUtil, TradeType.BUY);
       } else if (userChoice.equals("3")) {
-        command = new TradeCommand(stockPriceMap, API_KEY, TradeType.SELL);
+        command = new TradeCommand(priceStore, stockUtil, TradeType.SELL);
       } else if (userChoice.equals("4")) {
-        command = new CostBasisCommand(stockPriceMap);
+        command = new CostBasisCommand(priceStore);
       } else if (userChoice.equals("5")) {
-        command = new StockValueCommand(stockPriceMap, TypeOfPortfolio.FLEXIBLE);
+        command = new StockValueCommand(priceStore, TypeOfPortfolio.FLEXIBLE);
       } else if (userChoice.equals("6")) {
-        command = new PortfolioPerformanceCommand(stockPriceMap);
+        command = new PortfolioPerformanceCommand(priceStore);
       } else if (userChoice.equals("7")) {
         command = new StockCompositionCommand(TypeOfPortfolio.FLEXIBLE);
       } else if (userChoice.equals("8")) {
-        command = new BuyFractionalShareCommand(stockPriceMap, API_KEY);
+        command = new BuyFractionalShareCommand(priceStore, stockUtil);
       } else if (userChoice.equals("9")) {
-        command = new StrategyCommand(stockPriceMap, API_KEY);
+        command = new StrategyCommand(priceStore, stockUtil);
       } else if (userChoice.equals("back")) {
         break;
       } else {
@@ -1,12 +1,20 @@
 package controller;
 
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import model.User;
+import util.AlphavantagePriceSource;
 import util.ApiPeriod;
+import util.ColumnarPriceStore;
 import util.CsvFileUtil;
+import util.EndOfDayRefreshScheduler;
 import util.FileUtil;
+import util.PriceStore;
+import util.RefreshScheduler;
+import util.RefreshStatus;
 import util.StockPriceUtil;
 import util.StockUtil;
 import util.TradeType;
@@ -21,10 +29,13 @@ public class GUIController implements Feature {
   private final FileUtil fileUtil;
   private final StockUtil stockUtil;
   private final String RESOURCES_DIRECTORY;
-  private final String API_KEY;
   private final User user;
   private IView view;
-  private Map<String, Map<String, Double>> stockPriceMap;
+  private final PriceStore priceStore;
+  private final RefreshScheduler refreshScheduler;
+  private final Set<String> heldTickers;
+  private final Set<String> refreshedTickers;
+  private boolean refreshStarted;
 
   /**
    * Constructs an instance of GUIController by taking the main model user, api key and path for
@@ -35,12 +46,29 @@ public class GUIController implements Feature {
    * @param apiKey             for making API calls to fetch stock data
    */
   public GUIController(User user, String resourcesDirectory, String apiKey) {
+    this(user, resourcesDirectory, new StockPriceUtil(new AlphavantagePriceSource(apiKey)));
+  }
+
+  /**
+   * Constructs an instance of GUIController by taking the main model user, path for resources
+   * directory and the stock utility that fetches the stock data it is missing.
+   *
+   * @param user               main model of the application
+   * @param resourcesDirectory directory of various resources
+   * @param stockUtil          fetches stock data from its price source
+   */
+  public GUIController(User user, String resourcesDirectory, StockUtil stockUtil) {
     this.user = user;
     this.RESOURCES_DIRECTORY = resourcesDirectory;
     fileUtil = new CsvFileUtil();
-    stockUtil = new StockPriceUtil();
-    this.API_KEY = apiKey;
-    stockPriceMap = new HashMap<>();
+    this.stockUtil = stockUtil;
+    priceStore = new ColumnarPriceStore();
+    // both sets are filled on the thread of the view and read on the thread of the refreshes
+    heldTickers = ConcurrentHashMap.newKeySet();
+    refreshedTickers = ConcurrentHashMap.newKeySet();
+    refreshScheduler = new EndOfDayRefreshScheduler(stockUtil, priceStore, () -> heldTickers);
+    // the portfolios are only told about refreshed prices on the thread of the view
+    refreshScheduler.addRefreshListener(refreshedTickers::addAll);
     loadExistingFlexiblePortfolios();
   }
 
@@ -50,6 +78,15 @@ public class GUIController implements Feature {
     view.addFeatures(this);
     List<String> portfolioNames = user.listAllFlexiblePortfolioNames();
     view.populatePortfolioMenu(portfolioNames);
+    if (!refreshStarted) {
+      refreshStarted = true;
+      refreshScheduler.start();
+    }
+  }
+
+  @Override
+  public void handleClose() {
+    refreshScheduler.stop();
   }
 
   private void loadExistingFlexiblePortfolios() {
@@ -60,10 +97,8 @@ public class GUIController implements Feature {
       user.createPortfolio(null, portfolioData.getKey());
       for (String[] trade : portfolioData.getValue()) {
         String ticker = trade[0];
-        String stockPriceDataFileName = ticker + "_" + ApiPeriod.DAILY.getApiPeriod();
-        if (!stockPriceMap.containsKey(stockPriceDataFileName)) {
-          stockPriceMap = stockUtil.fetchStockData(API_KEY, ticker,
-              stockPriceMap);
+        if (!priceStore.containsTicker(ticker)) {
+          stockUtil.fetchStockData(ticker, priceStore);
         }
         String typeOfTrade = trade[3];
         double qty;
@@ -73,6 +108,7 @@ public class GUIController implements Feature {
           qty = Double.parseDouble(trade[1]);
         }
         user.addTradeToFlexiblePortfolio(portfolioData.getKey(), ticker, qty, trade[2]);
+        heldTickers.add(ticker);
       }
     }
   }
@@ -107,7 +143,7 @@ public class GUIController implements Feature {
     String portfolioName = view.getCurrentPortfolioName();
     if (!date.isEmpty()) {
       try {
-        Double value = user.getValuesOfStocksOfPortfolio(portfolioName, stockPriceMap, date);
+        Double value = user.getValuesOfStocksOfPortfolio(portfolioName, priceStore, date);
         view.showValueOfPortfolio(value);
       } catch (IllegalArgumentException e) {
         view.showValueStatus("Value could not be found!");
@@ -141,11 +177,9 @@ public class GUIController implements Feature {
     if (buyByQuantityInput != null) {
       String portfolioName = view.getCurrentPortfolioName();
       String ticker = buyByQuantityInput[0];
-      String stockPriceDataFileName = ticker + "_" + ApiPeriod.DAILY.getApiPeriod();
       try {
-        if (!stockPriceMap.containsKey(stockPriceDataFileName)) {
-          stockPriceMap = new StockPriceUtil().fetchStockData(API_KEY, ticker,
-              stockPriceMap);
+        if (!priceStore.containsTicker(ticker)) {
+          stockUtil.fetchStockData(ticker, priceStore);
         }
       } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
         view.showBuyStatus("Unsuccessful");
@@ -155,8 +189,9 @@ public class GUIController implements Feature {
       Double quantity = Double.parseDouble(buyByQuantityInput[1]);
       String date = buyByQuantityInput[2];
       try {
-        if (stockPriceMap.get(stockPriceDataFileName).containsKey(date)) {
+        if (priceStore.hasPriceOnDate(ticker, date)) {
           user.addTradeToFlexiblePortfolio(portfolioName, ticker, quantity, date);
+          heldTickers.add(ticker);
           user.savePortfolio(view.getCurrentPortfolioName(),
               RESOURCES_DIRECTORY + "flexible_portfolios/", fileUtil);
           view.showBuyStatus("Successful");
@@ -189,12 +224,9 @@ public class GUIController implements Feature {
     if (sellInput != null) {
       String portfolioName = view.getCurrentPortfolioName();
       String ticker = sellInput[0];
-      String stockPriceDataFileName = ticker + "_" + ApiPeriod.DAILY.getApiPeriod();
-
       try {
-        if (!stockPriceMap.containsKey(stockPriceDataFileName)) {
-          stockPriceMap = new StockPriceUtil().fetchStockData(API_KEY, ticker,
-              stockPriceMap);
+        if (!priceStore.containsTicker(ticker)) {
+          stockUtil.fetchStockData(ticker, priceStore);
         }
       } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
         view.showSellStatus("Unsuccessful");
@@ -204,8 +236,9 @@ public class GUIController implements Feature {
       Double quantity = (-1) * Double.parseDouble(sellInput[1]);
       String date = sellInput[2];
       try {
-        if (stockPriceMap.get(stockPriceDataFileName).containsKey(date)) {
+        if (priceStore.hasPriceOnDate(ticker, date)) {
           user.addTradeToFlexiblePortfolio(portfolioName, ticker, quantity, date);
+          heldTickers.add(ticker);
           user.savePortfolio(view.getCurrentPortfolioName(),
               RESOURCES_DIRECTORY + "flexible_portfolios/", fileUtil);
           view.showSellStatus("Successful");
@@ -228,8 +261,9 @@ public class GUIController implements Feature {
     String date = view.getCostBasisInputs();
     String portfolioName = view.getCurrentPortfolioName();
     if (!date.isEmpty()) {
+      invalidateRefreshedPrices();
       try {
-        Double value = user.getCostBasisForFlexiblePortfolio(portfolioName, date, stockPriceMap);
+        Double value = user.getCostBasisForFlexiblePortfolio(portfolioName, date, priceStore);
         view.showCostBasisOfPortfolio(value);
       } catch (IllegalArgumentException e) {
         view.showCostBasisStatus("Cost Basis could not be found!");
@@ -260,14 +294,9 @@ public class GUIController implements Feature {
       Map<String, Double> tickerProportions = view.getTickerProportions();
       if (tickerProportions != null) {
         for (Map.Entry<String, Double> tickerProportion : tickerProportions.entrySet()) {
-          String stockPriceDataFileName =
-              tickerProportion.getKey() + "_" + ApiPeriod.DAILY.getApiPeriod();
-
           try {
-            if (!stockPriceMap.containsKey(stockPriceDataFileName)) {
-              stockPriceMap = new StockPriceUtil().fetchStockData(API_KEY,
-                  tickerProportion.getKey(),
-                  stockPriceMap);
+            if (!priceStore.containsTicker(tickerProportion.getKey())) {
+              stockUtil.fetchStockData(tickerProportion.getKey(), priceStore);
             }
           } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
             view.showBuyByAmountFailed();
@@ -275,8 +304,9 @@ public class GUIController implements Feature {
           }
         }
         try {
-          user.addFractionalTradeToFlexiblePortfolio(view.getCurrentPortfolioName(), stockPriceMap,
+          user.addFractionalTradeToFlexiblePortfolio(view.getCurrentPortfolioName(), priceStore,
               amount, tickerProportions, date);
+          heldTickers.addAll(tickerProportions.keySet());
           user.savePortfolio(view.getCurrentPortfolioName(),
               RESOURCES_DIRECTORY + "flexible_portfolios/", fileUtil);
           view.showBuyByAmountSucceeded();
@@ -318,13 +348,9 @@ public class GUIController implements Feature {
       Map<String, Double> tickerProportions = view.getTickerProportionsForStrategy();
       if (tickerProportions != null) {
         for (Map.Entry<String, Double> tickerProportion : tickerProportions.entrySet()) {
-          String stockPriceDataFileName =
-              tickerProportion.getKey() + "_" + ApiPeriod.DAILY.getApiPeriod();
           try {
-            if (!stockPriceMap.containsKey(stockPriceDataFileName)) {
-              stockPriceMap = new StockPriceUtil().fetchStockData(API_KEY,
-                  tickerProportion.getKey(),
-                  stockPriceMap);
+            if (!priceStore.containsTicker(tickerProportion.getKey())) {
+              stockUtil.fetchStockData(tickerProportion.getKey(), priceStore);
             }
           } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
             view.showStrategyFailed();
@@ -332,8 +358,9 @@ public class GUIController implements Feature {
           }
         }
         try {
-          user.addStrategyToFlexiblePortfolio(view.getCurrentPortfolioName(), stockPriceMap, amount,
+          user.addStrategyToFlexiblePortfolio(view.getCurrentPortfolioName(), priceStore, amount,
               tickerProportions, fromDate, toDate, ApiPeriod.valueOf(period));
+          heldTickers.addAll(tickerProportions.keySet());
           user.savePortfolio(view.getCurrentPortfolioName(),
               RESOURCES_DIRECTORY + "flexible_portfolios/", fileUtil);
           view.showStrategySucceeded();
@@ -359,7 +386,7 @@ public class GUIController implements Feature {
       } else {
         try {
           user.getPerformanceOfFlexiblePortfolio(view.getCurrentPortfolioName(), from, to,
-              stockPriceMap,
+              priceStore,
               (stringDoubleMap, apiPeriod) -> view.showPerformanceView(stringDoubleMap, apiPeriod));
         } catch (IllegalArgumentException ie) {
           //do nothing
@@ -367,4 +394,18 @@ public class GUIController implements Feature {
       }
     }
   }
+
+  // tells the portfolios about the stocks refreshed since the last time prices were looked up
+  private void invalidateRefreshedPrices() {
+    if (!refreshedTickers.isEmpty()) {
+      Set<String> tickers = new HashSet<>(refreshedTickers);
+      refreshedTickers.removeAll(tickers);
+      user.invalidatePrices(tickers);
+    }
+  }
+
+  @Override
+  public RefreshStatus getPriceRefreshStatus() {
+    return refreshScheduler.getStatus();
+  }
 }
@@ -1,9 +1,10 @@
 package controller;
 
-import java.util.Map;
 import java.util.Scanner;
 import model.TypeOfPortfolio;
 import model.User;
+import util.PriceStore;
+import util.StockUtil;
 import view.StockAppView;
 
 /**
@@ -13,22 +14,21 @@ import view.StockAppView;
 final class InflexiblePortfolioCommand implements AppCommand {
 
   private final String RESOURCES_DIRECTORY;
-  private final String API_KEY;
-  private final Map<String, Map<String, Double>> stockPriceMap;
+  private final StockUtil stockUtil;
+  private final PriceStore priceStore;
 
   /**
    * Constructs an instance of {@link InflexiblePortfolioCommand} that will enable all the features
    * of inflexible portfolio.
    *
-   * @param stockPriceMap a map of maps of stock names and their respective values on a range of
-   *                      dates
-   * @param apiKey        for making the api calls to fetch data for stocks
+   * @param priceStore a store of stock names and their respective values on a range of dates
+   * @param stockUtil  fetches the data of stocks missing from the price store
    */
-  public InflexiblePortfolioCommand(Map<String, Map<String, Double>> stockPriceMap,
-      String resourcesDirectory, String apiKey) {
-    this.stockPriceMap = stockPriceMap;
+  public InflexiblePortfolioCommand(PriceStore priceStore,
+      String resourcesDirectory, StockUtil stockUtil) {
+    this.priceStore = priceStore;
     this.RESOURCES_DIRECTORY = resourcesDirectory;
-    this.API_KEY = apiKey;
+    this.stockUtil = stockUtil;
   }
 
   @Override
@@ -39,11 +39,11 @@ final class InflexiblePortfolioCommand implements AppCommand {
       userChoice = sc.nextLine();
       AppCommand command = null;
       if (userChoice.equals("1")) {
-        command = new PortfolioCreationCommand(stockPriceMap, RESOURCES_DIRECTORY, API_KEY);
+        command = new PortfolioCreationCommand(priceStore, RESOURCES_DIRECTORY, stockUtil);
       } else if (userChoice.equals("2")) {
         command = new StockCompositionCommand(TypeOfPortfolio.INFLEXIBLE);
       } else if (userChoice.equals("3")) {
-        command = new StockValueCommand(stockPriceMap, TypeOfPortfolio.INFLEXIBLE);
+        command = new StockValueCommand(priceStore, TypeOfPortfolio.INFLEXIBLE);
       } else if (userChoice.equals("back")) {
         break;
       } else {
@@ -7,11 +7,10 @@ import java.util.Map;
 import java.util.Scanner;
 import java.util.function.Consumer;
 import model.User;
-import util.ApiPeriod;
 import util.CsvFileUtil;
 import util.FileUtil;
 import util.ParamNullChecker;
-import util.StockPriceUtil;
+import util.PriceStore;
 import util.StockUtil;
 import view.StockAppView;
 
@@ -23,32 +22,30 @@ final class PortfolioCreationCommand implements AppCommand {
 
   private static final String CSV = ".csv";
   private final String RESOURCES_DIRECTORY;
-  private final String API_KEY;
   private final Consumer<Object[]> nullChecker;
   private final FileUtil fileUtil;
   private final StockUtil stockUtil;
   private final AppInputCommand appInputCommand;
-  private Map<String, Map<String, Double>> stockPriceMap;
+  private final PriceStore priceStore;
 
   /**
    * Constructs an instance of PortfolioCreationCommand that is responsible to co-ordinate with view
    * and model to enable creation of a portfolio by either a file or manually asking the stock
    * data.
    *
-   * @param stockPriceMap      a map of maps of stock names and their respective values on a range
-   *                           of dates
+   * @param priceStore         a store of stock names and their respective values on a range of
+   *                           dates
    * @param resourcesDirectory represents the base location of required resources for the
    *                           application to run
-   * @param apiKey             to make api calls to fetch the stock data from api
+   * @param stockUtil          fetches the data of stocks missing from the price store
    */
-  public PortfolioCreationCommand(Map<String, Map<String, Double>> stockPriceMap,
-      String resourcesDirectory, String apiKey) {
+  public PortfolioCreationCommand(PriceStore priceStore,
+      String resourcesDirectory, StockUtil stockUtil) {
     nullChecker = new ParamNullChecker();
-    this.stockPriceMap = stockPriceMap;
+    this.priceStore = priceStore;
     this.RESOURCES_DIRECTORY = resourcesDirectory;
-    this.API_KEY = apiKey;
+    this.stockUtil = stockUtil;
     this.fileUtil = new CsvFileUtil();
-    this.stockUtil = new StockPriceUtil();
     this.appInputCommand = new StockAppInputCommand();
   }
 
@@ -82,8 +79,7 @@ final class PortfolioCreationCommand implements AppCommand {
       if (isAnyQuantityOfStockNegative(stockMap)) {
         throw new IllegalArgumentException("Quantity in a file for portfolio cannot be negative!");
       }
-      stockPriceMap = stockUtil.fetchAllStockData(API_KEY, stockMap.keySet(),
-          stockPriceMap);
+      stockUtil.fetchAllStockData(stockMap.keySet(), priceStore);
       user.createPortfolio(stockMap, portfolioName);
       view.showLoadPortfolioByFileSuccessful(filePath);
       user.savePortfolio(portfolioName,
@@ -102,6 +98,7 @@ final class PortfolioCreationCommand implements AppCommand {
     return false;
   }
 
+
   private String getValidFilePath(String filePath, StockAppView view, Scanner sc) {
     while ((filePath.isBlank() || !filePath.contains(CSV))) {
       view.showInvalidFilePath();
@@ -138,10 +135,8 @@ final class PortfolioCreationCommand implements AppCommand {
       view.askTickerOfStock();
       String ticker = sc.nextLine();
       try {
-        String stockPriceDataFileName = ticker + "_" + ApiPeriod.DAILY.getApiPeriod();
-        if (!stockPriceMap.containsKey(stockPriceDataFileName)) {
-          stockPriceMap = stockUtil.fetchStockData(API_KEY, ticker,
-              stockPriceMap);
+        if (!priceStore.containsTicker(ticker)) {
+          stockUtil.fetchStockData(ticker, priceStore);
         }
       } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
         view.showUnsupportedTickerName(ticker);
@@ -163,7 +158,6 @@ final class PortfolioCreationCommand implements AppCommand {
     return stocks;
   }
 
-
   private String getNewPortfolioName(String portfolioName, User user, StockAppView view,
       Scanner sc) {
     while (user.inflexiblePortfolioExists(portfolioName) || portfolioName.isBlank()) {
@@ -1,9 +1,9 @@
 package controller;
 
-import java.util.Map;
 import java.util.Scanner;
 import model.TypeOfPortfolio;
 import model.User;
+import util.PriceStore;
 import view.StockAppView;
 
 /**
@@ -12,18 +12,17 @@ import view.StockAppView;
  */
 final class PortfolioPerformanceCommand implements AppCommand {
 
-  private final Map<String, Map<String, Double>> stockPriceMap;
+  private final PriceStore priceStore;
   private final AppInputCommand appInputCommand;
 
   /**
    * Constructs an instance of PortfolioPerformanceCommand that is responsible to show performance
    * of a flexible portfolio. data.
    *
-   * @param stockPriceMap a map of maps of stock names and their respective values on a range of
-   *                      dates
+   * @param priceStore a store of stock names and their respective values on a range of dates
    */
-  public PortfolioPerformanceCommand(Map<String, Map<String, Double>> stockPriceMap) {
-    this.stockPriceMap = stockPriceMap;
+  public PortfolioPerformanceCommand(PriceStore priceStore) {
+    this.priceStore = priceStore;
     this.appInputCommand = new StockAppInputCommand();
   }
 
@@ -37,7 +36,7 @@ final class PortfolioPerformanceCommand implements AppCommand {
     String to = appInputCommand.handleGetDate(view, sc);
     view.showPerformanceHeader(portfolioName, from, to);
     try {
-      user.getPerformanceOfFlexiblePortfolio(portfolioName, from, to, stockPriceMap,
+      user.getPerformanceOfFlexiblePortfolio(portfolioName, from, to, priceStore,
           new PerformanceScalerCommand(view));
     } catch (IllegalArgumentException e) {
       view.showPortfolioDetailsNotAvailableForDate(portfolioName, from);
@@ -2,17 +2,20 @@ package controller;
 
 import java.io.File;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.function.Consumer;
 import model.User;
+import util.AlphavantagePriceSource;
 import util.ApiPeriod;
+import util.ColumnarPriceStore;
 import util.CsvFileUtil;
 import util.FileUtil;
 import util.ParamNullChecker;
+import util.PriceStore;
 import util.StockPriceUtil;
 import util.StockUtil;
 import util.TradeType;
@@ -26,14 +29,13 @@ import view.StockAppView;
 public final class StockAppControllerImpl implements StockAppController {
 
   private final String RESOURCES_DIRECTORY;
-  private final String STOCK_PRICE_DATA_DIRECTORY;
-  private final String API_KEY;
   private final User user;
   private final StockAppView view;
   private final InputStream inputStream;
   private final FileUtil fileUtil;
   private final StockUtil stockUtil;
-  private Map<String, Map<String, Double>> stockPriceMap;
+  private final Set<String> portfolioTickers;
+  private final PriceStore priceStore;
 
   /**
    * Constructs an instance of StockAppController that runs a text-based stock application and
@@ -52,17 +54,38 @@ public final class StockAppControllerImpl implements StockAppController {
    */
   public StockAppControllerImpl(User user, StockAppView view, InputStream inputStream,
       String resourcesDirectory, String stockPriceDataDirectory, String apiKey) {
+    this(user, view, inputStream, resourcesDirectory, stockPriceDataDirectory,
+        new StockPriceUtil(new AlphavantagePriceSource(apiKey),
+            resourcesDirectory + stockPriceDataDirectory));
+  }
+
+  /**
+   * Constructs an instance of StockAppController that runs a text-based stock application and
+   * fetches the stock data it is missing with the given stock utility.
+   *
+   * @param user                    of the stock application that can store portfolios and view
+   *                                their value and composition
+   * @param view                    represents a text based interface that displays appropriate
+   *                                messages to keep the application interactive
+   * @param inputStream             represents a stream to take inputs from the user
+   * @param resourcesDirectory      represents the base location of required resources for the
+   *                                application to run
+   * @param stockPriceDataDirectory represents the location of file that has a table of supported
+   *                                ticker names and their respective prices on a range of dates
+   * @param stockUtil               fetches the stock data from its price source
+   */
+  public StockAppControllerImpl(User user, StockAppView view, InputStream inputStream,
+      String resourcesDirectory, String stockPriceDataDirectory, StockUtil stockUtil) {
     Consumer<Object[]> nullChecker = new ParamNullChecker();
-    nullChecker.accept(new Object[]{user, view, inputStream});
+    nullChecker.accept(new Object[]{user, view, inputStream, stockUtil});
     this.user = user;
     this.view = view;
     this.inputStream = inputStream;
     this.RESOURCES_DIRECTORY = resourcesDirectory;
-    this.STOCK_PRICE_DATA_DIRECTORY = resourcesDirectory + stockPriceDataDirectory;
-    this.API_KEY = apiKey;
-    stockPriceMap = new HashMap<>();
+    this.stockUtil = stockUtil;
+    priceStore = new ColumnarPriceStore();
+    portfolioTickers = new HashSet<>();
     fileUtil = new CsvFileUtil();
-    stockUtil = new StockPriceUtil();
   }
 
   @Override
@@ -75,9 +98,9 @@ public final class StockAppControllerImpl implements StockAppController {
       userChoice = sc.nextLine();
       AppCommand command = null;
       if (userChoice.equals("1")) {
-        command = new InflexiblePortfolioCommand(stockPriceMap, RESOURCES_DIRECTORY, API_KEY);
+        command = new InflexiblePortfolioCommand(priceStore, RESOURCES_DIRECTORY, stockUtil);
       } else if (userChoice.equals("2")) {
-        command = new FlexiblePortfolioCommand(stockPriceMap, API_KEY);
+        command = new FlexiblePortfolioCommand(priceStore, stockUtil);
       } else if (userChoice.equals("3")) {
         command = new CommissionChargeCommand();
       } else if (userChoice.equals("exit")) {
@@ -91,7 +114,6 @@ public final class StockAppControllerImpl implements StockAppController {
     }
     sc.close();
     saveFlexiblePortfolios();
-    cleanupStockPriceDataDirectory();
     view.showExitAppMessage();
   }
 
@@ -103,37 +125,30 @@ public final class StockAppControllerImpl implements StockAppController {
     }
   }
 
-  private void cleanupStockPriceDataDirectory() {
-    File resourceDir = new File(STOCK_PRICE_DATA_DIRECTORY);
-    if (resourceDir.isDirectory()) {
-      for (File file : Objects.requireNonNull(resourceDir.listFiles())) {
-        deleteTempFiles(file.getPath());
-      }
-    }
-  }
-
-  private void deleteTempFiles(String fileName) {
-    File file;
-    file = new File(fileName);
-    file.delete();
-  }
-
   private void initialiseApp() {
     view.showAppStart();
     view.showInitialDataIsLoading();
-    loadStockPriceDataFromCache();
+    registerCachedStockPriceData();
     loadExistingInflexiblePortfolios();
     loadExistingFlexiblePortfolios();
+    priceStore.prefetch(portfolioTickers);
     view.showInitializationComplete();
   }
 
-  private void loadStockPriceDataFromCache() {
-    Map<String, List<String[]>> cacheStockPrices = fileUtil.readAllFiles(
-        RESOURCES_DIRECTORY + "stock_value_data_cache/");
-    for (Map.Entry<String, List<String[]>> cache : cacheStockPrices.entrySet()) {
-      List<String[]> stockDataFromFile = cache.getValue();
-      Map<String, Double> stockData = stockUtil.getStockMap(stockDataFromFile, 0, 4);
-      stockPriceMap.put(cache.getKey(), stockData);
+  private void registerCachedStockPriceData() {
+    File cacheDirectory = new File(RESOURCES_DIRECTORY + "stock_value_data_cache/");
+    File[] cacheFiles = cacheDirectory.listFiles();
+    if (cacheFiles == null) {
+      return;
+    }
+    String fileSuffix = "_" + ApiPeriod.DAILY.getApiPeriod() + ".csv";
+    for (File cacheFile : cacheFiles) {
+      String fileName = cacheFile.getName();
+      if (cacheFile.isFile() && fileName.endsWith(fileSuffix)) {
+        String ticker = fileName.substring(0, fileName.length() - fileSuffix.length());
+        String cacheFilePath = cacheFile.getPath();
+        priceStore.registerLoader(ticker, () -> stockUtil.loadPriceSeries(cacheFilePath));
+      }
     }
   }
 
@@ -144,9 +159,9 @@ public final class StockAppControllerImpl implements StockAppController {
     for (Map.Entry<String, List<String[]>> portfolioData
         : existingInflexiblePortfoliosMap.entrySet()) {
       Map<String, Double> stocks = stockUtil.getStockMap(portfolioData.getValue(), 0, 1);
+      portfolioTickers.addAll(stocks.keySet());
       try {
-        stockPriceMap = stockUtil.fetchAllStockData(API_KEY, stocks.keySet(),
-            stockPriceMap);
+        stockUtil.fetchAllStockData(stocks.keySet(), priceStore);
       } catch (RuntimeException re) {
         view.showLoadPortfolioByFileUnsuccessful(RESOURCES_DIRECTORY);
       }
@@ -163,10 +178,10 @@ public final class StockAppControllerImpl implements StockAppController {
       user.createPortfolio(null, portfolioData.getKey());
       for (String[] trade : portfolioData.getValue()) {
         String ticker = trade[0];
-        String stockPriceDataFileName = ticker + "_" + ApiPeriod.DAILY.getApiPeriod();
-        if (!stockPriceMap.containsKey(stockPriceDataFileName)) {
-          stockPriceMap = stockUtil.fetchStockData(API_KEY, ticker,
-              stockPriceMap);
+        portfolioTickers.add(ticker);
+        // registered histories are loaded by the prefetch once every portfolio is read
+        if (!priceStore.isRegistered(ticker)) {
+          stockUtil.fetchStockData(ticker, priceStore);
         }
         String typeOfTrade = trade[3];
         double qty;
@@ -1,11 +1,11 @@
 package controller;
 
-import java.util.Map;
 import java.util.Scanner;
 import java.util.function.Consumer;
 import model.TypeOfPortfolio;
 import model.User;
 import util.ParamNullChecker;
+import util.PriceStore;
 import view.StockAppView;
 
 /**
@@ -14,7 +14,7 @@ import view.StockAppView;
  */
 final class StockValueCommand implements AppCommand {
 
-  private final Map<String, Map<String, Double>> stockPriceMap;
+  private final PriceStore priceStore;
   private final Consumer<Object[]> nullChecker;
   private final TypeOfPortfolio typeOfPortfolio;
   private final AppInputCommand appInputCommand;
@@ -24,13 +24,12 @@ final class StockValueCommand implements AppCommand {
    * Constructs an instance of StockValueCommand that is responsible to co-ordinate with view and
    * model to enable viewing of composition of a portfolio.
    *
-   * @param stockPriceMap represents a map of maps that represents stocks and their prices on a
-   *                      range of dates
+   * @param priceStore represents a store of stocks and their prices on a range of dates
    */
-  public StockValueCommand(Map<String, Map<String, Double>> stockPriceMap,
+  public StockValueCommand(PriceStore priceStore,
       TypeOfPortfolio typeOfPortfolio) {
     nullChecker = new ParamNullChecker();
-    this.stockPriceMap = stockPriceMap;
+    this.priceStore = priceStore;
     this.typeOfPortfolio = typeOfPortfolio;
     this.appInputCommand = new StockAppInputCommand();
   }
@@ -42,7 +41,7 @@ final class StockValueCommand implements AppCommand {
     String date = appInputCommand.handleGetDate(view, sc);
     try {
       Double portfolioValue = user.getValuesOfStocksOfPortfolio(portfolioName,
-          stockPriceMap, date);
+          priceStore, date);
       view.showPortfolioValue(portfolioName, date, portfolioValue);
     } catch (IllegalArgumentException ie) {
       view.showPortfolioDetailsNotAvailableForDate(portfolioName, date);
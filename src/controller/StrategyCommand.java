@@ -8,7 +8,8 @@ import java.util.Scanner;
 import model.TypeOfPortfolio;
 import model.User;
 import util.ApiPeriod;
-import util.StockPriceUtil;
+import util.PriceStore;
+import util.StockUtil;
 import util.ValidDateChecker;
 import view.StockAppView;
 
@@ -20,20 +21,20 @@ import view.StockAppView;
 public class StrategyCommand implements AppCommand {
 
   private final AppInputCommand appInputCommand;
-  private final String API_KEY;
-  private Map<String, Map<String, Double>> stockPriceMap;
+  private final StockUtil stockUtil;
+  private final PriceStore priceStore;
 
   /**
-   * Constructs an instance of StrategyCommand by taking a map of stock prices on a range of dates
-   * and api key to make the api call.
+   * Constructs an instance of StrategyCommand by taking a store of stock prices on a range of dates
+   * and a stock utility to fetch missing stock data.
    *
-   * @param stockPriceMap a map of stock prices on a range of dates
-   * @param apiKey        api key for stocks data api
+   * @param priceStore a store of stock prices on a range of dates
+   * @param stockUtil  fetches the data of stocks missing from the price store
    */
-  public StrategyCommand(Map<String, Map<String, Double>> stockPriceMap, String apiKey) {
+  public StrategyCommand(PriceStore priceStore, StockUtil stockUtil) {
     this.appInputCommand = new StockAppInputCommand();
-    this.stockPriceMap = stockPriceMap;
-    this.API_KEY = apiKey;
+    this.priceStore = priceStore;
+    this.stockUtil = stockUtil;
   }
 
   @Override
@@ -59,10 +60,8 @@ public class StrategyCommand implements AppCommand {
         continue;
       }
       try {
-        String stockPriceDataFileName = ticker + "_" + ApiPeriod.DAILY.getApiPeriod();
-        if (!stockPriceMap.containsKey(stockPriceDataFileName)) {
-          stockPriceMap = new StockPriceUtil().fetchStockData(API_KEY, ticker,
-              stockPriceMap);
+        if (!priceStore.containsTicker(ticker)) {
+          stockUtil.fetchStockData(ticker, priceStore);
         }
       } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
         view.showUnsupportedTickerName(ticker);
@@ -104,7 +103,7 @@ public class StrategyCommand implements AppCommand {
       period = sc.nextLine();
     }
     try {
-      user.addStrategyToFlexiblePortfolio(portfolioName, stockPriceMap, amount, tickerRatios,
+      user.addStrategyToFlexiblePortfolio(portfolioName, priceStore, amount, tickerRatios,
           from, to, ApiPeriod.valueOfApiPeriod(period));
       view.strategyCreated();
     } catch (IllegalArgumentException e) {
@@ -1,12 +1,12 @@
 package controller;
 
-import java.util.Map;
 import java.util.Scanner;
 import model.TypeOfPortfolio;
 import model.User;
-import util.ApiPeriod;
-import util.StockPriceUtil;
+import util.PriceStore;
+import util.StockUtil;
 import util.TradeType;
+import util.TradingCalendar;
 import view.StockAppView;
 
 /**
@@ -15,23 +15,22 @@ import view.StockAppView;
  */
 final class TradeCommand implements AppCommand {
 
-  private final String API_KEY;
+  private final StockUtil stockUtil;
   private final TradeType tradeType;
   private final AppInputCommand appInputCommand;
-  private Map<String, Map<String, Double>> stockPriceMap;
+  private final PriceStore priceStore;
 
   /**
    * Constructs an instance of TradeCommand that performs buy or sell on a flexible portfolio.
    *
-   * @param stockPriceMap a map of maps of stock names and their respective values on a range of
-   *                      dates
-   * @param apiKey        to make api calls to fetch the stock data from api
-   * @param tradeType     buy or sell
+   * @param priceStore a store of stock names and their respective values on a range of dates
+   * @param stockUtil  fetches the data of stocks missing from the price store
+   * @param tradeType  buy or sell
    */
-  public TradeCommand(Map<String, Map<String, Double>> stockPriceMap, String apiKey,
+  public TradeCommand(PriceStore priceStore, StockUtil stockUtil,
       TradeType tradeType) {
-    this.stockPriceMap = stockPriceMap;
-    this.API_KEY = apiKey;
+    this.priceStore = priceStore;
+    this.stockUtil = stockUtil;
     this.tradeType = tradeType;
     this.appInputCommand = new StockAppInputCommand();
   }
@@ -43,7 +42,6 @@ final class TradeCommand implements AppCommand {
     String ticker;
     double quantity;
     String date;
-    String stockPriceDataFileName;
     while (true) {
       view.askTickerOfStock();
       ticker = sc.nextLine();
@@ -52,10 +50,8 @@ final class TradeCommand implements AppCommand {
         continue;
       }
       try {
-        stockPriceDataFileName = ticker + "_" + ApiPeriod.DAILY.getApiPeriod();
-        if (!stockPriceMap.containsKey(stockPriceDataFileName)) {
-          stockPriceMap = new StockPriceUtil().fetchStockData(API_KEY, ticker,
-              stockPriceMap);
+        if (!priceStore.containsTicker(ticker)) {
+          stockUtil.fetchStockData(ticker, priceStore);
         }
       } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
         view.showUnsupportedTickerName(ticker);
@@ -68,11 +64,11 @@ final class TradeCommand implements AppCommand {
       if (tradeType.equals(TradeType.SELL)) {
         quantity = (-1.0) * quantity;
       }
-      date = handleValidDate(view, sc, ticker, stockPriceDataFileName);
+      date = handleValidDate(view, sc, ticker);
       break;
     }
     try {
-      if (stockPriceMap.get(stockPriceDataFileName).containsKey(date)) {
+      if (priceStore.hasPriceOnDate(ticker, date)) {
         user.addTradeToFlexiblePortfolio(portfolioName, ticker, quantity, date);
         view.showTradeSuccessful(tradeType.getTradeType());
       } else {
@@ -83,11 +79,11 @@ final class TradeCommand implements AppCommand {
     }
   }
 
-  private String handleValidDate(StockAppView view, Scanner sc, String ticker,
-      String stockPriceDataFileName) {
+  private String handleValidDate(StockAppView view, Scanner sc, String ticker) {
+    TradingCalendar calendar = priceStore.getSeries(ticker).getTradingCalendar();
     view.askDate();
     String dateString = sc.nextLine();
-    while (!stockPriceMap.get(stockPriceDataFileName).containsKey(dateString)) {
+    while (!calendar.isTradingDay(dateString)) {
       view.showStockDetailsNotAvailableOnDate(ticker, dateString);
       view.askDate();
       dateString = sc.nextLine();
@@ -1,11 +1,12 @@
 package model;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Consumer;
-import util.ApiPeriod;
+import util.EpochDays;
 import util.ParamNullChecker;
+import util.PriceStore;
+import util.TickerSymbols;
 
 /**
  * Represents an abstraction for Portfolio class that contains common features for all kinds of
@@ -15,48 +16,53 @@ abstract class AbstractPortfolio implements Portfolio {
 
   private final Consumer<Object[]> nullChecker = new ParamNullChecker();
 
+  /**
+   * Fetches the quantity of each stock in this portfolio on a particular date, listing the stocks
+   * by the id assigned to their ticker by {@link TickerSymbols}. Stocks that are not part of the
+   * portfolio on the date are left out, while a stock sold completely is listed with a quantity of
+   * zero so that it is still told apart from one never traded.
+   *
+   * @param date on which the composition is asked
+   * @return quantities of the stocks of the portfolio
+   */
+  protected abstract Positions getPositions(String date);
+
+  @Override
+  public Map<String, Double> getComposition(String date) {
+    Positions positions = getPositions(date);
+    Map<String, Double> composition = new HashMap<>();
+    for (int i = 0; i < positions.size(); i++) {
+      composition.put(TickerSymbols.nameOf(positions.getTickerId(i)), positions.getQuantity(i));
+    }
+    return composition;
+  }
+
   @Override
-  public Double getValue(Map<String, Map<String, Double>> stockPriceMap, String date)
+  public Double getValue(PriceStore priceStore, String date)
       throws IllegalArgumentException, NullPointerException {
-    nullChecker.accept(new Object[]{stockPriceMap, date});
-    Map<String, Double> composition = this.getComposition(date);
+    nullChecker.accept(new Object[]{priceStore, date});
+    Positions positions = getPositions(date);
+    int epochDay = EpochDays.parse(date);
     double portfolioValue = 0.0;
-    for (Map.Entry<String, Double> stock : composition.entrySet()) {
-      String ticker = stock.getKey();
-      portfolioValue += getStockPriceOnDate(ticker, date, stockPriceMap) * stock.getValue();
+    for (int i = 0; i < positions.size(); i++) {
+      portfolioValue += getStockPriceOnDate(positions.getTickerId(i), epochDay, priceStore)
+          * positions.getQuantity(i);
     }
     return portfolioValue;
   }
 
   /**
-   * Fetches the stock price of a stock on a given date.
+   * Fetches the stock price of a stock on a given date, or its last price before the date if it
+   * was not traded on that date.
    *
-   * @param ticker        is the stock name
-   * @param date          on which its price is asked
-   * @param stockPriceMap a map of maps of stock names and their respective values on a range of
-   *                      dates
+   * @param tickerId   is the id of the stock name
+   * @param epochDay   day since epoch on which its price is asked
+   * @param priceStore a store of stock names and their respective values on a range of dates
    * @return price of stock on a given date
    */
-  protected Double getStockPriceOnDate(String ticker, String date,
-      Map<String, Map<String, Double>> stockPriceMap) {
-    String tickerAndPeriod = ticker + "_" + ApiPeriod.DAILY.getApiPeriod();
-    if (stockPriceMap.containsKey(tickerAndPeriod)) {
-      Map<String, Double> stockValuesHistory = stockPriceMap.get(tickerAndPeriod);
-      if (stockValuesHistory.containsKey(date)) {
-        return stockValuesHistory.get(date);
-      } else {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        LocalDate localDate = LocalDate.parse(date, formatter);
-        for (int i = 0; i < 100; i++) {
-          LocalDate current = localDate.minusDays(i);
-          String today = current.format(formatter);
-          if (stockValuesHistory.containsKey(today)) {
-            return stockValuesHistory.get(today);
-          }
-        }
-        throw new IllegalArgumentException(
-            "Stock values not present on any date in last 100 days from the given date");
-      }
+  protected double getStockPriceOnDate(int tickerId, int epochDay, PriceStore priceStore) {
+    if (priceStore.containsTicker(tickerId)) {
+      return priceStore.getPriceAsOf(tickerId, epochDay);
     } else {
       throw new IllegalArgumentException("Stock values not present for given stock name");
     }
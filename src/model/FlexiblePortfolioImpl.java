@@ -10,8 +10,7 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -23,9 +22,13 @@ import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import util.ApiPeriod;
+import util.EpochDays;
 import util.FileUtil;
 import util.ParamNullChecker;
+import util.PriceStore;
+import util.TickerSymbols;
 import util.TradeType;
+import util.TradingCalendar;
 import util.ValidDateChecker;
 
 /**
@@ -34,9 +37,12 @@ import util.ValidDateChecker;
  */
 final class FlexiblePortfolioImpl extends AbstractPortfolio implements FlexiblePortfolio {
 
+  private static final int FRIDAY = DayOfWeek.FRIDAY.getValue();
   private final String portfolioName;
   private final Consumer<Object[]> nullChecker;
-  private final List<Trade> trades;
+  private final TradeLedger trades;
+  private final PositionIndex positionIndex;
+  private PriceStore costBasisPriceStore;
 
   /**
    * Constructs an instance of FlexiblePortfolioImpl that represents a flexible portfolio.
@@ -44,10 +50,24 @@ final class FlexiblePortfolioImpl extends AbstractPortfolio implements FlexibleP
    * @param portfolioName name of portfolio
    */
   public FlexiblePortfolioImpl(String portfolioName) {
+    this(portfolioName, TradeLedger.DEFAULT_CHECKPOINT_SPACING);
+  }
+
+  /**
+   * Constructs an instance of FlexiblePortfolioImpl that keeps the positions held after every
+   * given number of trades, so that its composition on a date replays at most that many trades.
+   *
+   * @param portfolioName     name of portfolio
+   * @param checkpointSpacing number of trades between two position checkpoints
+   * @throws IllegalArgumentException if the spacing is not positive
+   */
+  FlexiblePortfolioImpl(String portfolioName, int checkpointSpacing)
+      throws IllegalArgumentException {
     nullChecker = new ParamNullChecker();
     nullChecker.accept(new Object[]{portfolioName});
     this.portfolioName = portfolioName;
-    trades = new ArrayList<>();
+    trades = new TradeLedger(checkpointSpacing);
+    positionIndex = new PositionIndex();
   }
 
   private static boolean isValidDate(LocalDate date) {
@@ -56,56 +76,59 @@ final class FlexiblePortfolioImpl extends AbstractPortfolio implements FlexibleP
     return !date.isBefore(minYear) && !date.isAfter(LocalDate.now());
   }
 
+
   @Override
   public void addTrade(String ticker, Double quantity, String date)
       throws IllegalArgumentException {
     nullChecker.accept(new Object[]{portfolioName, ticker, quantity, date});
-    checkTradeConsistency(ticker, quantity);
-    this.trades.add(new TradeImpl(new StockImpl(ticker, quantity), date));
+    Stock stock = new StockImpl(ticker, quantity);
+    int epochDay = EpochDays.parse(date);
+    checkTradeConsistency(stock, epochDay);
+    this.trades.insert(new TradeImpl(stock, date));
+    positionIndex.add(stock.getTickerId(), epochDay, stock.getQuantity());
   }
 
-  private void checkTradeConsistency(String ticker, Double quantity)
-      throws IllegalArgumentException {
-    this.trades.sort(Comparator.comparing(Trade::getDateOfTrade));
-    if (quantity < 0.0) {
-      Double qtySoFar = 0.0;
-      for (Trade trade : this.trades) {
-        if (trade.getName().equals(ticker)) {
-          qtySoFar += trade.getQuantity();
-        }
-      }
-      qtySoFar += quantity;
-      if (qtySoFar < 0.0) {
-        throw new IllegalArgumentException(
-            "You cannot sell more than you have bought so far for " + ticker);
-      }
+  private void checkTradeConsistency(Stock stock, int epochDay) throws IllegalArgumentException {
+    if (!positionIndex.canTrade(stock.getTickerId(), epochDay, stock.getQuantity())) {
+      throw new IllegalArgumentException(
+          "You cannot sell more than you have bought so far for " + stock.getName());
     }
   }
 
   @Override
-  public Double getCostBasis(String date, Double commission,
-      Map<String, Map<String, Double>> stockPriceMap) {
+  public Double getCostBasis(String date, Double commission, PriceStore priceStore) {
     Double costBasis = 0.0;
     if (trades.isEmpty()) {
       return costBasis;
     }
-    this.trades.sort(Comparator.comparing(Trade::getDateOfTrade));
-    for (Trade trade : this.trades) {
-      if (trade.getDateOfTrade().compareTo(date) > 0) {
-        break;
-      }
-      if (trade.getQuantity() > 0.0) {
-        Double price = getStockPriceOnDate(trade.getName(), trade.getDateOfTrade(), stockPriceMap);
-        costBasis += (price * trade.getQuantity());
+    if (priceStore != costBasisPriceStore) {
+      trades.clearCosts();
+      costBasisPriceStore = priceStore;
+    }
+    int count = trades.countUpTo(date);
+    costBasis = trades.getCumulativeCost(count, index -> {
+      Trade trade = trades.get(index);
+      if (trade.getQuantity() <= 0.0) {
+        return 0.0;
       }
-      costBasis += commission;
+      return getStockPriceOnDate(trade.getTickerId(), trades.getEpochDay(index), priceStore)
+          * trade.getQuantity();
+    });
+    return costBasis + count * commission;
+  }
+
+  @Override
+  public void invalidatePrices(Set<String> tickers) {
+    nullChecker.accept(new Object[]{tickers});
+    Set<Integer> tickerIds = new HashSet<>();
+    for (String ticker : tickers) {
+      tickerIds.add(TickerSymbols.find(ticker));
     }
-    return costBasis;
+    trades.clearCosts(tickerIds);
   }
 
   @Override
-  public void getPerformance(String from, String to,
-      Map<String, Map<String, Double>> stockPriceMap,
+  public void getPerformance(String from, String to, PriceStore priceStore,
       BiConsumer<Map<String, Double>, ApiPeriod> performanceScaler)
       throws IllegalArgumentException {
     DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
@@ -119,19 +142,19 @@ final class FlexiblePortfolioImpl extends AbstractPortfolio implements FlexibleP
       throw new IllegalArgumentException("From Date is after To Date");
     } else if (diff < 30) {
       //Daily scale
-      performance = getDailyPerformance(stockPriceMap, formatter, fromDate, toDate);
+      performance = getDailyPerformance(priceStore, fromDate, toDate);
       timeScale = ApiPeriod.DAILY;
     } else if (diff < 210) {
       //Weekly scale
-      performance = getWeeklyPerformance(stockPriceMap, formatter, fromDate, toDate);
+      performance = getWeeklyPerformance(priceStore, fromDate, toDate);
       timeScale = ApiPeriod.WEEKLY;
     } else if (diff < 900) {
       //Monthly scale
-      performance = getMonthlyPerformance(stockPriceMap, formatter, fromDate, toDate);
+      performance = getMonthlyPerformance(priceStore, fromDate, toDate);
       timeScale = ApiPeriod.MONTHLY;
     } else if (diff > 900) {
       //Yearly Scale
-      performance = getYearlyPerformance(stockPriceMap, formatter, fromDate, toDate);
+      performance = getYearlyPerformance(priceStore, fromDate, toDate);
       timeScale = ApiPeriod.YEARLY;
     } else {
       throw new IllegalArgumentException("Dates not supported to view performance");
@@ -141,7 +164,7 @@ final class FlexiblePortfolioImpl extends AbstractPortfolio implements FlexibleP
   }
 
   @Override
-  public void addFractionalTrades(Map<String, Map<String, Double>> stockPriceMap, Double amount,
+  public void addFractionalTrades(PriceStore priceStore, Double amount,
       Map<String, Double> tickerRatios, String date) throws IllegalArgumentException {
     if (amount < 0) {
       throw new IllegalArgumentException("Amount cannot be negative");
@@ -162,10 +185,9 @@ final class FlexiblePortfolioImpl extends AbstractPortfolio implements FlexibleP
       for (Map.Entry<String, Double> tickerRatio : tickerRatios.entrySet()) {
         String ticker = tickerRatio.getKey();
         Double ratio = tickerRatio.getValue();
-        if (stockPriceMap.containsKey(ticker + "_DAILY")) {
-          Map<String, Double> datePrices = stockPriceMap.get(ticker + "_DAILY");
-          if (datePrices.containsKey(date)) {
-            Double stockPrice = stockPriceMap.get(ticker + "_DAILY").get(date);
+        if (priceStore.containsTicker(ticker)) {
+          if (priceStore.hasPriceOnDate(ticker, date)) {
+            double stockPrice = priceStore.getPriceOnDate(ticker, date);
             Double qty = ((ratio / 100) * amount) / stockPrice;
             this.addTrade(ticker, qty, date);
           } else {
@@ -182,7 +204,7 @@ final class FlexiblePortfolioImpl extends AbstractPortfolio implements FlexibleP
   }
 
   @Override
-  public void addStrategy(Map<String, Map<String, Double>> stockPriceMap, Double amount,
+  public void addStrategy(PriceStore priceStore, Double amount,
       Map<String, Double> tickerRatios, String from, String to, ApiPeriod period)
       throws IllegalArgumentException {
     Set<String> dates = new TreeSet<>();
@@ -207,31 +229,29 @@ final class FlexiblePortfolioImpl extends AbstractPortfolio implements FlexibleP
       throw new IllegalArgumentException("Invalid dates!");
     }
     String ticker = String.valueOf(tickerRatios.keySet().toArray()[0]);
+    if (!priceStore.containsTicker(ticker)) {
+      throw new IllegalArgumentException("Stock price for " + ticker + " not available!");
+    }
+    TradingCalendar calendar = priceStore.getSeries(ticker).getTradingCalendar();
+    int endDay = (int) toDate.toEpochDay();
     if (period.equals(ApiPeriod.WEEKLY)) {
-      int fromDay = 0;
-      while (fromDate.isBefore(toDate)) {
-        String current = formatter.format(fromDate);
-        if (stockPriceMap.get(ticker + "_DAILY").containsKey(current)) {
-          dates.add(current);
-          fromDate = fromDate.plusDays(7 - fromDay);
-          fromDay = 0;
-        } else {
-          fromDate = fromDate.plusDays(1);
-          fromDay++;
+      int startDay = (int) fromDate.toEpochDay();
+      for (int anchor = startDay; anchor < endDay; anchor += 7) {
+        int tradingDay = calendar.onOrAfter(anchor);
+        if (tradingDay == TradingCalendar.NO_TRADING_DAY || tradingDay >= endDay) {
+          break;
         }
+        dates.add(EpochDays.format(tradingDay));
       }
     } else if (period.equals(ApiPeriod.MONTHLY)) {
-      LocalDate initialDate = fromDate;
-      int monthCount = 0;
-      while (fromDate.isBefore(toDate)) {
-        String current = formatter.format(fromDate);
-        if (stockPriceMap.get(ticker + "_DAILY").containsKey(current)) {
-          dates.add(current);
-          monthCount++;
-          fromDate = initialDate.plusMonths(monthCount);
-        } else {
-          fromDate = fromDate.plusDays(1);
+      LocalDate anchorDate = fromDate;
+      for (int monthCount = 1; anchorDate.isBefore(toDate); monthCount++) {
+        int tradingDay = calendar.onOrAfter((int) anchorDate.toEpochDay());
+        if (tradingDay == TradingCalendar.NO_TRADING_DAY || tradingDay >= endDay) {
+          break;
         }
+        dates.add(EpochDays.format(tradingDay));
+        anchorDate = fromDate.plusMonths(monthCount);
       }
     } else {
       throw new IllegalArgumentException("Cannot implement strategy for period");
@@ -239,124 +259,90 @@ final class FlexiblePortfolioImpl extends AbstractPortfolio implements FlexibleP
 
     try {
       for (String date : dates) {
-        this.addFractionalTrades(stockPriceMap, amount, tickerRatios, date);
+        this.addFractionalTrades(priceStore, amount, tickerRatios, date);
       }
     } catch (Exception e) {
       throw new IllegalArgumentException("Cannot implement strategy for period");
     }
   }
 
-  private Map<String, Double> getMonthlyPerformance(Map<String, Map<String, Double>> stockPriceMap,
-      DateTimeFormatter formatter, LocalDate fromDate, LocalDate toDate) {
-    Map<String, Double> performance = new TreeMap<>();
-    LocalDate current = fromDate;
-    current = current.with(lastDayOfMonth());
-    while (current != null && !current.isAfter(toDate)) {
-      String today = current.format(formatter);
-      Double todayPerformance;
-      try {
-        todayPerformance = getValue(stockPriceMap, today);
-      } catch (IllegalArgumentException ie) {
-        performance.put(today, 0.0);
-        current = current.plusMonths(1);
-        current = current.with(lastDayOfMonth());
-        continue;
-      }
-      performance.put(today, todayPerformance);
-      current = current.plusMonths(1);
-      current = current.with(lastDayOfMonth());
+
+  private Map<String, Double> getMonthlyPerformance(PriceStore priceStore, LocalDate fromDate,
+      LocalDate toDate) {
+    List<Integer> days = new ArrayList<>();
+    LocalDate current = fromDate.with(lastDayOfMonth());
+    while (!current.isAfter(toDate)) {
+      days.add((int) current.toEpochDay());
+      current = current.plusMonths(1).with(lastDayOfMonth());
     }
-    return performance;
+    return getPerformance(priceStore, days, ApiPeriod.MONTHLY);
   }
 
-  private Map<String, Double> getYearlyPerformance(Map<String, Map<String, Double>> stockPriceMap,
-      DateTimeFormatter formatter, LocalDate fromDate, LocalDate toDate) {
-    Map<String, Double> performance = new TreeMap<>();
-    LocalDate current = fromDate;
-
+  private Map<String, Double> getYearlyPerformance(PriceStore priceStore, LocalDate fromDate,
+      LocalDate toDate) {
     if (!isValidDate(fromDate) || !isValidDate(toDate)) {
       throw new IllegalArgumentException("Date cannot be less than 1995 and greater than 2022");
     }
-
-    while (current != null && !current.isAfter(toDate)) {
+    List<Integer> days = new ArrayList<>();
+    LocalDate current = fromDate;
+    while (!current.isAfter(toDate)) {
       current = current.with(lastDayOfYear());
-      String today = current.format(formatter);
-      Double yearPerformance;
-      try {
-        yearPerformance = getValue(stockPriceMap, today);
-      } catch (IllegalArgumentException ie) {
-        throw new IllegalArgumentException("Please insert dates after 1995");
-      }
-      performance.put(today, yearPerformance);
-
+      days.add((int) current.toEpochDay());
       current = current.with(firstDayOfNextYear());
     }
+    Map<String, Double> performance = getPerformance(priceStore, days, ApiPeriod.YEARLY);
+    if (performance.containsValue(null)) {
+      throw new IllegalArgumentException("Please insert dates after 1995");
+    }
     return performance;
   }
 
-  private Map<String, Double> getWeeklyPerformance(Map<String, Map<String, Double>> stockPriceMap,
-      DateTimeFormatter formatter, LocalDate fromDate, LocalDate toDate) {
-    Map<String, Double> performance = new TreeMap<>();
-    LocalDate current = fromDate;
-    while (!current.getDayOfWeek().equals(DayOfWeek.FRIDAY)) {
-      current = current.plusDays(1);
+  private Map<String, Double> getWeeklyPerformance(PriceStore priceStore, LocalDate fromDate,
+      LocalDate toDate) {
+    List<Integer> days = new ArrayList<>();
+    int fromDay = (int) fromDate.toEpochDay();
+    int toDay = (int) toDate.toEpochDay();
+    int firstFriday = fromDay + Math.floorMod(FRIDAY - TradingCalendar.dayOfWeek(fromDay), 7);
+    for (int friday = firstFriday; friday <= toDay; friday += 7) {
+      days.add(friday);
     }
-    while (!current.isAfter(toDate)) {
-      String today = current.format(formatter);
-      Double todayPerformance;
-      try {
-        todayPerformance = getValue(stockPriceMap, today);
-      } catch (IllegalArgumentException ie) {
-        performance.put(today, 0.0);
-        current = current.plusDays(7);
-        continue;
-      }
-      performance.put(today, todayPerformance);
-      current = current.plusDays(7);
+    return getPerformance(priceStore, days, ApiPeriod.WEEKLY);
+  }
 
+  private Map<String, Double> getDailyPerformance(PriceStore priceStore, LocalDate fromDate,
+      LocalDate toDate) {
+    List<Integer> days = new ArrayList<>();
+    for (int day = (int) fromDate.toEpochDay(); day <= toDate.toEpochDay(); day++) {
+      days.add(day);
     }
-    return performance;
+    return getPerformance(priceStore, days, ApiPeriod.DAILY);
   }
 
-
-  private Map<String, Double> getDailyPerformance(Map<String, Map<String, Double>> stockPriceMap,
-      DateTimeFormatter formatter, LocalDate fromDate, LocalDate toDate) {
+  // values the portfolio on every day in one sweep, with 0.0 or null for days missing a price
+  private Map<String, Double> getPerformance(PriceStore priceStore, List<Integer> days,
+      ApiPeriod period) {
+    nullChecker.accept(new Object[]{priceStore});
+    int[] sampleDays = days.stream().mapToInt(Integer::intValue).toArray();
+    double[] values = new PerformanceSweep(trades, priceStore).getValues(sampleDays, period);
     Map<String, Double> performance = new TreeMap<>();
-    LocalDate current = fromDate;
-    while (!current.isAfter(toDate)) {
-      String today = current.format(formatter);
-      Double todayPerformance;
-      try {
-        todayPerformance = getValue(stockPriceMap, today);
-      } catch (IllegalArgumentException ie) {
-        performance.put(today, 0.0);
-        current = current.plusDays(1);
-        continue;
+    for (int i = 0; i < sampleDays.length; i++) {
+      Double value = values[i];
+      if (value.isNaN()) {
+        value = period == ApiPeriod.YEARLY ? null : 0.0;
       }
-      performance.put(today, todayPerformance);
-      current = current.plusDays(1);
+      performance.put(EpochDays.format(sampleDays[i]), value);
     }
     return performance;
   }
 
-
   @Override
   public String getPortfolioName() {
     return this.portfolioName;
   }
 
   @Override
-  public Map<String, Double> getComposition(String date) {
-    Map<String, Double> composition = new HashMap<>();
-    this.trades.sort(Comparator.comparing(Trade::getDateOfTrade));
-    for (Trade trade : this.trades) {
-      if (trade.getDateOfTrade().compareTo(date) > 0) {
-        break;
-      }
-      composition.put(trade.getName(),
-          composition.getOrDefault(trade.getName(), 0.0) + trade.getQuantity());
-    }
-    return composition;
+  protected Positions getPositions(String date) {
+    return trades.getPositions(trades.countUpTo(date));
   }
 
   @Override
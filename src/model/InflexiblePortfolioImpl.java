@@ -1,11 +1,12 @@
 package model;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.function.Consumer;
 import util.FileUtil;
 import util.ParamNullChecker;
@@ -44,12 +45,19 @@ final class InflexiblePortfolioImpl extends AbstractPortfolio {
   }
 
   @Override
-  public Map<String, Double> getComposition(String date) {
-    Map<String, Double> stockMap = new HashMap<>();
+  protected Positions getPositions(String date) {
+    SortedMap<Integer, Double> quantities = new TreeMap<>();
     for (Stock stock : this.stockList) {
-      stockMap.put(stock.getName(), stock.getQuantity());
+      quantities.put(stock.getTickerId(), stock.getQuantity());
     }
-    return stockMap;
+    int[] tickerIds = new int[quantities.size()];
+    double[] positions = new double[quantities.size()];
+    int index = 0;
+    for (Map.Entry<Integer, Double> quantity : quantities.entrySet()) {
+      tickerIds[index] = quantity.getKey();
+      positions[index++] = quantity.getValue();
+    }
+    return new Positions(tickerIds, positions, index);
   }
 
   @Override
@@ -0,0 +1,133 @@
+package model;
+
+import java.util.Arrays;
+import util.ApiPeriod;
+import util.PriceSeries;
+import util.PriceStore;
+
+/**
+ * Computes the value of a portfolio on a series of dates in one forward pass. The trades of the
+ * ledger are applied as the dates pass them and the price of each stock held is found by a cursor
+ * that only moves forward through its price series, so a series of values costs a pass over the
+ * trades and the prices instead of replaying the trades and searching the prices for every date.
+ * The value on a date is the same as {@link AbstractPortfolio#getValue} gives for daily dates, and
+ * is priced by {@link PriceStore#getPeriodEndPrice} for the other periods.
+ */
+final class PerformanceSweep {
+
+  private final TradeLedger trades;
+  private final PriceStore priceStore;
+
+  /**
+   * Constructs a sweep over the trades of a ledger.
+   *
+   * @param trades     ledger of the portfolio
+   * @param priceStore a store of stock names and their respective values on a range of dates
+   */
+  PerformanceSweep(TradeLedger trades, PriceStore priceStore) {
+    this.trades = trades;
+    this.priceStore = priceStore;
+  }
+
+  /**
+   * Fetches the value of the portfolio on each of a series of dates.
+   *
+   * @param sampleDays dates as days since epoch in ascending order
+   * @param period     DAILY to price the stocks by their daily series, otherwise the period whose
+   *                   aggregated series is used, for dates that end such a period
+   * @return value on each date, NaN where a stock held on the date has no price for it
+   */
+  double[] getValues(int[] sampleDays, ApiPeriod period) {
+    double[] values = new double[sampleDays.length];
+    if (sampleDays.length == 0) {
+      return values;
+    }
+    int tradeIndex = trades.countUpTo(sampleDays[0]);
+    double[] positions = trades.getSlotPositions(tradeIndex);
+    PriceCursor[] cursors = new PriceCursor[positions.length];
+    int[] heldSlots = new int[8];
+    int heldCount = 0;
+    for (int slot = 0; slot < positions.length; slot++) {
+      if (!Double.isNaN(positions[slot])) {
+        heldSlots = add(heldSlots, heldCount++, slot);
+      }
+    }
+
+    for (int sample = 0; sample < sampleDays.length; sample++) {
+      int day = sampleDays[sample];
+      for (; tradeIndex < trades.size() && trades.getEpochDay(tradeIndex) <= day; tradeIndex++) {
+        int slot = trades.getSlot(tradeIndex);
+        if (Double.isNaN(positions[slot])) {
+          heldSlots = add(heldSlots, heldCount++, slot);
+          positions[slot] = 0.0;
+        }
+        positions[slot] += trades.get(tradeIndex).getQuantity();
+      }
+      double value = 0.0;
+      for (int i = 0; i < heldCount && !Double.isNaN(value); i++) {
+        int slot = heldSlots[i];
+        if (cursors[slot] == null) {
+          cursors[slot] = new PriceCursor(trades.getTickerId(slot), period);
+        }
+        value += cursors[slot].priceAsOf(day) * positions[slot];
+      }
+      values[sample] = value;
+    }
+    return values;
+  }
+
+  // inserts a slot into the slots held in ascending order of their ticker ids, so values are
+  // summed in the order of ids
+  private int[] add(int[] heldSlots, int heldCount, int slot) {
+    int[] held = heldCount == heldSlots.length ? Arrays.copyOf(heldSlots, heldCount * 2)
+        : heldSlots;
+    int tickerId = trades.getTickerId(slot);
+    int index = heldCount;
+    while (index > 0 && trades.getTickerId(held[index - 1]) > tickerId) {
+      held[index] = held[index - 1];
+      index--;
+    }
+    held[index] = slot;
+    return held;
+  }
+
+  /**
+   * Walks the price series of one stock forward, keeping the index of the last trading day on or
+   * before the last date asked.
+   */
+  private final class PriceCursor {
+
+    private final PriceSeries series;
+    private int index = -1;
+
+    private PriceCursor(int tickerId, ApiPeriod period) {
+      PriceSeries found = null;
+      if (priceStore.containsTicker(tickerId)) {
+        try {
+          found = priceStore.getSeries(tickerId).getAggregated(period);
+        } catch (IllegalArgumentException e) {
+          // a stock whose prices cannot be loaded has no price on any date
+        }
+      }
+      series = found;
+    }
+
+    // closing price on the last trading day on or before the day, NaN if there is none
+    private double priceAsOf(int epochDay) {
+      if (series == null) {
+        return Double.NaN;
+      }
+      if (index < 0) {
+        index = series.floorIndex(epochDay);
+      } else {
+        while (index + 1 < series.size() && series.getEpochDay(index + 1) <= epochDay) {
+          index++;
+        }
+      }
+      if (index < 0 || epochDay - series.getEpochDay(index) >= priceStore.getMaxStalenessDays()) {
+        return Double.NaN;
+      }
+      return series.getClose(index);
+    }
+  }
+}
@@ -2,6 +2,7 @@ package model;
 
 import java.util.Map;
 import util.FileUtil;
+import util.PriceStore;
 
 /**
  * Represents a Portfolio that can have a collection of multiple stock details in it.
@@ -26,15 +27,14 @@ interface Portfolio {
   /**
    * Fetches the value of a portfolio on a given date.
    *
-   * @param stockPriceMap a map of maps of stock names and their respective values on a range of
-   *                      dates
-   * @param date          on which value of portfolio is asked
+   * @param priceStore a store of stock names and their respective values on a range of dates
+   * @param date       on which value of portfolio is asked
    * @return value of portfolio on given date
    * @throws IllegalArgumentException if there is no data present for stock and its prices in last
    *                                  100 days from date asked
-   * @throws NullPointerException     if date or stockPriceMap are null
+   * @throws NullPointerException     if date or priceStore are null
    */
-  Double getValue(Map<String, Map<String, Double>> stockPriceMap, String date)
+  Double getValue(PriceStore priceStore, String date)
       throws IllegalArgumentException, NullPointerException;
 
   /**
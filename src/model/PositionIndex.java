@@ -0,0 +1,160 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents the running position of each stock of a portfolio over time, to check that a trade
+ * never sells more than is held. The trades of each stock are kept in the order of their dates
+ * with the position held after each of them, alongside a tree of the lowest position held from
+ * any trade onwards. A sell is then checked against the position on its own date and on every
+ * later date with two binary searches. Trades added in date order, as a saved portfolio is loaded,
+ * update the tree along a single path, while a back-dated trade rebuilds the positions of its
+ * stock.
+ */
+final class PositionIndex {
+
+  private final Map<Integer, StockPositions> positionsByTicker;
+
+  /**
+   * Constructs an empty index.
+   */
+  PositionIndex() {
+    positionsByTicker = new HashMap<>();
+  }
+
+  /**
+   * Checks if a trade keeps the position of its stock from going below zero on its date and on
+   * every later date. Buys always do.
+   *
+   * @param tickerId id of the stock
+   * @param epochDay date of the trade as days since epoch, after the trades already on that day
+   * @param quantity quantity bought, negative if sold
+   * @return true if the position stays at or above zero, false otherwise
+   */
+  boolean canTrade(int tickerId, int epochDay, double quantity) {
+    if (quantity >= 0.0) {
+      return true;
+    }
+    StockPositions positions = positionsByTicker.get(tickerId);
+    if (positions == null) {
+      return false;
+    }
+    int index = positions.countUpTo(epochDay);
+    double held = index == 0 ? 0.0 : positions.positions[index - 1];
+    return held + quantity >= 0.0 && positions.lowestFrom(index) + quantity >= 0.0;
+  }
+
+  /**
+   * Adds a trade after the trades of its stock already on its date.
+   *
+   * @param tickerId id of the stock
+   * @param epochDay date of the trade as days since epoch
+   * @param quantity quantity bought, negative if sold
+   */
+  void add(int tickerId, int epochDay, double quantity) {
+    positionsByTicker.computeIfAbsent(tickerId, id -> new StockPositions())
+        .add(epochDay, quantity);
+  }
+
+  /**
+   * Holds the trades of one stock in date order, with the position after each trade and a tree
+   * whose nodes hold the lowest position of the trades below them.
+   */
+  private static final class StockPositions {
+
+    private int[] epochDays = new int[8];
+    private double[] quantities = new double[8];
+    private double[] positions = new double[8];
+    private double[] lowest = new double[16];
+    private int size;
+
+    private StockPositions() {
+      Arrays.fill(lowest, Double.POSITIVE_INFINITY);
+    }
+
+    // number of trades on or before the day
+    private int countUpTo(int epochDay) {
+      int low = 0;
+      int high = size;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (epochDays[middle] <= epochDay) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    private void add(int epochDay, double quantity) {
+      int index = countUpTo(epochDay);
+      boolean grown = size == epochDays.length;
+      if (grown) {
+        int capacity = size * 2;
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        lowest = new double[capacity * 2];
+      }
+      if (grown || index < size) {
+        insert(index, epochDay, quantity);
+        return;
+      }
+      epochDays[size] = epochDay;
+      quantities[size] = quantity;
+      positions[size] = (size == 0 ? 0.0 : positions[size - 1]) + quantity;
+      size++;
+      update(size - 1);
+    }
+
+    // inserts a trade, recomputes the positions from it and rebuilds the whole tree
+    private void insert(int index, int epochDay, double quantity) {
+      System.arraycopy(epochDays, index, epochDays, index + 1, size - index);
+      System.arraycopy(quantities, index, quantities, index + 1, size - index);
+      epochDays[index] = epochDay;
+      quantities[index] = quantity;
+      size++;
+      double position = index == 0 ? 0.0 : positions[index - 1];
+      for (int i = index; i < size; i++) {
+        position += quantities[i];
+        positions[i] = position;
+      }
+      int leaves = epochDays.length;
+      Arrays.fill(lowest, Double.POSITIVE_INFINITY);
+      System.arraycopy(positions, 0, lowest, leaves, size);
+      for (int node = leaves - 1; node > 0; node--) {
+        lowest[node] = Math.min(lowest[2 * node], lowest[2 * node + 1]);
+      }
+    }
+
+    // refreshes the path from the leaf of a trade to the root
+    private void update(int index) {
+      int node = epochDays.length + index;
+      lowest[node] = positions[index];
+      for (node /= 2; node > 0; node /= 2) {
+        lowest[node] = Math.min(lowest[2 * node], lowest[2 * node + 1]);
+      }
+    }
+
+    // lowest position after any trade from an index onwards, infinite if there is none
+    private double lowestFrom(int index) {
+      double result = Double.POSITIVE_INFINITY;
+      int low = epochDays.length + index;
+      int high = epochDays.length + size;
+      while (low < high) {
+        if ((low & 1) == 1) {
+          result = Math.min(result, lowest[low++]);
+        }
+        if ((high & 1) == 1) {
+          result = Math.min(result, lowest[--high]);
+        }
+        low /= 2;
+        high /= 2;
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package model;
+
+/**
+ * Represents the quantity held of each stock a portfolio has traded, as of a particular date. Only
+ * the stocks of the portfolio are listed, in the order of the ids assigned to their tickers by
+ * {@link util.TickerSymbols}, so that a query costs as much as the stocks of the portfolio and
+ * not as every ticker ever seen by the application. A stock sold completely is listed with a
+ * quantity of zero.
+ */
+final class Positions {
+
+  private final int[] tickerIds;
+  private final double[] quantities;
+  private final int size;
+
+  /**
+   * Constructs the positions from arrays that are owned by it from then on.
+   *
+   * @param tickerIds  ids of the stocks in ascending order
+   * @param quantities quantity held of each stock
+   * @param size       number of stocks, which may be less than the length of the arrays
+   */
+  Positions(int[] tickerIds, double[] quantities, int size) {
+    this.tickerIds = tickerIds;
+    this.quantities = quantities;
+    this.size = size;
+  }
+
+  /**
+   * Fetches the number of stocks listed.
+   *
+   * @return number of stocks
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Fetches the id of a listed stock.
+   *
+   * @param index index of the stock, in ascending order of ids
+   * @return id of the stock
+   */
+  int getTickerId(int index) {
+    return tickerIds[index];
+  }
+
+  /**
+   * Fetches the quantity held of a listed stock.
+   *
+   * @param index index of the stock, in ascending order of ids
+   * @return quantity held
+   */
+  double getQuantity(int index) {
+    return quantities[index];
+  }
+}
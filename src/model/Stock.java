@@ -12,6 +12,13 @@ interface Stock {
    */
   String getName();
 
+  /**
+   * Fetches the id assigned to the ticker of the stock by {@link util.TickerSymbols}.
+   *
+   * @return id of the ticker
+   */
+  int getTickerId();
+
   /**
    * Displays the quantity of the stock.
    *
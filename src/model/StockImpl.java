@@ -3,6 +3,7 @@ package model;
 import java.util.Objects;
 import java.util.function.Consumer;
 import util.ParamNullChecker;
+import util.TickerSymbols;
 
 /**
  * Represents an implementation of {@link Stock} that can have a ticker name and valid quantity.
@@ -10,6 +11,7 @@ import util.ParamNullChecker;
 final class StockImpl implements Stock {
 
   private final String name;
+  private final int tickerId;
   private final Double quantity;
 
   /**
@@ -28,6 +30,7 @@ final class StockImpl implements Stock {
       throw new IllegalArgumentException("Stock name cannot be empty!");
     }
     this.name = name;
+    this.tickerId = TickerSymbols.idOf(name);
     if (!isValidQuantity(quantity)) {
       throw new IllegalArgumentException("Quantity cannot be zero!");
     }
@@ -43,6 +46,11 @@ final class StockImpl implements Stock {
     return this.name;
   }
 
+  @Override
+  public int getTickerId() {
+    return this.tickerId;
+  }
+
   @Override
   public Double getQuantity() {
     return this.quantity;
@@ -58,7 +66,7 @@ final class StockImpl implements Stock {
       return false;
     }
     StockImpl stock = (StockImpl) o;
-    return name.equals(stock.name) && quantity.equals(stock.quantity);
+    return tickerId == stock.tickerId && quantity.equals(stock.quantity);
   }
 
   @Override
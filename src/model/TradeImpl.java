@@ -30,6 +30,11 @@ final class TradeImpl implements Trade {
     return this.stock.getName();
   }
 
+  @Override
+  public int getTickerId() {
+    return this.stock.getTickerId();
+  }
+
   @Override
   public Double getQuantity() {
     return this.stock.getQuantity();
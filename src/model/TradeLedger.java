@@ -0,0 +1,356 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntToDoubleFunction;
+import util.EpochDays;
+
+/**
+ * Represents the trades of a portfolio kept in the order of their dates. A trade is inserted after
+ * the trades already on or before its date, so trades of the same day stay in the order they were
+ * added, and a query on a date seeks to its last trade with a binary search instead of sorting or
+ * scanning the ledger.
+ *
+ * <p>Each stock traded is given a slot numbered from zero in the order the stocks are first
+ * traded, so positions are held in arrays as long as the stocks of this portfolio rather than as
+ * every ticker known to the application.
+ *
+ * <p>The positions held after every few trades are kept as checkpoints, so the positions on a
+ * date are those of the nearest checkpoint before it plus the trades in between. Inserting a
+ * back-dated trade drops the checkpoints after it, which are rebuilt from the last one left by
+ * the next query, so appending trades in date order never rebuilds anything.
+ *
+ * <p>The cost of each trade is also kept once it has been resolved, along with the running total
+ * of those costs, so the cost of the trades up to a date is a single lookup. A back-dated trade
+ * only makes the totals after it be summed again, without resolving any cost twice.
+ */
+final class TradeLedger extends AbstractList<Trade> {
+
+  /**
+   * Number of trades between two position checkpoints by default.
+   */
+  static final int DEFAULT_CHECKPOINT_SPACING = 128;
+
+  private final List<Trade> trades;
+  private final List<double[]> checkpoints;
+  private final int checkpointSpacing;
+  private final Map<Integer, Integer> slotsByTickerId;
+  private int[] tickerIdsBySlot;
+  private int[] slotsInTickerOrder;
+  private int[] epochDays;
+  private int[] slots;
+  private double[] costs;
+  private double[] cumulativeCosts;
+  private int cumulativeCount;
+
+  /**
+   * Constructs an empty ledger with a checkpoint every {@value #DEFAULT_CHECKPOINT_SPACING}
+   * trades.
+   */
+  TradeLedger() {
+    this(DEFAULT_CHECKPOINT_SPACING);
+  }
+
+  /**
+   * Constructs an empty ledger.
+   *
+   * @param checkpointSpacing number of trades between two position checkpoints, where a smaller
+   *                          spacing replays fewer trades per query and holds more checkpoints
+   * @throws IllegalArgumentException if the spacing is not positive
+   */
+  TradeLedger(int checkpointSpacing) throws IllegalArgumentException {
+    if (checkpointSpacing <= 0) {
+      throw new IllegalArgumentException("Checkpoint spacing should be positive!");
+    }
+    this.checkpointSpacing = checkpointSpacing;
+    trades = new ArrayList<>();
+    checkpoints = new ArrayList<>();
+    slotsByTickerId = new HashMap<>();
+    tickerIdsBySlot = new int[4];
+    slotsInTickerOrder = new int[4];
+    epochDays = new int[16];
+    slots = new int[16];
+    costs = new double[16];
+    cumulativeCosts = new double[16];
+  }
+
+  /**
+   * Inserts a trade after every trade on or before its date.
+   *
+   * @param trade trade to insert
+   * @return index of the inserted trade
+   * @throws IllegalArgumentException if the date of the trade is not in the format 'yyyy-MM-dd'
+   */
+  int insert(Trade trade) throws IllegalArgumentException {
+    int epochDay = EpochDays.parse(trade.getDateOfTrade());
+    int index = countUpTo(epochDay);
+    int size = trades.size();
+    if (size == epochDays.length) {
+      epochDays = Arrays.copyOf(epochDays, size * 2);
+      slots = Arrays.copyOf(slots, size * 2);
+      costs = Arrays.copyOf(costs, size * 2);
+      cumulativeCosts = Arrays.copyOf(cumulativeCosts, size * 2);
+    }
+    System.arraycopy(epochDays, index, epochDays, index + 1, size - index);
+    System.arraycopy(slots, index, slots, index + 1, size - index);
+    System.arraycopy(costs, index, costs, index + 1, size - index);
+    epochDays[index] = epochDay;
+    slots[index] = slotOf(trade.getTickerId());
+    costs[index] = Double.NaN;
+    trades.add(index, trade);
+    cumulativeCount = Math.min(cumulativeCount, index);
+    // checkpoints covering the inserted position no longer hold the positions at their index
+    while (checkpoints.size() > index / checkpointSpacing) {
+      checkpoints.remove(checkpoints.size() - 1);
+    }
+    return index;
+  }
+
+  // fetches the slot of a stock, giving it the next one if it is traded for the first time
+  private int slotOf(int tickerId) {
+    Integer slot = slotsByTickerId.get(tickerId);
+    if (slot != null) {
+      return slot;
+    }
+    int slotCount = slotsByTickerId.size();
+    if (slotCount == tickerIdsBySlot.length) {
+      tickerIdsBySlot = Arrays.copyOf(tickerIdsBySlot, slotCount * 2);
+      slotsInTickerOrder = Arrays.copyOf(slotsInTickerOrder, slotCount * 2);
+    }
+    tickerIdsBySlot[slotCount] = tickerId;
+    int order = slotCount;
+    while (order > 0 && tickerIdsBySlot[slotsInTickerOrder[order - 1]] > tickerId) {
+      slotsInTickerOrder[order] = slotsInTickerOrder[order - 1];
+      order--;
+    }
+    slotsInTickerOrder[order] = slotCount;
+    slotsByTickerId.put(tickerId, slotCount);
+    return slotCount;
+  }
+
+  /**
+   * Fetches the number of stocks traded in the ledger, which is also the number of slots.
+   *
+   * @return number of stocks
+   */
+  int getSlotCount() {
+    return slotsByTickerId.size();
+  }
+
+  /**
+   * Fetches the id of the stock given a slot.
+   *
+   * @param slot slot of the stock
+   * @return id of the stock as assigned by {@link util.TickerSymbols}
+   */
+  int getTickerId(int slot) {
+    return tickerIdsBySlot[slot];
+  }
+
+  /**
+   * Fetches the slot of the stock of a trade.
+   *
+   * @param index index of the trade
+   * @return slot of its stock
+   */
+  int getSlot(int index) {
+    if (index < 0 || index >= trades.size()) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return slots[index];
+  }
+
+  /**
+   * Fetches the positions held after the first trades of the ledger, starting from the nearest
+   * checkpoint.
+   *
+   * @param count number of trades from the start of the ledger
+   * @return quantities of the stocks traded in those trades
+   */
+  Positions getPositions(int count) {
+    double[] positions = getSlotPositions(count);
+    int[] tickerIds = new int[positions.length];
+    double[] quantities = new double[positions.length];
+    int size = 0;
+    for (int i = 0; i < positions.length; i++) {
+      int slot = slotsInTickerOrder[i];
+      if (!Double.isNaN(positions[slot])) {
+        tickerIds[size] = tickerIdsBySlot[slot];
+        quantities[size++] = positions[slot];
+      }
+    }
+    return new Positions(tickerIds, quantities, size);
+  }
+
+  /**
+   * Fetches the positions held after the first trades of the ledger by slot, starting from the
+   * nearest checkpoint.
+   *
+   * @param count number of trades from the start of the ledger
+   * @return quantities indexed by slot, NaN for stocks not traded in those trades
+   */
+  double[] getSlotPositions(int count) {
+    int checkpointCount = count / checkpointSpacing;
+    buildCheckpoints(checkpointCount);
+    double[] positions = emptyPositions();
+    int from = 0;
+    if (checkpointCount > 0) {
+      double[] checkpoint = checkpoints.get(checkpointCount - 1);
+      System.arraycopy(checkpoint, 0, positions, 0, checkpoint.length);
+      from = checkpointCount * checkpointSpacing;
+    }
+    for (int i = from; i < count; i++) {
+      apply(positions, i);
+    }
+    return positions;
+  }
+
+  /**
+   * Fetches the total cost of the first trades of the ledger. The cost of a trade is resolved the
+   * first time it is needed and kept until {@link #clearCosts()}.
+   *
+   * @param count      number of trades from the start of the ledger
+   * @param costOfTrade resolves the cost of the trade at an index
+   * @return sum of the costs of the trades
+   * @throws IllegalArgumentException if the cost of a trade cannot be resolved
+   */
+  double getCumulativeCost(int count, IntToDoubleFunction costOfTrade)
+      throws IllegalArgumentException {
+    for (int i = cumulativeCount; i < count; i++) {
+      if (Double.isNaN(costs[i])) {
+        costs[i] = costOfTrade.applyAsDouble(i);
+      }
+      cumulativeCosts[i] = (i == 0 ? 0.0 : cumulativeCosts[i - 1]) + costs[i];
+      cumulativeCount = i + 1;
+    }
+    return count == 0 ? 0.0 : cumulativeCosts[count - 1];
+  }
+
+  /**
+   * Forgets the costs resolved so far, such as when they are to be resolved from other prices.
+   */
+  void clearCosts() {
+    Arrays.fill(costs, Double.NaN);
+    cumulativeCount = 0;
+  }
+
+  /**
+   * Forgets the costs resolved so far for the trades of some stocks only, so the totals are summed
+   * again from the first of those trades.
+   *
+   * @param tickerIds ids of the stocks as assigned by {@link util.TickerSymbols}
+   */
+  void clearCosts(Set<Integer> tickerIds) {
+    boolean[] cleared = new boolean[getSlotCount()];
+    for (int slot = 0; slot < cleared.length; slot++) {
+      cleared[slot] = tickerIds.contains(tickerIdsBySlot[slot]);
+    }
+    for (int i = 0; i < trades.size(); i++) {
+      if (cleared[slots[i]]) {
+        costs[i] = Double.NaN;
+        cumulativeCount = Math.min(cumulativeCount, i);
+      }
+    }
+  }
+
+  /**
+   * Fetches the number of position checkpoints currently held.
+   *
+   * @return number of checkpoints
+   */
+  int getCheckpointCount() {
+    return checkpoints.size();
+  }
+
+  // replays the trades after the last checkpoint until the given number of checkpoints exists
+  private void buildCheckpoints(int checkpointCount) {
+    if (checkpoints.size() >= checkpointCount) {
+      return;
+    }
+    double[] positions = emptyPositions();
+    if (!checkpoints.isEmpty()) {
+      double[] checkpoint = checkpoints.get(checkpoints.size() - 1);
+      System.arraycopy(checkpoint, 0, positions, 0, checkpoint.length);
+    }
+    int to = checkpointCount * checkpointSpacing;
+    for (int i = checkpoints.size() * checkpointSpacing; i < to; i++) {
+      apply(positions, i);
+      if ((i + 1) % checkpointSpacing == 0) {
+        checkpoints.add(positions.clone());
+      }
+    }
+  }
+
+  private double[] emptyPositions() {
+    double[] positions = new double[getSlotCount()];
+    Arrays.fill(positions, Double.NaN);
+    return positions;
+  }
+
+  private void apply(double[] positions, int index) {
+    int slot = slots[index];
+    double quantity = Double.isNaN(positions[slot]) ? 0.0 : positions[slot];
+    positions[slot] = quantity + trades.get(index).getQuantity();
+  }
+
+  /**
+   * Fetches the number of trades on or before a day, which is also the index the next trade of
+   * that day is inserted at.
+   *
+   * @param epochDay days since 1970-01-01
+   * @return number of trades up to and including the day
+   */
+  int countUpTo(int epochDay) {
+    int low = 0;
+    int high = trades.size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (epochDays[middle] <= epochDay) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Fetches the number of trades on or before a date.
+   *
+   * @param date in the format 'yyyy-MM-dd'
+   * @return number of trades up to and including the date, 0 if the ledger is empty
+   * @throws IllegalArgumentException if the ledger has trades and the date is not in the format
+   *                                  'yyyy-MM-dd'
+   */
+  int countUpTo(String date) throws IllegalArgumentException {
+    return trades.isEmpty() ? 0 : countUpTo(EpochDays.parse(date));
+  }
+
+  /**
+   * Fetches the date of a trade as days since epoch.
+   *
+   * @param index index of the trade
+   * @return days since 1970-01-01
+   */
+  int getEpochDay(int index) {
+    if (index < 0 || index >= trades.size()) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return epochDays[index];
+  }
+
+  @Override
+  public Trade get(int index) {
+    return trades.get(index);
+  }
+
+  @Override
+  public int size() {
+    return trades.size();
+  }
+}
@@ -2,9 +2,11 @@ package model;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import util.ApiPeriod;
 import util.FileUtil;
+import util.PriceStore;
 
 /**
  * Represents a user of the stock application that can create and store portfolios of stocks,
@@ -39,14 +41,13 @@ public interface User {
    * given portfolio.
    *
    * @param portfolioName name of the flexible portfolio
-   * @param stockPriceMap a map of maps of stock names and their respective values on a range of
-   *                      dates
+   * @param priceStore    a store of stock names and their respective values on a range of dates
    * @param amount        of money to be traded
    * @param tickerRatios  a map of proportion of stocks in which maount will be divided
    * @param date          on which to perform this trade of multiple stocks
    */
   void addFractionalTradeToFlexiblePortfolio(String portfolioName,
-      Map<String, Map<String, Double>> stockPriceMap, Double amount,
+      PriceStore priceStore, Double amount,
       Map<String, Double> tickerRatios, String date);
 
   /**
@@ -68,12 +69,10 @@ public interface User {
    *
    * @param portfolioName name of flexible portfolio
    * @param date          by which cost basis needs to be calculated
-   * @param stockPriceMap a map of maps of stock names and their respective values on a range of
-   *                      dates
+   * @param priceStore    a store of stock names and their respective values on a range of dates
    * @return money invested by given date in this portfolio
    */
-  Double getCostBasisForFlexiblePortfolio(String portfolioName, String date,
-      Map<String, Map<String, Double>> stockPriceMap);
+  Double getCostBasisForFlexiblePortfolio(String portfolioName, String date, PriceStore priceStore);
 
   /**
    * Fetches the composition of a portfolio by its name if it exists with the user.
@@ -97,7 +96,7 @@ public interface User {
    * Fetches the values of stocks of a portfolio on a given date that is with the user.
    *
    * @param portfolioName represents name of the portfolio whose value is asked
-   * @param stockValues   map of maps that represents stocks and their prices on a range of dates
+   * @param priceStore    store that represents stocks and their prices on a range of dates
    * @param date          for which value is asked
    * @return map of stock names and their values on the given date that is a product of quantity of
    *         the stock in the portfolio and its price on the given date
@@ -106,8 +105,7 @@ public interface User {
    *                                  which value needs to be calculated on the given date
    * @throws NullPointerException     if portfolio name, stock values or date are null
    */
-  Double getValuesOfStocksOfPortfolio(String portfolioName,
-      Map<String, Map<String, Double>> stockValues, String date)
+  Double getValuesOfStocksOfPortfolio(String portfolioName, PriceStore priceStore, String date)
       throws IllegalArgumentException, NullPointerException;
 
   /**
@@ -158,33 +156,37 @@ public interface User {
    * @param portfolioName     name of flexible portfolio
    * @param from              a date user wants to see performance
    * @param to                a date upto which user wants to see performance
-   * @param stockPriceMap     a map of maps of stock names and their respective values on a range of
-   *                          dates
-   * @param performanceScaler that takes in values of portfolio and scales suitably for view to
-   *                          show
+   * @param priceStore        a store of stock names and their respective values on a range of dates
+   * @param performanceScaler that takes in values of portfolio and scales suitably for view to show
    * @throws IllegalArgumentException when value of a portfolio cannot be obtained from last 100
    *                                  days
    */
   void getPerformanceOfFlexiblePortfolio(String portfolioName, String from, String to,
-      Map<String, Map<String, Double>> stockPriceMap,
+      PriceStore priceStore,
       BiConsumer<Map<String, Double>, ApiPeriod> performanceScaler) throws IllegalArgumentException;
 
   /**
    * Adds trades that can be divided according to the ratios provided and within an amount into the
    * given portfolio on a range of dates that can be called as investing by a strategy.
    *
-   * @param stockPriceMap a map of maps of stock names and their respective values on a range of
-   *                      dates
-   * @param amount        of money to be traded
-   * @param tickerRatios  a map of proportion of stocks in which maount will be divided
-   * @param from          date from which to invest
-   * @param to            date upto which to invest
-   * @param period        frequency of investment could be weekly or monthly
+   * @param priceStore   a store of stock names and their respective values on a range of dates
+   * @param amount       of money to be traded
+   * @param tickerRatios a map of proportion of stocks in which maount will be divided
+   * @param from         date from which to invest
+   * @param to           date upto which to invest
+   * @param period       frequency of investment could be weekly or monthly
    * @throws IllegalArgumentException if stock price data for a stock in the startegy is not
    *                                  available on a date.
    */
-  void addStrategyToFlexiblePortfolio(String portfolioName,
-      Map<String, Map<String, Double>> stockPriceMap, Double amount,
+  void addStrategyToFlexiblePortfolio(String portfolioName, PriceStore priceStore, Double amount,
       Map<String, Double> tickerRatios, String from, String to, ApiPeriod period)
       throws IllegalArgumentException;
+
+  /**
+   * Forgets the prices the flexible portfolios of the user have looked up for the given stocks,
+   * such as once their price histories have been refreshed.
+   *
+   * @param tickers names of the stocks
+   */
+  void invalidatePrices(Set<String> tickers);
 }
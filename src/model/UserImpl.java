@@ -4,11 +4,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import util.ApiPeriod;
 import util.FileUtil;
 import util.ParamNullChecker;
+import util.PriceStore;
 
 /**
  * Represents an implementation of the {@link User} interface that has the ability to create, store,
@@ -66,12 +68,12 @@ public final class UserImpl implements User {
 
   @Override
   public void addFractionalTradeToFlexiblePortfolio(String portfolioName,
-      Map<String, Map<String, Double>> stockPriceMap, Double amount,
+      PriceStore priceStore, Double amount,
       Map<String, Double> tickerRatios, String date) {
     nullChecker.accept(new Object[]{portfolioName, amount, tickerRatios, date});
     if (flexiblePortfolioMap.containsKey(portfolioName)) {
       FlexiblePortfolio flexiblePortfolio = flexiblePortfolioMap.get(portfolioName);
-      flexiblePortfolio.addFractionalTrades(stockPriceMap, amount, tickerRatios, date);
+      flexiblePortfolio.addFractionalTrades(priceStore, amount, tickerRatios, date);
       flexiblePortfolioMap.put(portfolioName, flexiblePortfolio);
     } else {
       throw new IllegalArgumentException("Portfolio does not exist with name: " + portfolioName);
@@ -90,10 +92,10 @@ public final class UserImpl implements User {
 
   @Override
   public Double getCostBasisForFlexiblePortfolio(String portfolioName, String date,
-      Map<String, Map<String, Double>> stockPriceMap) {
+      PriceStore priceStore) {
     nullChecker.accept(new Object[]{portfolioName, date});
     if (flexiblePortfolioMap.containsKey(portfolioName)) {
-      return flexiblePortfolioMap.get(portfolioName).getCostBasis(date, commission, stockPriceMap);
+      return flexiblePortfolioMap.get(portfolioName).getCostBasis(date, commission, priceStore);
     } else {
       throw new IllegalArgumentException("Portfolio does not exist with name: " + portfolioName);
     }
@@ -155,24 +157,24 @@ public final class UserImpl implements User {
 
   @Override
   public void getPerformanceOfFlexiblePortfolio(String portfolioName, String from, String to,
-      Map<String, Map<String, Double>> stockPriceMap,
+      PriceStore priceStore,
       BiConsumer<Map<String, Double>, ApiPeriod> performanceScaler) {
-    nullChecker.accept(new Object[]{portfolioName, from, to, stockPriceMap, performanceScaler});
+    nullChecker.accept(new Object[]{portfolioName, from, to, priceStore, performanceScaler});
     if (flexiblePortfolioMap.containsKey(portfolioName)) {
       flexiblePortfolioMap.get(portfolioName)
-          .getPerformance(from, to, stockPriceMap, performanceScaler);
+          .getPerformance(from, to, priceStore, performanceScaler);
     }
   }
 
   @Override
   public void addStrategyToFlexiblePortfolio(String portfolioName,
-      Map<String, Map<String, Double>> stockPriceMap, Double amount,
+      PriceStore priceStore, Double amount,
       Map<String, Double> tickerRatios, String from, String to, ApiPeriod period)
       throws IllegalArgumentException {
     nullChecker.accept(new Object[]{portfolioName, amount, tickerRatios, from, period});
     if (flexiblePortfolioMap.containsKey(portfolioName)) {
       FlexiblePortfolio flexiblePortfolio = flexiblePortfolioMap.get(portfolioName);
-      flexiblePortfolio.addStrategy(stockPriceMap, amount, tickerRatios, from, to, period);
+      flexiblePortfolio.addStrategy(priceStore, amount, tickerRatios, from, to, period);
       flexiblePortfolioMap.put(portfolioName, flexiblePortfolio);
     } else {
       throw new IllegalArgumentException("Portfolio does not exist with name: " + portfolioName);
@@ -181,9 +183,17 @@ public final class UserImpl implements User {
 
   @Override
   public Double getValuesOfStocksOfPortfolio(String portfolioName,
-      Map<String, Map<String, Double>> stockPriceMap, String date)
+      PriceStore priceStore, String date)
       throws IllegalArgumentException, NullPointerException {
-    nullChecker.accept(new Object[]{portfolioName, stockPriceMap, date});
-    return getPortfolio(portfolioName).getValue(stockPriceMap, date);
+    nullChecker.accept(new Object[]{portfolioName, priceStore, date});
+    return getPortfolio(portfolioName).getValue(priceStore, date);
+  }
+
+  @Override
+  public void invalidatePrices(Set<String> tickers) {
+    nullChecker.accept(new Object[]{tickers});
+    for (FlexiblePortfolio flexiblePortfolio : flexiblePortfolioMap.values()) {
+      flexiblePortfolio.invalidatePrices(tickers);
+    }
   }
 }
@@ -0,0 +1,110 @@
+package util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Represents an implementation of {@link PriceSource} that fetches price data from the
+ * AlphaVantage API. Every source shares one {@link HttpClient}, so connections are kept alive and
+ * reused across stocks, and HTTP/2 is used where the server offers it. Calls are limited by a
+ * {@link TokenBucketRateLimiter} matching the quota of the api key.
+ */
+public final class AlphavantagePriceSource implements PriceSource {
+
+  private static final String API_URL = "https://www.alphavantage.co/query";
+  private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+  private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_2)
+      .connectTimeout(CONNECT_TIMEOUT)
+      .followRedirects(HttpClient.Redirect.NORMAL)
+      .build();
+  // every source of the application shares the quota of the api key
+  private static final TokenBucketRateLimiter API_RATE_LIMITER =
+      TokenBucketRateLimiter.forAlphavantage();
+
+  private final String apiKey;
+  private final String apiUrl;
+  private final TokenBucketRateLimiter rateLimiter;
+
+  /**
+   * Constructs a source whose calls are limited to the quota of a free api key, shared with every
+   * other source constructed this way.
+   *
+   * @param apiKey to make api calls
+   */
+  public AlphavantagePriceSource(String apiKey) {
+    this(apiKey, API_URL, API_RATE_LIMITER);
+  }
+
+  /**
+   * Constructs a source whose calls are limited by the given rate limiter, such as one matching
+   * the quota of a premium api key.
+   *
+   * @param apiKey      to make api calls
+   * @param rateLimiter limits the rate of api calls
+   */
+  public AlphavantagePriceSource(String apiKey, TokenBucketRateLimiter rateLimiter) {
+    this(apiKey, API_URL, rateLimiter);
+  }
+
+  /**
+   * Constructs a source that makes its api calls to the given url instead of the AlphaVantage API,
+   * such as a local server standing in for it.
+   *
+   * @param apiKey      to make api calls
+   * @param apiUrl      url of the query endpoint of the API
+   * @param rateLimiter limits the rate of api calls
+   */
+  AlphavantagePriceSource(String apiKey, String apiUrl, TokenBucketRateLimiter rateLimiter) {
+    new ParamNullChecker().accept(new Object[]{apiKey, apiUrl, rateLimiter});
+    this.apiKey = apiKey;
+    this.apiUrl = apiUrl;
+    this.rateLimiter = rateLimiter;
+  }
+
+  @Override
+  public String getName() {
+    return "alphavantage:" + apiUrl;
+  }
+
+  @Override
+  public InputStream open(String stockName, ApiPeriod period, boolean compact)
+      throws IllegalArgumentException {
+    URI uri;
+    try {
+      uri = URI.create(apiUrl + "?function=TIME_SERIES_"
+          + period.getApiPeriod()
+          + "&outputsize=" + (compact ? "compact" : "full")
+          + "&symbol"
+          + "=" + URLEncoder.encode(stockName, StandardCharsets.UTF_8) + "&apikey="
+          + URLEncoder.encode(apiKey, StandardCharsets.UTF_8) + "&datatype=csv");
+    } catch (IllegalArgumentException e) {
+      throw new RuntimeException("the EOD Historical API has either changed or "
+          + "no longer works");
+    }
+    HttpRequest request = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).GET().build();
+    try {
+      rateLimiter.acquire();
+      HttpResponse<InputStream> response = HTTP_CLIENT.send(request,
+          HttpResponse.BodyHandlers.ofInputStream());
+      if (response.statusCode() != 200) {
+        response.body().close();
+        throw new IllegalArgumentException("No price data found for " + stockName);
+      }
+      return response.body();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalArgumentException("No price data found for " + stockName);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("No price data found for " + stockName);
+    }
+  }
+}
@@ -0,0 +1,250 @@
+package util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+
+/**
+ * Imports the price histories of many stocks into a directory of price data files, such as to seed
+ * 'res/stock_value_data_cache/' of a new environment. Stocks are fetched concurrently, while the
+ * {@link PriceSource} keeps to the quota of its API. Every imported stock is saved as a csv file
+ * with its {@link HydrationMetadata} and its binary snapshot, so the application starts from it
+ * without parsing any text. Imported stocks are recorded in a checkpoint file in the directory,
+ * so that an interrupted import resumes with the stocks it had not imported yet. The checkpoint
+ * is removed once every stock has been imported.
+ */
+public final class BulkPriceImporter {
+
+  /**
+   * Name of the checkpoint file in the import directory.
+   */
+  public static final String CHECKPOINT_FILE_NAME = ".import_checkpoint";
+
+  private static final String DEFAULT_DIRECTORY = "res/stock_value_data_cache/";
+  private static final String USAGE = "Usage: BulkPriceImporter <api key> <ticker list file>"
+      + " [directory] [requests per minute]";
+  private static final ExecutorService DEFAULT_EXECUTOR = Executors.newFixedThreadPool(
+      ConcurrentHydrationService.DEFAULT_CONCURRENCY, runnable -> {
+        Thread thread = new Thread(runnable, "price-import");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  private final PriceSource priceSource;
+  private final String directory;
+  private final FreshnessPolicy freshnessPolicy;
+  private final Executor executor;
+
+  /**
+   * Constructs an importer running up to {@value ConcurrentHydrationService#DEFAULT_CONCURRENCY}
+   * imports at once, which reuses files of the directory that are still fresh.
+   *
+   * @param priceSource source of the price data
+   * @param directory   directory of the imported files, ending with a separator
+   */
+  public BulkPriceImporter(PriceSource priceSource, String directory) {
+    this(priceSource, directory, new FreshnessPolicy(), DEFAULT_EXECUTOR);
+  }
+
+  /**
+   * Constructs an importer.
+   *
+   * @param priceSource     source of the price data
+   * @param directory       directory of the imported files, ending with a separator
+   * @param freshnessPolicy decides when files already in the directory are fetched again
+   * @param executor        runs the imports
+   */
+  public BulkPriceImporter(PriceSource priceSource, String directory,
+      FreshnessPolicy freshnessPolicy, Executor executor) {
+    new ParamNullChecker().accept(new Object[]{priceSource, directory, freshnessPolicy,
+        executor});
+    this.priceSource = priceSource;
+    this.directory = directory;
+    this.freshnessPolicy = freshnessPolicy;
+    this.executor = executor;
+  }
+
+  /**
+   * Imports the stocks of a ticker list file from the AlphaVantage API.
+   *
+   * @param args api key, ticker list file with one ticker per line, optionally the directory to
+   *             import into, 'res/stock_value_data_cache/' by default, and optionally the number of
+   *             api calls allowed per minute by the key,
+   *             {@value TokenBucketRateLimiter#ALPHAVANTAGE_REQUESTS_PER_MINUTE} by default
+   */
+  public static void main(String[] args) {
+    if (args.length < 2) {
+      System.out.println(USAGE);
+      return;
+    }
+    String directory = args.length > 2 ? args[2] : DEFAULT_DIRECTORY;
+    if (!directory.endsWith("/") && !directory.endsWith(File.separator)) {
+      directory += "/";
+    }
+    int requestsPerMinute;
+    try {
+      requestsPerMinute = args.length > 3 ? Integer.parseInt(args[3])
+          : TokenBucketRateLimiter.ALPHAVANTAGE_REQUESTS_PER_MINUTE;
+    } catch (NumberFormatException e) {
+      System.out.println(USAGE);
+      return;
+    }
+    List<String> tickers;
+    try {
+      tickers = readTickerList(args[1]);
+    } catch (IllegalArgumentException e) {
+      System.out.println(e.getMessage());
+      System.out.println(USAGE);
+      return;
+    }
+    BulkPriceImporter importer = new BulkPriceImporter(new AlphavantagePriceSource(args[0],
+        new TokenBucketRateLimiter(requestsPerMinute, Duration.ofMinutes(1))), directory);
+    Map<String, String> failures = importer.importTickers(tickers, (ticker, failure) ->
+        System.out.println(ticker + ": " + (failure == null ? "imported" : failure)));
+    System.out.println((tickers.size() - failures.size()) + " of " + tickers.size()
+        + " stock(s) imported into " + directory);
+    if (!failures.isEmpty()) {
+      System.out.println("Run again to resume, failed: " + failures.keySet());
+    }
+  }
+
+  /**
+   * Reads the tickers listed in a file, one per line or separated by commas. Blank lines, lines
+   * starting with '#' and repeated tickers are skipped.
+   *
+   * @param tickerListFile path of the file
+   * @return tickers in the order they are listed
+   * @throws IllegalArgumentException if the file cannot be read
+   */
+  public static List<String> readTickerList(String tickerListFile)
+      throws IllegalArgumentException {
+    Set<String> tickers = new LinkedHashSet<>();
+    try {
+      for (String line : Files.readAllLines(Path.of(tickerListFile), StandardCharsets.UTF_8)) {
+        if (line.trim().startsWith("#")) {
+          continue;
+        }
+        for (String ticker : line.split(",")) {
+          if (!ticker.isBlank()) {
+            tickers.add(ticker.trim());
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Ticker list could not be read from " + tickerListFile);
+    }
+    return new ArrayList<>(tickers);
+  }
+
+  /**
+   * Imports the price histories of the given stocks and waits until every import has finished.
+   * Stocks recorded in the checkpoint of an earlier interrupted import are skipped.
+   *
+   * @param tickers    names of the stocks
+   * @param onImported told about each stock once its import has finished, with the reason of the
+   *                   failure or null if it was imported, called from the importing threads
+   * @return reason of the failure by name of each stock that could not be imported, empty if
+   *         every stock was imported
+   * @throws IllegalArgumentException if the directory or its checkpoint cannot be written
+   */
+  public Map<String, String> importTickers(Collection<String> tickers,
+      BiConsumer<String, String> onImported) throws IllegalArgumentException {
+    new ParamNullChecker().accept(new Object[]{tickers, onImported});
+    Path checkpoint = Path.of(directory, CHECKPOINT_FILE_NAME);
+    try {
+      Files.createDirectories(Path.of(directory));
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Directory could not be created: " + directory);
+    }
+    Set<String> imported = readCheckpoint(checkpoint);
+    Map<String, CompletableFuture<Void>> imports = new TreeMap<>();
+    for (String ticker : new LinkedHashSet<>(tickers)) {
+      if (!imported.contains(ticker)) {
+        imports.put(ticker, CompletableFuture.runAsync(() -> {
+          importTicker(ticker);
+          recordImported(checkpoint, ticker);
+        }, executor).whenComplete((ignored, failure) -> onImported.accept(ticker,
+            failure == null ? null : messageOf(failure))));
+      }
+    }
+    Map<String, String> failures = new TreeMap<>();
+    for (Map.Entry<String, CompletableFuture<Void>> running : imports.entrySet()) {
+      try {
+        running.getValue().join();
+      } catch (CompletionException e) {
+        failures.put(running.getKey(), messageOf(e));
+      }
+    }
+    if (failures.isEmpty()) {
+      try {
+        Files.deleteIfExists(checkpoint);
+      } catch (IOException e) {
+        // a leftover checkpoint only makes the next import skip the stocks it lists
+      }
+    }
+    return failures;
+  }
+
+  // saves the csv file of a stock with its metadata, and its snapshot unless it is still fresh
+  private void importTicker(String ticker) {
+    String csvFilePath = directory + ticker + "_" + ApiPeriod.DAILY.getApiPeriod() + ".csv";
+    String savedDate = StockDataHydrator.latestSavedDate(new File(csvFilePath));
+    PriceSeries fetched = new StockDataHydrator(priceSource, directory, ApiPeriod.DAILY,
+        freshnessPolicy).hydrate(ticker);
+    if (!PriceSnapshotFile.isFresh(csvFilePath)) {
+      // a history fetched in full starts on or before the latest day saved before
+      boolean full = savedDate == null
+          || fetched.size() > 0 && fetched.getEpochDay(0) <= EpochDays.parse(savedDate);
+      PriceSnapshotFile.write(csvFilePath, full ? fetched : new CsvPriceReader().read(csvFilePath));
+    }
+  }
+
+  private Set<String> readCheckpoint(Path checkpoint) {
+    Set<String> imported = new HashSet<>();
+    if (Files.isRegularFile(checkpoint)) {
+      try {
+        for (String line : Files.readAllLines(checkpoint, StandardCharsets.UTF_8)) {
+          if (!line.isBlank()) {
+            imported.add(line.trim());
+          }
+        }
+      } catch (IOException e) {
+        // an unreadable checkpoint imports every stock again
+      }
+    }
+    return imported;
+  }
+
+  private synchronized void recordImported(Path checkpoint, String ticker) {
+    try {
+      Files.writeString(checkpoint, ticker + System.lineSeparator(), StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Checkpoint could not be written: " + checkpoint);
+    }
+  }
+
+  private String messageOf(Throwable failure) {
+    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause() : failure;
+    return String.valueOf(cause.getMessage());
+  }
+}
@@ -0,0 +1,454 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Represents an implementation of {@link PriceStore} that keeps the price history of each stock as
+ * a {@link PriceSeries} of primitive columns instead of maps of boxed values. Series are held in
+ * slots indexed by the id assigned to each ticker by {@link TickerSymbols}. Series can be
+ * registered with a loader and are then loaded on first access.
+ *
+ * <p>The store is safe to use from several threads. The slot of a ticker is immutable and is
+ * replaced as a whole, so a new or refreshed series is built off to the side and published
+ * atomically, and readers never take a lock. A reader sees either the previous series of a ticker
+ * or the new one, never a partly written one.
+ *
+ * <p>When the series of a ticker is replaced by one extending it, such as after a refresh, the
+ * aggregates by week, month or year built for the previous series are extended to the new one
+ * instead of being built again from every trading day.
+ *
+ * <p>The store keeps the estimated memory of loaded series within a budget, counted as series are
+ * published and released rather than by scanning every slot. Each slot records the bytes it is
+ * counted for and gives back exactly those, and a series that has grown since, such as by building
+ * its calendar or aggregates, is counted again on its next access. When the usage goes over the
+ * budget, series that have a loader are released in the order they were loaded, with a series
+ * used since it was last passed over given a second chance, so that the least recently used ones
+ * go first while readers only mark a slot the first time they use it. Released series are
+ * transparently loaded again on their next access. Series put directly have nothing to be
+ * reloaded from, so they are never released.
+ */
+public final class ColumnarPriceStore implements PriceStore {
+
+  /**
+   * Number of days searched back by default for the last available price of a stock.
+   */
+  public static final int DEFAULT_MAX_STALENESS_DAYS = 100;
+
+  /**
+   * Memory budget in bytes used by default for loaded price histories.
+   */
+  public static final long DEFAULT_MEMORY_BUDGET_BYTES = 256L * 1024 * 1024;
+
+  private static final int CHUNK_BITS = 10;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+  private static final int MAX_CHUNKS = 4096;
+  private static final long RELEASED = -1L;
+
+  private final AtomicReferenceArray<AtomicReferenceArray<Slot>> chunks;
+  private final int maxStalenessDays;
+  private final long memoryBudgetBytes;
+  // ids of every ticker ever given a slot, which is checked before being listed
+  private final Set<Integer> registeredIds;
+  private final LongAdder residentBytes;
+  private final Map<Integer, Slot> evictionOrder;
+  private final LongAdder hitCount;
+  private final LongAdder missCount;
+  private final LongAdder evictionCount;
+
+  /**
+   * Constructs an empty store of price histories that searches back up to
+   * {@value #DEFAULT_MAX_STALENESS_DAYS} days for the last available price of a stock.
+   */
+  public ColumnarPriceStore() {
+    this(DEFAULT_MAX_STALENESS_DAYS);
+  }
+
+  /**
+   * Constructs an empty store of price histories with the given staleness limit.
+   *
+   * @param maxStalenessDays number of days, counting the asked date, searched back for the last
+   *                         available price of a stock
+   * @throws IllegalArgumentException if the staleness limit is not positive
+   */
+  public ColumnarPriceStore(int maxStalenessDays) throws IllegalArgumentException {
+    this(maxStalenessDays, DEFAULT_MEMORY_BUDGET_BYTES);
+  }
+
+  /**
+   * Constructs an empty store of price histories with the given staleness limit and memory
+   * budget.
+   *
+   * @param maxStalenessDays  number of days, counting the asked date, searched back for the last
+   *                          available price of a stock
+   * @param memoryBudgetBytes estimated memory in bytes that loaded price histories may hold
+   * @throws IllegalArgumentException if the staleness limit or the memory budget is not positive
+   */
+  public ColumnarPriceStore(int maxStalenessDays, long memoryBudgetBytes)
+      throws IllegalArgumentException {
+    if (maxStalenessDays <= 0) {
+      throw new IllegalArgumentException("Staleness limit should be a positive number of days!");
+    }
+    if (memoryBudgetBytes <= 0) {
+      throw new IllegalArgumentException("Memory budget should be a positive number of bytes!");
+    }
+    this.chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+    this.maxStalenessDays = maxStalenessDays;
+    this.memoryBudgetBytes = memoryBudgetBytes;
+    this.registeredIds = ConcurrentHashMap.newKeySet();
+    this.residentBytes = new LongAdder();
+    this.evictionOrder = new LinkedHashMap<>();
+    this.hitCount = new LongAdder();
+    this.missCount = new LongAdder();
+    this.evictionCount = new LongAdder();
+  }
+
+  @Override
+  public boolean containsTicker(String ticker) {
+    return containsTicker(TickerSymbols.find(ticker));
+  }
+
+  @Override
+  public boolean containsTicker(int tickerId) {
+    return lookup(tickerId) != null;
+  }
+
+  @Override
+  public boolean isRegistered(String ticker) {
+    return isRegistered(slotOf(TickerSymbols.find(ticker)));
+  }
+
+  @Override
+  public PriceSeries getSeries(String ticker) throws IllegalArgumentException {
+    return getSeries(TickerSymbols.find(ticker));
+  }
+
+  @Override
+  public PriceSeries getSeries(int tickerId) throws IllegalArgumentException {
+    PriceSeries series = lookup(tickerId);
+    if (series == null) {
+      throw new IllegalArgumentException("Stock values not present for given stock name");
+    }
+    return series;
+  }
+
+  @Override
+  public void putSeries(String ticker, PriceSeries series) {
+    new ParamNullChecker().accept(new Object[]{ticker, series});
+    int tickerId = TickerSymbols.idOf(ticker);
+    PriceSeries previous = previousSeries(slotOf(tickerId));
+    if (previous != null) {
+      series.extendAggregatesOf(previous);
+    }
+    registeredIds.add(tickerId);
+    Slot slot = charge(new Slot(series, null));
+    release(chunkFor(tickerId, true).getAndSet(tickerId & (CHUNK_SIZE - 1), slot));
+  }
+
+  @Override
+  public void registerLoader(String ticker, Supplier<PriceSeries> loader) {
+    new ParamNullChecker().accept(new Object[]{ticker, loader});
+    int tickerId = TickerSymbols.idOf(ticker);
+    registeredIds.add(tickerId);
+    Slot slot = charge(new Slot(null, loader, previousSeries(slotOf(tickerId))));
+    release(chunkFor(tickerId, true).getAndSet(tickerId & (CHUNK_SIZE - 1), slot));
+  }
+
+  @Override
+  public void prefetch(Collection<String> tickers) {
+    // each history is loaded by its own task, so that several files are read at once
+    for (String ticker : new ArrayList<>(tickers)) {
+      ForkJoinPool.commonPool().execute(() -> containsTicker(ticker));
+    }
+  }
+
+  @Override
+  public void removeSeries(String ticker) {
+    int tickerId = TickerSymbols.find(ticker);
+    AtomicReferenceArray<Slot> chunk = chunkFor(tickerId, false);
+    if (chunk != null) {
+      release(chunk.getAndSet(tickerId & (CHUNK_SIZE - 1), null));
+    }
+  }
+
+  @Override
+  public Set<String> getTickers() {
+    Set<String> tickers = new HashSet<>();
+    for (int tickerId : registeredIds) {
+      if (isRegistered(slotOf(tickerId))) {
+        tickers.add(TickerSymbols.nameOf(tickerId));
+      }
+    }
+    return tickers;
+  }
+
+  @Override
+  public boolean hasPriceOnDate(String ticker, String date) {
+    PriceSeries series = lookup(TickerSymbols.find(ticker));
+    if (series == null) {
+      return false;
+    }
+    return series.getTradingCalendar().isTradingDay(date);
+  }
+
+  @Override
+  public double getPriceOnDate(String ticker, String date) throws IllegalArgumentException {
+    PriceSeries series = getSeries(ticker);
+    int index = series.indexOf(EpochDays.parse(date));
+    if (index < 0) {
+      throw new IllegalArgumentException("Stock price not present for the day " + date);
+    }
+    return series.getClose(index);
+  }
+
+  @Override
+  public double getPriceAsOf(String ticker, String date) throws IllegalArgumentException {
+    PriceSeries series = getSeries(ticker);
+    return getPriceAsOf(series, EpochDays.parse(date));
+  }
+
+  @Override
+  public double getPriceAsOf(int tickerId, int epochDay) throws IllegalArgumentException {
+    return getPriceAsOf(getSeries(tickerId), epochDay);
+  }
+
+  @Override
+  public double getPeriodEndPrice(int tickerId, int epochDay, ApiPeriod period)
+      throws IllegalArgumentException {
+    new ParamNullChecker().accept(new Object[]{period});
+    return getPriceAsOf(getSeries(tickerId).getAggregated(period), epochDay);
+  }
+
+  @Override
+  public int getMaxStalenessDays() {
+    return maxStalenessDays;
+  }
+
+  @Override
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  @Override
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  @Override
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  @Override
+  public long getMemoryUsage() {
+    return residentBytes.sum();
+  }
+
+  private double getPriceAsOf(PriceSeries series, int epochDay) throws IllegalArgumentException {
+    int index = series.floorIndex(epochDay);
+    if (index < 0 || epochDay - series.getEpochDay(index) >= maxStalenessDays) {
+      throw new IllegalArgumentException("Stock values not present on any date in last "
+          + maxStalenessDays + " days from the given date");
+    }
+    return series.getClose(index);
+  }
+
+  private PriceSeries lookup(int tickerId) {
+    AtomicReferenceArray<Slot> chunk = chunkFor(tickerId, false);
+    if (chunk == null) {
+      return null;
+    }
+    int index = tickerId & (CHUNK_SIZE - 1);
+    Slot slot = chunk.get(index);
+    if (slot == null) {
+      return null;
+    }
+    if (slot.series != null) {
+      hitCount.increment();
+      // only the first use since the slot was last passed over writes to it
+      if (!slot.referenced) {
+        slot.referenced = true;
+      }
+      recharge(tickerId, slot);
+      return slot.series;
+    }
+    if (slot.loader == null) {
+      return null;
+    }
+    missCount.increment();
+    PriceSeries series;
+    try {
+      series = slot.loader.get();
+    } catch (IllegalArgumentException e) {
+      series = null;
+    }
+    // the slot may have been replaced while loading, in which case the newer slot is kept
+    if (series == null) {
+      if (chunk.compareAndSet(index, slot, null)) {
+        release(slot);
+      }
+      return null;
+    }
+    if (slot.previous != null) {
+      series.extendAggregatesOf(slot.previous);
+    }
+    Slot loaded = charge(new Slot(series, slot.loader));
+    if (chunk.compareAndSet(index, slot, loaded)) {
+      release(slot);
+      admit(tickerId, loaded);
+    } else {
+      release(loaded);
+    }
+    return series;
+  }
+
+  // counts the bytes a slot is charged for before it is published
+  private Slot charge(Slot slot) {
+    residentBytes.add(slot.charged.get());
+    return slot;
+  }
+
+  // gives back the bytes a slot was charged for, once however many threads release it
+  private void release(Slot slot) {
+    if (slot == null) {
+      return;
+    }
+    long charged = slot.charged.getAndSet(RELEASED);
+    if (charged > 0) {
+      residentBytes.add(-charged);
+    }
+  }
+
+  // charges a published slot again for what its series has grown by since it was last charged
+  private void recharge(int tickerId, Slot slot) {
+    long footprint = slot.footprint();
+    long charged = slot.charged.get();
+    while (charged != RELEASED && charged != footprint) {
+      if (slot.charged.compareAndSet(charged, footprint)) {
+        residentBytes.add(footprint - charged);
+        if (residentBytes.sum() > memoryBudgetBytes) {
+          evictOverBudget(tickerId);
+        }
+        return;
+      }
+      charged = slot.charged.get();
+    }
+  }
+
+  // queues a loaded slot for eviction and releases queued slots while over the budget
+  private synchronized void admit(int tickerId, Slot loaded) {
+    evictionOrder.remove(tickerId);
+    evictionOrder.put(tickerId, loaded);
+    evictOverBudget(tickerId);
+  }
+
+  // releases the eldest queued slots not used since they were last passed over, keeping a ticker
+  private synchronized void evictOverBudget(int keptTickerId) {
+    // a slot is passed over at most once unless it is used again, so two passes are enough
+    int steps = 2 * evictionOrder.size();
+    while (residentBytes.sum() > memoryBudgetBytes && !evictionOrder.isEmpty() && steps-- > 0) {
+      Map.Entry<Integer, Slot> eldest = evictionOrder.entrySet().iterator().next();
+      int victim = eldest.getKey();
+      Slot queued = eldest.getValue();
+      evictionOrder.remove(victim);
+      if (slotOf(victim) != queued) {
+        // released or replaced since it was queued
+        continue;
+      }
+      if (victim == keptTickerId || queued.referenced) {
+        if (victim != keptTickerId) {
+          queued.referenced = false;
+        }
+        evictionOrder.put(victim, queued);
+        continue;
+      }
+      AtomicReferenceArray<Slot> chunk = chunkFor(victim, false);
+      if (chunk.compareAndSet(victim & (CHUNK_SIZE - 1), queued, new Slot(null, queued.loader))) {
+        release(queued);
+        evictionCount.increment();
+      }
+    }
+  }
+
+  private static long footprintOf(PriceSeries series) {
+    return series == null ? 0L : series.getMemoryFootprint();
+  }
+
+  private static boolean isRegistered(Slot slot) {
+    return slot != null && (slot.series != null || slot.loader != null);
+  }
+
+  // series a new slot of a ticker may extend the aggregates of
+  private static PriceSeries previousSeries(Slot slot) {
+    if (slot == null) {
+      return null;
+    }
+    return slot.series != null ? slot.series : slot.previous;
+  }
+
+  private Slot slotOf(int tickerId) {
+    AtomicReferenceArray<Slot> chunk = chunkFor(tickerId, false);
+    return chunk == null ? null : chunk.get(tickerId & (CHUNK_SIZE - 1));
+  }
+
+  private AtomicReferenceArray<Slot> chunkFor(int tickerId, boolean create) {
+    if (tickerId < 0) {
+      return null;
+    }
+    int chunkIndex = tickerId >>> CHUNK_BITS;
+    if (chunkIndex >= MAX_CHUNKS) {
+      if (create) {
+        throw new IllegalArgumentException("Too many tickers to hold in the price store!");
+      }
+      return null;
+    }
+    AtomicReferenceArray<Slot> chunk = chunks.get(chunkIndex);
+    if (chunk == null && create) {
+      chunks.compareAndSet(chunkIndex, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+      chunk = chunks.get(chunkIndex);
+    }
+    return chunk;
+  }
+
+  /**
+   * Represents the content of the store for one ticker. A slot is never changed once published
+   * apart from the bytes it is charged for and whether it was used, a change of content publishes
+   * a new slot. A slot that is not loaded yet may keep the series it replaced until it is loaded,
+   * so that the aggregates of that series can be extended, and is charged for that series
+   * meanwhile.
+   */
+  private static final class Slot {
+
+    private final PriceSeries series;
+    private final Supplier<PriceSeries> loader;
+    private final PriceSeries previous;
+    // bytes counted in the memory usage for this slot, RELEASED once they have been given back
+    private final AtomicLong charged;
+    private volatile boolean referenced;
+
+    private Slot(PriceSeries series, Supplier<PriceSeries> loader) {
+      this(series, loader, null);
+    }
+
+    private Slot(PriceSeries series, Supplier<PriceSeries> loader, PriceSeries previous) {
+      this.series = series;
+      this.loader = loader;
+      this.previous = previous;
+      this.charged = new AtomicLong(footprint());
+    }
+
+    private long footprint() {
+      return footprintOf(series) + footprintOf(previous);
+    }
+  }
+}
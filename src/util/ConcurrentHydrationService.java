@@ -0,0 +1,83 @@
+package util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+
+/**
+ * Represents an implementation of {@link HydrationService} that runs the fetches of a set of
+ * stocks concurrently on a pool of threads. The rate of calls made to the API is left to the
+ * fetcher, which shares a {@link TokenBucketRateLimiter} between all its calls.
+ */
+public final class ConcurrentHydrationService implements HydrationService {
+
+  /**
+   * Number of fetches run at the same time by default.
+   */
+  public static final int DEFAULT_CONCURRENCY = 8;
+
+  private static final ExecutorService DEFAULT_EXECUTOR = Executors.newFixedThreadPool(
+      DEFAULT_CONCURRENCY, runnable -> {
+        Thread thread = new Thread(runnable, "price-hydration");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  private final BiConsumer<String, PriceStore> fetcher;
+  private final Executor executor;
+
+  /**
+   * Constructs a hydration service running up to {@value #DEFAULT_CONCURRENCY} fetches at once.
+   *
+   * @param fetcher fetches the price history of a stock into a price store, throwing an
+   *                {@link IllegalArgumentException} when it cannot
+   */
+  public ConcurrentHydrationService(BiConsumer<String, PriceStore> fetcher) {
+    this(fetcher, DEFAULT_EXECUTOR);
+  }
+
+  /**
+   * Constructs a hydration service running its fetches on the given executor.
+   *
+   * @param fetcher  fetches the price history of a stock into a price store, throwing an
+   *                 {@link IllegalArgumentException} when it cannot
+   * @param executor runs the fetches
+   */
+  public ConcurrentHydrationService(BiConsumer<String, PriceStore> fetcher, Executor executor) {
+    new ParamNullChecker().accept(new Object[]{fetcher, executor});
+    this.fetcher = fetcher;
+    this.executor = executor;
+  }
+
+  @Override
+  public CompletableFuture<Void> hydrateAsync(String ticker, PriceStore priceStore) {
+    return CompletableFuture.runAsync(() -> fetcher.accept(ticker, priceStore), executor);
+  }
+
+  @Override
+  public Map<String, String> hydrateAll(Collection<String> tickers, PriceStore priceStore) {
+    Map<String, CompletableFuture<Void>> fetches = new HashMap<>();
+    for (String ticker : new LinkedHashSet<>(tickers)) {
+      if (!priceStore.isRegistered(ticker)) {
+        fetches.put(ticker, hydrateAsync(ticker, priceStore));
+      }
+    }
+    Map<String, String> failures = new HashMap<>();
+    for (Map.Entry<String, CompletableFuture<Void>> fetch : fetches.entrySet()) {
+      try {
+        fetch.getValue().join();
+      } catch (CompletionException e) {
+        Throwable cause = e.getCause() == null ? e : e.getCause();
+        failures.put(fetch.getKey(), String.valueOf(cause.getMessage()));
+      }
+    }
+    return failures;
+  }
+}
@@ -4,11 +4,13 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents an implementation of {@link FileUtil} that has functionalities to be performed.
@@ -46,19 +48,21 @@ public final class CsvFileUtil implements FileUtil {
 
   @Override
   public Map<String, List<String[]>> readAllFiles(String filePath) {
-    Map<String, List<String[]>> multiFileDataMap = new HashMap<>();
+    Map<String, List<String[]>> multiFileDataMap = new ConcurrentHashMap<>();
     File resourceDir = new File(filePath);
     if (resourceDir.isDirectory()) {
-      for (File file : Objects.requireNonNull(resourceDir.listFiles())) {
-        if (file.isFile() && file.getName().endsWith(CSV)) {
-          String fileName = file.getName();
-          String header = fileName.substring(0, fileName.length() - 4);
-          List<String[]> stockDataFromFile = readFile(filePath + fileName);
-          multiFileDataMap.put(header, stockDataFromFile);
-        }
-      }
+      // files are read in parallel on the common fork-join pool
+      Arrays.stream(Objects.requireNonNull(resourceDir.listFiles()))
+          .parallel()
+          .filter(file -> file.isFile() && file.getName().endsWith(CSV))
+          .forEach(file -> {
+            String fileName = file.getName();
+            String header = fileName.substring(0, fileName.length() - 4);
+            List<String[]> stockDataFromFile = readFile(filePath + fileName);
+            multiFileDataMap.put(header, stockDataFromFile);
+          });
     }
-    return multiFileDataMap;
+    return new HashMap<>(multiFileDataMap);
   }
 
   @Override
@@ -79,6 +83,21 @@ public final class CsvFileUtil implements FileUtil {
     }
   }
 
+  /**
+   * Fetches the path of a file kept next to a csv file, named as the csv file but with another
+   * extension.
+   *
+   * @param csvFilePath path of the csv file
+   * @param extension   extension of the other file, including its dot
+   * @return the csv path with its extension replaced, or appended if it has none
+   */
+  static String siblingPath(String csvFilePath, String extension) {
+    int dot = csvFilePath.lastIndexOf('.');
+    int separator = Math.max(csvFilePath.lastIndexOf('/'), csvFilePath.lastIndexOf('\\'));
+    String base = dot > separator ? csvFilePath.substring(0, dot) : csvFilePath;
+    return base + extension;
+  }
+
   private String getStockListAsString(List<String[]> stocks) {
     StringBuilder sb = new StringBuilder();
     for (String[] stock : stocks) {
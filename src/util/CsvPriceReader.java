@@ -0,0 +1,342 @@
+package util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Reads csv price data files in the format 'timestamp,open,high,low,close,volume' straight into the
+ * primitive columns of a {@link PriceSeries}. Bytes are read through a buffered file channel and
+ * dates and numbers are parsed in place, so no string or array is created per line. Several files
+ * are read in parallel on the common fork-join pool.
+ *
+ * <p>The result is the same as parsing the rows read by {@link CsvFileUtil#readFile(String)} with
+ * {@link StockUtil#getOhlcvSeries(List)}: rows may come in any order, a later row replaces an
+ * earlier one of the same date, and files having a row without a volume only get closing prices.
+ */
+public final class CsvPriceReader {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_FIELDS = PriceColumn.VOLUME.getCsvColumn() + 1;
+  private static final int MAX_EXACT_DIGITS = 15;
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+      1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+  /**
+   * Reads the price history held in a csv price data file.
+   *
+   * @param csvFilePath path of the csv file
+   * @return price history held in the file
+   * @throws IllegalArgumentException if the file cannot be read or is not a valid price data file
+   */
+  public PriceSeries read(String csvFilePath) throws IllegalArgumentException {
+    try (FileChannel channel = FileChannel.open(Path.of(csvFilePath), StandardOpenOption.READ)) {
+      return new Parser(csvFilePath).parse(channel);
+    } catch (IOException | RuntimeException e) {
+      throw new IllegalArgumentException("Csv file provided is faulty!");
+    }
+  }
+
+  /**
+   * Reads the price histories held in several csv price data files in parallel. Files that cannot
+   * be read or are not valid price data files are left out of the result.
+   *
+   * @param csvFilePaths paths of the csv files
+   * @return price history of each file that could be read, by the path of the file
+   */
+  public Map<String, PriceSeries> readAll(Collection<String> csvFilePaths) {
+    List<String> paths = new ArrayList<>(csvFilePaths);
+    Map<String, PriceSeries> seriesByPath = new ConcurrentHashMap<>();
+    ForkJoinPool.commonPool().invoke(new ReadTask(paths, 0, paths.size(), seriesByPath));
+    return new HashMap<>(seriesByPath);
+  }
+
+  /**
+   * Creates a parser to which the bytes of a csv price data file are fed as they arrive, such as
+   * while the file is downloaded.
+   *
+   * @param stockName name of the stock whose prices are in the file, used to report faulty rows
+   * @return parser of a single file
+   */
+  Parser newParser(String stockName) {
+    return new Parser(stockName);
+  }
+
+  /**
+   * Splits a range of files in halves until a single file is left, which is then read.
+   */
+  private final class ReadTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> paths;
+    private final int from;
+    private final int to;
+    private final Map<String, PriceSeries> seriesByPath;
+
+    private ReadTask(List<String> paths, int from, int to,
+        Map<String, PriceSeries> seriesByPath) {
+      this.paths = paths;
+      this.from = from;
+      this.to = to;
+      this.seriesByPath = seriesByPath;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > 1) {
+        int middle = (from + to) >>> 1;
+        invokeAll(new ReadTask(paths, from, middle, seriesByPath),
+            new ReadTask(paths, middle, to, seriesByPath));
+        return;
+      }
+      if (to - from == 1) {
+        try {
+          seriesByPath.put(paths.get(from), read(paths.get(from)));
+        } catch (IllegalArgumentException e) {
+          // faulty files are left out
+        }
+      }
+    }
+  }
+
+  /**
+   * Holds the state of parsing one file, which is either read from disk or fed in pieces as it
+   * arrives. Rows are collected in the order of the file and sorted once at the end.
+   */
+  static final class Parser {
+
+    private final String source;
+    private final byte[] field = new byte[64];
+    private final double[] rowValues = new double[MAX_FIELDS];
+    private int[] days = new int[1024];
+    private double[][] columns = new double[PriceColumn.values().length][1024];
+    private int rows;
+    private boolean closesOnly;
+    private boolean header = true;
+    private boolean blankLine = true;
+    private int fieldLength;
+    private int fieldIndex;
+    private int line = 1;
+
+    private Parser(String source) {
+      this.source = source;
+    }
+
+    private PriceSeries parse(FileChannel channel) throws IOException {
+      ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+      while (channel.read(buffer) >= 0) {
+        buffer.flip();
+        feed(buffer);
+        buffer.clear();
+      }
+      return finish();
+    }
+
+    /**
+     * Parses the next bytes of a file, which may end anywhere in a line.
+     *
+     * @param bytes next bytes of the file, all of which are consumed
+     * @throws IllegalArgumentException if a row is not valid
+     */
+    void feed(ByteBuffer bytes) throws IllegalArgumentException {
+      while (bytes.hasRemaining()) {
+        byte b = bytes.get();
+        if (b == '\n') {
+          if (!header && !blankLine) {
+            endRow(endField(fieldIndex, fieldLength));
+          }
+          header = false;
+          blankLine = true;
+          line++;
+          fieldLength = 0;
+          fieldIndex = 0;
+        } else if (header || b == '\r') {
+          continue;
+        } else if (b == ',') {
+          fieldIndex = endField(fieldIndex, fieldLength);
+          fieldLength = 0;
+          blankLine = false;
+        } else {
+          if (fieldLength == field.length) {
+            throw new IllegalArgumentException("Field is too long");
+          }
+          field[fieldLength++] = b;
+          blankLine = false;
+        }
+      }
+    }
+
+    /**
+     * Parses the last line of a file if it does not end with a line break and builds the price
+     * history of every row parsed.
+     *
+     * @return price history of the file
+     * @throws IllegalArgumentException if the last row is not valid
+     */
+    PriceSeries finish() throws IllegalArgumentException {
+      if (!header && !blankLine) {
+        endRow(endField(fieldIndex, fieldLength));
+        blankLine = true;
+      }
+      return toSeries();
+    }
+
+    // parses a completed field and returns the index of the next one
+    private int endField(int fieldIndex, int fieldLength) {
+      if (fieldIndex == 0) {
+        rowValues[0] = parseDay(fieldLength);
+      } else if (fieldIndex < MAX_FIELDS) {
+        rowValues[fieldIndex] = parseNumber(fieldLength);
+      }
+      return fieldIndex + 1;
+    }
+
+    private void endRow(int fields) {
+      if (fields <= PriceColumn.CLOSE.getCsvColumn()) {
+        throw new IllegalArgumentException("Row has no closing price");
+      }
+      if (fields < MAX_FIELDS) {
+        closesOnly = true;
+      }
+      if (rows == days.length) {
+        days = Arrays.copyOf(days, rows * 2);
+        for (int i = 0; i < columns.length; i++) {
+          columns[i] = Arrays.copyOf(columns[i], rows * 2);
+        }
+      }
+      days[rows] = (int) rowValues[0];
+      for (PriceColumn column : PriceColumn.values()) {
+        int csvColumn = column.getCsvColumn();
+        columns[column.ordinal()][rows] = csvColumn < fields ? rowValues[csvColumn] : 0;
+      }
+      rows++;
+    }
+
+    private PriceSeries toSeries() {
+      int[] order = sortedUniqueRows();
+      int size = order.length;
+      int[] epochDays = new int[size];
+      double[][] values = new double[columns.length][];
+      for (PriceColumn column : PriceColumn.values()) {
+        if (!closesOnly || column == PriceColumn.CLOSE) {
+          values[column.ordinal()] = new double[size];
+        }
+      }
+      for (int i = 0; i < size; i++) {
+        epochDays[i] = days[order[i]];
+        for (int c = 0; c < values.length; c++) {
+          if (values[c] != null) {
+            values[c][i] = columns[c][order[i]];
+          }
+        }
+      }
+      return PriceSeries.ofColumns(epochDays, values);
+    }
+
+    // indices of the rows by ascending day, keeping the last row of each day
+    private int[] sortedUniqueRows() {
+      boolean descending = true;
+      for (int i = 1; i < rows && descending; i++) {
+        descending = days[i] < days[i - 1];
+      }
+      int[] order = new int[rows];
+      if (descending) {
+        // api files list the latest date first
+        for (int i = 0; i < rows; i++) {
+          order[i] = rows - 1 - i;
+        }
+        return order;
+      }
+      long[] keys = new long[rows];
+      for (int i = 0; i < rows; i++) {
+        keys[i] = ((long) days[i] << 32) | i;
+      }
+      Arrays.sort(keys);
+      int size = 0;
+      for (int i = 0; i < rows; i++) {
+        if (i + 1 < rows && (int) (keys[i + 1] >> 32) == (int) (keys[i] >> 32)) {
+          continue;
+        }
+        order[size++] = (int) keys[i];
+      }
+      return Arrays.copyOf(order, size);
+    }
+
+    private int parseDay(int length) {
+      if (length != 10 || field[4] != '-' || field[7] != '-') {
+        throw new IllegalArgumentException("Date should be in the format yyyy-MM-dd");
+      }
+      return EpochDays.of(digits(0, 4), digits(5, 7), digits(8, 10));
+    }
+
+    private int digits(int from, int to) {
+      int value = 0;
+      for (int i = from; i < to; i++) {
+        int digit = field[i] - '0';
+        if (digit < 0 || digit > 9) {
+          throw new IllegalArgumentException("Date should be in the format yyyy-MM-dd");
+        }
+        value = value * 10 + digit;
+      }
+      return value;
+    }
+
+    // plain decimals of up to 15 significant digits are exact as a long divided by a power of
+    // ten, anything else is left to Double.parseDouble
+    private double parseNumber(int length) {
+      int i = 0;
+      boolean negative = length > 0 && field[0] == '-';
+      if (negative || length > 0 && field[0] == '+') {
+        i++;
+      }
+      long mantissa = 0;
+      int digitCount = 0;
+      int fractionDigits = -1;
+      boolean simple = true;
+      boolean anyDigit = false;
+      for (; i < length && simple; i++) {
+        byte b = field[i];
+        if (b >= '0' && b <= '9') {
+          anyDigit = true;
+          if (mantissa != 0 || b != '0') {
+            digitCount++;
+          }
+          mantissa = mantissa * 10 + (b - '0');
+          if (fractionDigits >= 0) {
+            fractionDigits++;
+          }
+        } else if (b == '.' && fractionDigits < 0) {
+          fractionDigits = 0;
+        } else {
+          simple = false;
+        }
+      }
+      if (simple && anyDigit && digitCount <= MAX_EXACT_DIGITS
+          && fractionDigits < POWERS_OF_TEN.length) {
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+      }
+      String number = new String(field, 0, length, StandardCharsets.US_ASCII);
+      try {
+        return Double.parseDouble(number);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Price '" + number + "' of " + source
+            + " is not a number on line " + line);
+      }
+    }
+  }
+}
@@ -6,9 +6,15 @@ package util;
 public interface DataHydrator {
 
   /**
-   * Fetches the historical data from an API for a stock name.
+   * Fetches the historical data from an API for a stock name. Data that is already saved is reused
+   * as it is or only brought up to date when possible.
    *
    * @param stockName name of the stock
+   * @return price history of the days fetched by this call. When the saved data was reused or
+   *         only brought up to date, it holds just the days merged into it, all of which come
+   *         after the days saved before. Otherwise it holds the whole history of the stock as
+   *         saved.
+   * @throws IllegalArgumentException if no price data could be fetched for the stock
    */
-  void hydrate(String stockName);
+  PriceSeries hydrate(String stockName);
 }
@@ -0,0 +1,57 @@
+package util;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Represents an implementation of {@link PriceSource} that replays price data files saved in a
+ * directory, named '&lt;stock&gt;_&lt;period&gt;.csv' as the application saves them. It lets the
+ * application run offline, e.g. from 'res/stock_value_data_cache/' or from files recorded during
+ * an earlier session.
+ */
+public final class DirectoryPriceSource implements PriceSource {
+
+  private final String directory;
+
+  /**
+   * Constructs a source replaying the price data files of a directory.
+   *
+   * @param directory directory of the price data files, ending with a separator
+   */
+  public DirectoryPriceSource(String directory) {
+    new ParamNullChecker().accept(new Object[]{directory});
+    this.directory = directory;
+  }
+
+  @Override
+  public String getName() {
+    return "directory:" + directory;
+  }
+
+  @Override
+  public InputStream open(String stockName, ApiPeriod period, boolean compact)
+      throws IllegalArgumentException {
+    String path = directory + stockName + "_" + period.getApiPeriod() + ".csv";
+    try {
+      if (!compact) {
+        return new FileInputStream(path);
+      }
+      // the latest days are listed first, so the compact window is the start of the file
+      StringBuilder window = new StringBuilder();
+      try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+        String line;
+        for (int i = 0; i <= COMPACT_SIZE && (line = reader.readLine()) != null; i++) {
+          window.append(line).append('\n');
+        }
+      }
+      return new ByteArrayInputStream(window.toString().getBytes(StandardCharsets.US_ASCII));
+    } catch (IOException e) {
+      throw new IllegalArgumentException("No price data found for " + stockName);
+    }
+  }
+}
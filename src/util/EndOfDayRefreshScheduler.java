@@ -0,0 +1,207 @@
+package util;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Represents an implementation of {@link RefreshScheduler} that refreshes the held stocks once
+ * every weekday after the market has closed. Refreshes run on a daemon thread of their own, with
+ * the stocks fetched concurrently by a {@link HydrationService}. Each refreshed history replaces
+ * the previous one in the price store in a single step, so readers see either the old or the new
+ * history of a stock.
+ */
+public final class EndOfDayRefreshScheduler implements RefreshScheduler {
+
+  /**
+   * Time of day after which refreshes run by default, leaving the API time to publish the prices
+   * of the day once the market has closed at 16:00.
+   */
+  public static final LocalTime DEFAULT_REFRESH_TIME = LocalTime.of(16, 30);
+
+  /**
+   * Time zone of the market whose close the refreshes follow by default.
+   */
+  public static final ZoneId MARKET_ZONE = ZoneId.of("America/New_York");
+
+  private final PriceStore priceStore;
+  private final Supplier<Collection<String>> heldTickers;
+  private final LocalTime refreshTime;
+  private final Clock clock;
+  private final HydrationService hydrationService;
+  private final ScheduledExecutorService executor;
+  private final AtomicReference<RefreshStatus> status;
+  private final List<Consumer<Set<String>>> listeners;
+  private ScheduledFuture<?> nextRefresh;
+  private boolean started;
+
+  /**
+   * Constructs a scheduler refreshing at {@link #DEFAULT_REFRESH_TIME} in {@link #MARKET_ZONE}.
+   *
+   * @param stockUtil   refreshes the price history of a stock
+   * @param priceStore  price store whose histories are replaced by the refreshed ones
+   * @param heldTickers fetches the names of the held stocks whenever a refresh starts
+   */
+  public EndOfDayRefreshScheduler(StockUtil stockUtil, PriceStore priceStore,
+      Supplier<Collection<String>> heldTickers) {
+    this(stockUtil, priceStore, heldTickers, DEFAULT_REFRESH_TIME, Clock.system(MARKET_ZONE));
+  }
+
+  /**
+   * Constructs a scheduler refreshing every weekday at the given time.
+   *
+   * @param stockUtil   refreshes the price history of a stock
+   * @param priceStore  price store whose histories are replaced by the refreshed ones
+   * @param heldTickers fetches the names of the held stocks whenever a refresh starts
+   * @param refreshTime time of day after the market close at which refreshes run
+   * @param clock       tells the current time in the time zone of the market
+   */
+  public EndOfDayRefreshScheduler(StockUtil stockUtil, PriceStore priceStore,
+      Supplier<Collection<String>> heldTickers, LocalTime refreshTime, Clock clock) {
+    new ParamNullChecker().accept(new Object[]{stockUtil, priceStore, heldTickers, refreshTime,
+        clock});
+    this.priceStore = priceStore;
+    this.heldTickers = heldTickers;
+    this.refreshTime = refreshTime;
+    this.clock = clock;
+    this.hydrationService = new ConcurrentHydrationService(stockUtil::refreshStockData);
+    this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "price-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.status = new AtomicReference<>(RefreshStatus.initial());
+    this.listeners = new CopyOnWriteArrayList<>();
+  }
+
+  @Override
+  public synchronized void start() throws IllegalStateException {
+    if (executor.isShutdown()) {
+      throw new IllegalStateException("Refresh scheduler was stopped!");
+    }
+    if (!started) {
+      started = true;
+      scheduleNextRefresh();
+    }
+  }
+
+  @Override
+  public synchronized void stop() {
+    executor.shutdownNow();
+    if (nextRefresh != null) {
+      nextRefresh.cancel(false);
+    }
+    status.updateAndGet(current -> current.scheduled(null));
+  }
+
+  @Override
+  public CompletableFuture<RefreshStatus> refreshNow() throws IllegalStateException {
+    try {
+      return CompletableFuture.supplyAsync(this::refresh, executor);
+    } catch (RejectedExecutionException e) {
+      throw new IllegalStateException("Refresh scheduler was stopped!");
+    }
+  }
+
+  @Override
+  public RefreshStatus getStatus() {
+    return status.get();
+  }
+
+  @Override
+  public void addRefreshListener(Consumer<Set<String>> listener) {
+    new ParamNullChecker().accept(new Object[]{listener});
+    listeners.add(listener);
+  }
+
+  /**
+   * Fetches the time of the first refresh after the given time, which is at the refresh time of
+   * the same or a later weekday.
+   *
+   * @param now time after which the refresh runs
+   * @return time of the next refresh
+   */
+  Instant nextRefreshAfter(Instant now) {
+    ZonedDateTime current = now.atZone(clock.getZone());
+    ZonedDateTime next = current.with(refreshTime);
+    while (!next.isAfter(current) || next.getDayOfWeek() == DayOfWeek.SATURDAY
+        || next.getDayOfWeek() == DayOfWeek.SUNDAY) {
+      next = next.plusDays(1).with(refreshTime);
+    }
+    return next.toInstant();
+  }
+
+  private synchronized void scheduleNextRefresh() {
+    if (executor.isShutdown()) {
+      return;
+    }
+    Instant now = clock.instant();
+    Instant next = nextRefreshAfter(now);
+    status.updateAndGet(current -> current.scheduled(next));
+    try {
+      nextRefresh = executor.schedule(() -> {
+        try {
+          refresh();
+        } finally {
+          scheduleNextRefresh();
+        }
+      }, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // the scheduler was stopped meanwhile
+    }
+  }
+
+  // refreshes the held stocks on the thread of the scheduler and tells the listeners about them
+  private RefreshStatus refresh() {
+    Set<String> tickers = new TreeSet<>(heldTickers.get());
+    status.updateAndGet(current -> current.started(tickers.size(), clock.instant()));
+    List<CompletableFuture<Void>> refreshes = new ArrayList<>();
+    for (String ticker : tickers) {
+      refreshes.add(hydrationService.hydrateAsync(ticker, priceStore).whenComplete(
+          (ignored, failure) -> status.updateAndGet(current -> current.completed(ticker,
+              failure == null ? null : messageOf(failure)))));
+    }
+    try {
+      CompletableFuture.allOf(refreshes.toArray(new CompletableFuture<?>[0])).join();
+    } catch (CompletionException e) {
+      // failures are recorded in the status by each refresh
+    }
+    RefreshStatus finished = status.updateAndGet(current -> current.finished(clock.instant()));
+    Set<String> refreshed = new TreeSet<>(tickers);
+    refreshed.removeAll(finished.getFailures().keySet());
+    for (Consumer<Set<String>> listener : listeners) {
+      try {
+        listener.accept(refreshed);
+      } catch (RuntimeException e) {
+        // a failing listener does not keep the others from being told
+      }
+    }
+    return finished;
+  }
+
+  private String messageOf(Throwable failure) {
+    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause() : failure;
+    return String.valueOf(cause.getMessage());
+  }
+}
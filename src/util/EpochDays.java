@@ -0,0 +1,109 @@
+package util;
+
+/**
+ * Converts dates in the 'yyyy-MM-dd' format used across the application to and from a count of
+ * days since 1970-01-01, so that price data can be stored and searched as primitive integers.
+ */
+public final class EpochDays {
+
+  private EpochDays() {
+  }
+
+  /**
+   * Converts a date string in the format 'yyyy-MM-dd' to days since epoch.
+   *
+   * @param date in the format 'yyyy-MM-dd'
+   * @return number of days since 1970-01-01
+   * @throws IllegalArgumentException if the date is not in the expected format or is not a valid
+   *                                  calendar date
+   */
+  public static int parse(String date) throws IllegalArgumentException {
+    if (date == null || date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+      throw new IllegalArgumentException("Date should be in the format yyyy-MM-dd: " + date);
+    }
+    int year = digits(date, 0, 4);
+    int month = digits(date, 5, 7);
+    int day = digits(date, 8, 10);
+    return of(year, month, day);
+  }
+
+  /**
+   * Converts a year, month and day to days since epoch.
+   *
+   * @param year  of the date
+   * @param month of the date from 1 to 12
+   * @param day   of the month
+   * @return number of days since 1970-01-01
+   * @throws IllegalArgumentException if the values do not form a valid calendar date
+   */
+  public static int of(int year, int month, int day) throws IllegalArgumentException {
+    if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+      throw new IllegalArgumentException(
+          "Invalid date: " + year + "-" + month + "-" + day);
+    }
+    int y = month <= 2 ? year - 1 : year;
+    int era = (y >= 0 ? y : y - 399) / 400;
+    int yearOfEra = y - era * 400;
+    int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+    int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097 + dayOfEra - 719468;
+  }
+
+  /**
+   * Converts days since epoch to a date string in the format 'yyyy-MM-dd'.
+   *
+   * @param epochDay number of days since 1970-01-01
+   * @return date in the format 'yyyy-MM-dd'
+   */
+  public static String format(int epochDay) {
+    int z = epochDay + 719468;
+    int era = (z >= 0 ? z : z - 146096) / 146097;
+    int dayOfEra = z - era * 146097;
+    int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    int mp = (5 * dayOfYear + 2) / 153;
+    int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+    int month = mp < 10 ? mp + 3 : mp - 9;
+    int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+    char[] chars = new char[10];
+    chars[0] = (char) ('0' + year / 1000 % 10);
+    chars[1] = (char) ('0' + year / 100 % 10);
+    chars[2] = (char) ('0' + year / 10 % 10);
+    chars[3] = (char) ('0' + year % 10);
+    chars[4] = '-';
+    chars[5] = (char) ('0' + month / 10);
+    chars[6] = (char) ('0' + month % 10);
+    chars[7] = '-';
+    chars[8] = (char) ('0' + day / 10);
+    chars[9] = (char) ('0' + day % 10);
+    return new String(chars);
+  }
+
+  private static int lengthOfMonth(int year, int month) {
+    switch (month) {
+      case 2:
+        boolean isLeap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+        return isLeap ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+
+  private static int digits(String s, int from, int to) {
+    int value = 0;
+    for (int i = from; i < to; i++) {
+      char c = s.charAt(i);
+      if (c < '0' || c > '9') {
+        throw new IllegalArgumentException("Date should be in the format yyyy-MM-dd: " + s);
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+}
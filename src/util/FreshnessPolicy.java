@@ -0,0 +1,130 @@
+package util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Decides for each saved price data file whether it can be reused as it is, needs only the latest
+ * days merged in, or has to be fetched again in full. Saved data is reused when it already holds
+ * the last completed trading day, or when it was fetched recently, which covers holidays and
+ * sources whose data ends in the past. Data from another price source is always fetched again.
+ */
+public final class FreshnessPolicy {
+
+  /**
+   * Time for which fetched data is reused by default, whatever its latest date.
+   */
+  public static final Duration DEFAULT_REUSE_WINDOW = Duration.ofHours(12);
+
+  /**
+   * Largest number of days a saved file may be behind to be refreshed by a delta, as the compact
+   * window of the latest trading days always spans more calendar days than that.
+   */
+  public static final int MAX_DELTA_GAP_DAYS = PriceSource.COMPACT_SIZE;
+
+  /**
+   * What is done with a saved price data file.
+   */
+  public enum Decision {
+    /**
+     * The saved data is used as it is.
+     */
+    REUSE,
+    /**
+     * The days after the saved data are fetched and merged in.
+     */
+    DELTA,
+    /**
+     * The whole history is fetched again.
+     */
+    REFETCH
+  }
+
+  private final Clock clock;
+  private final Duration reuseWindow;
+  private final boolean reuse;
+
+  /**
+   * Constructs a policy on the system clock that reuses data for
+   * {@link #DEFAULT_REUSE_WINDOW} after it was fetched.
+   */
+  public FreshnessPolicy() {
+    this(Clock.systemDefaultZone(), DEFAULT_REUSE_WINDOW);
+  }
+
+  /**
+   * Constructs a policy.
+   *
+   * @param clock       tells the current date and time
+   * @param reuseWindow time for which fetched data is reused whatever its latest date, zero to
+   *                    reuse data only when it holds the last completed trading day
+   * @throws IllegalArgumentException if the window is negative
+   */
+  public FreshnessPolicy(Clock clock, Duration reuseWindow) throws IllegalArgumentException {
+    this(clock, reuseWindow, true);
+  }
+
+  private FreshnessPolicy(Clock clock, Duration reuseWindow, boolean reuse) {
+    new ParamNullChecker().accept(new Object[]{clock, reuseWindow});
+    if (reuseWindow.isNegative()) {
+      throw new IllegalArgumentException("Reuse window cannot be negative!");
+    }
+    this.clock = clock;
+    this.reuseWindow = reuseWindow;
+    this.reuse = reuse;
+  }
+
+  /**
+   * Fetches a policy like this one that never reuses saved data, but at least merges in the days
+   * after it, such as for a refresh once the market has closed.
+   *
+   * @return policy deciding {@link Decision#DELTA} where this one decides {@link Decision#REUSE}
+   */
+  public FreshnessPolicy withoutReuse() {
+    return new FreshnessPolicy(clock, reuseWindow, false);
+  }
+
+  /**
+   * Fetches the current time of this policy.
+   *
+   * @return current time
+   */
+  public Instant now() {
+    return clock.instant();
+  }
+
+  /**
+   * Decides what is done with a saved price data file.
+   *
+   * @param latestSavedDate latest date in the saved file, or null if there is no valid file
+   * @param metadata        metadata saved with the file, or null if there is none
+   * @param source          name of the price source data would be fetched from now
+   * @return decision for the file
+   */
+  public Decision decide(String latestSavedDate, HydrationMetadata metadata, String source) {
+    if (latestSavedDate == null
+        || metadata != null && !metadata.getSource().equals(source)) {
+      return Decision.REFETCH;
+    }
+    int today = (int) LocalDate.now(clock).toEpochDay();
+    int latestSavedDay = EpochDays.parse(latestSavedDate);
+    // data without matching metadata is still trusted, but never reused as it is
+    if (reuse && metadata != null && metadata.getLastBarDate().equals(latestSavedDate)
+        && (latestSavedDay >= lastCompletedWeekday(today)
+        || Duration.between(metadata.getFetchedAt(), clock.instant()).compareTo(reuseWindow) < 0)) {
+      return Decision.REUSE;
+    }
+    return today - latestSavedDay <= MAX_DELTA_GAP_DAYS ? Decision.DELTA : Decision.REFETCH;
+  }
+
+  // the bar of the current day is only final once the day is over
+  private int lastCompletedWeekday(int today) {
+    int day = today - 1;
+    while (TradingCalendar.dayOfWeek(day) > 5) {
+      day--;
+    }
+    return day;
+  }
+}
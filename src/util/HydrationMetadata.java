@@ -0,0 +1,141 @@
+package util;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Properties;
+
+/**
+ * Represents the record kept next to a saved price data file about how the file was fetched: the
+ * latest date of its price data, the time of the fetch and the name of the {@link PriceSource} it
+ * was fetched from. The record is saved as a small properties file, so that saved price data can
+ * be kept across runs of the application and refreshed only when it has gone stale.
+ */
+public final class HydrationMetadata {
+
+  /**
+   * Extension of metadata files.
+   */
+  public static final String EXTENSION = ".meta";
+
+  private static final String LAST_BAR_DATE = "lastBarDate";
+  private static final String FETCHED_AT = "fetchedAt";
+  private static final String SOURCE = "source";
+
+  private final String lastBarDate;
+  private final Instant fetchedAt;
+  private final String source;
+
+  /**
+   * Constructs the metadata of a fetch.
+   *
+   * @param lastBarDate latest date of the fetched price data in the format 'yyyy-MM-dd'
+   * @param fetchedAt   time of the fetch
+   * @param source      name of the price source the data was fetched from
+   * @throws IllegalArgumentException if the date is not valid
+   */
+  public HydrationMetadata(String lastBarDate, Instant fetchedAt, String source)
+      throws IllegalArgumentException {
+    new ParamNullChecker().accept(new Object[]{lastBarDate, fetchedAt, source});
+    EpochDays.parse(lastBarDate);
+    this.lastBarDate = lastBarDate;
+    this.fetchedAt = fetchedAt;
+    this.source = source;
+  }
+
+  /**
+   * Fetches the latest date of the fetched price data.
+   *
+   * @return date in the format 'yyyy-MM-dd'
+   */
+  public String getLastBarDate() {
+    return lastBarDate;
+  }
+
+  /**
+   * Fetches the time of the fetch.
+   *
+   * @return time the price data was fetched
+   */
+  public Instant getFetchedAt() {
+    return fetchedAt;
+  }
+
+  /**
+   * Fetches the name of the price source the data was fetched from.
+   *
+   * @return name of the price source
+   */
+  public String getSource() {
+    return source;
+  }
+
+  /**
+   * Fetches the path of the metadata of a csv price data file.
+   *
+   * @param csvFilePath path of the csv file
+   * @return path of the metadata, which is the csv path with its extension replaced
+   */
+  public static String metadataPathOf(String csvFilePath) {
+    return CsvFileUtil.siblingPath(csvFilePath, EXTENSION);
+  }
+
+  /**
+   * Reads the metadata saved for a csv price data file.
+   *
+   * @param csvFilePath path of the csv file
+   * @return metadata of the file, or null if none is saved or it cannot be read
+   */
+  public static HydrationMetadata read(String csvFilePath) {
+    File metadataFile = new File(metadataPathOf(csvFilePath));
+    if (!metadataFile.isFile()) {
+      return null;
+    }
+    Properties properties = new Properties();
+    try (Reader reader = new FileReader(metadataFile)) {
+      properties.load(reader);
+      String fetchedAt = properties.getProperty(FETCHED_AT);
+      String lastBarDate = properties.getProperty(LAST_BAR_DATE);
+      String source = properties.getProperty(SOURCE);
+      if (fetchedAt == null || lastBarDate == null || source == null) {
+        return null;
+      }
+      return new HydrationMetadata(lastBarDate, Instant.parse(fetchedAt), source);
+    } catch (IOException | IllegalArgumentException | DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Saves this metadata for a csv price data file, replacing the metadata saved before.
+   *
+   * @param csvFilePath path of the csv file
+   * @throws IllegalArgumentException if the metadata cannot be written
+   */
+  public void write(String csvFilePath) throws IllegalArgumentException {
+    Properties properties = new Properties();
+    properties.setProperty(LAST_BAR_DATE, lastBarDate);
+    properties.setProperty(FETCHED_AT, fetchedAt.toString());
+    properties.setProperty(SOURCE, source);
+    Path metadataPath = Path.of(metadataPathOf(csvFilePath));
+    Path temporary = Path.of(metadataPath + ".tmp");
+    try {
+      try (Writer writer = new FileWriter(temporary.toFile())) {
+        properties.store(writer, null);
+      }
+      Files.move(temporary, metadataPath, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      new File(temporary.toString()).delete();
+      throw new IllegalArgumentException("Metadata could not be written for " + csvFilePath);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package util;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This interface hydrates the price histories of several stocks at once, so that loading a
+ * portfolio waits for the slowest fetch instead of the sum of all fetches.
+ */
+public interface HydrationService {
+
+  /**
+   * Starts fetching the price history of a stock into the price store.
+   *
+   * @param ticker     name of the stock
+   * @param priceStore price store which is hydrated
+   * @return future completed once the price history is in the store, or completed exceptionally
+   *         with the reason the fetch failed
+   */
+  CompletableFuture<Void> hydrateAsync(String ticker, PriceStore priceStore);
+
+  /**
+   * Fetches the price histories of the given stocks that are neither in the price store nor
+   * registered with it yet, and waits until every fetch has finished. Registered histories are not
+   * loaded.
+   *
+   * @param tickers    names of the stocks
+   * @param priceStore price store which is hydrated
+   * @return reason of the failure by name of each stock that could not be fetched, empty if every
+   *         stock is in the price store
+   */
+  Map<String, String> hydrateAll(Collection<String> tickers, PriceStore priceStore);
+}
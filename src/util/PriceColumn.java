@@ -0,0 +1,29 @@
+package util;
+
+/**
+ * This enumerated type represents the columns of daily price data provided by the API, along with
+ * their position in the csv files it returns.
+ */
+public enum PriceColumn {
+  OPEN(1),
+  HIGH(2),
+  LOW(3),
+  CLOSE(4),
+  VOLUME(5);
+
+  private final int csvColumn;
+
+  PriceColumn(int csvColumn) {
+    this.csvColumn = csvColumn;
+  }
+
+  /**
+   * Fetches the position of this column in a row of the csv price data file, where the date is at
+   * position 0.
+   *
+   * @return position of the column
+   */
+  public int getCsvColumn() {
+    return csvColumn;
+  }
+}
@@ -0,0 +1,486 @@
+package util;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Represents the price history of a single stock as parallel primitive columns, a sorted column of
+ * trading days counted as days since epoch and a column of closing prices on those days. Prices
+ * are looked up by binary search on the trading days. The other {@link PriceColumn}s of the API
+ * data can be attached through a loader and are then loaded one column at a time on first use.
+ *
+ * <p>A series can be aggregated by week, month or year into one point for each period that has a
+ * trading day. Each aggregate is built on first use and kept with the series, and a series that
+ * extends an older one only rebuilds the last periods of the aggregates built for the older one.
+ */
+public final class PriceSeries {
+
+  private static final int FRIDAY = 5;
+
+  private final int[] epochDays;
+  private final double[] closes;
+  private final Function<PriceColumn, double[]> columnLoader;
+  private final Set<PriceColumn> availableColumns;
+  private final AtomicReferenceArray<double[]> loadedColumns;
+  private final AtomicReferenceArray<PriceSeries> aggregates;
+  private TradingCalendar tradingCalendar;
+
+  /**
+   * Constructs a series from parallel columns of trading days and closing prices. The series takes
+   * ownership of the arrays, so they must not be modified afterwards.
+   *
+   * @param epochDays trading days as days since epoch sorted in strictly ascending order
+   * @param closes    closing price on each trading day
+   * @throws IllegalArgumentException if columns differ in length or days are not sorted
+   */
+  PriceSeries(int[] epochDays, double[] closes) throws IllegalArgumentException {
+    this(epochDays, closes, EnumSet.of(PriceColumn.CLOSE), column -> null);
+  }
+
+  /**
+   * Constructs a series from parallel columns of trading days and closing prices whose other
+   * columns are loaded on first use. The series takes ownership of the arrays, so they must not be
+   * modified afterwards.
+   *
+   * @param epochDays        trading days as days since epoch sorted in strictly ascending order
+   * @param closes           closing price on each trading day
+   * @param availableColumns columns that the loader can provide, besides the closing prices
+   * @param columnLoader     loads a column with one value for each trading day
+   * @throws IllegalArgumentException if columns differ in length or days are not sorted
+   */
+  PriceSeries(int[] epochDays, double[] closes, Set<PriceColumn> availableColumns,
+      Function<PriceColumn, double[]> columnLoader) throws IllegalArgumentException {
+    if (epochDays.length != closes.length) {
+      throw new IllegalArgumentException("Every trading day must have exactly one price!");
+    }
+    for (int i = 1; i < epochDays.length; i++) {
+      if (epochDays[i - 1] >= epochDays[i]) {
+        throw new IllegalArgumentException("Trading days must be sorted and unique!");
+      }
+    }
+    this.epochDays = epochDays;
+    this.closes = closes;
+    this.columnLoader = columnLoader;
+    this.availableColumns = EnumSet.of(PriceColumn.CLOSE);
+    this.availableColumns.addAll(availableColumns);
+    this.loadedColumns = new AtomicReferenceArray<>(PriceColumn.values().length);
+    this.loadedColumns.set(PriceColumn.CLOSE.ordinal(), closes);
+    this.aggregates = new AtomicReferenceArray<>(ApiPeriod.values().length);
+  }
+
+  /**
+   * Creates a series from parallel columns that are all held in memory. The series takes
+   * ownership of the arrays, so they must not be modified afterwards.
+   *
+   * @param epochDays trading days as days since epoch sorted in strictly ascending order
+   * @param columns   one array for each {@link PriceColumn} indexed by its ordinal, where columns
+   *                  that are not available are null; the closing prices must be present
+   * @return series holding the columns
+   * @throws IllegalArgumentException if closing prices are missing, columns differ in length or
+   *                                  days are not sorted
+   */
+  static PriceSeries ofColumns(int[] epochDays, double[][] columns)
+      throws IllegalArgumentException {
+    double[] closes = columns[PriceColumn.CLOSE.ordinal()];
+    if (closes == null) {
+      throw new IllegalArgumentException("Every trading day must have exactly one price!");
+    }
+    Set<PriceColumn> available = EnumSet.noneOf(PriceColumn.class);
+    for (PriceColumn column : PriceColumn.values()) {
+      if (columns[column.ordinal()] != null) {
+        available.add(column);
+      }
+    }
+    return new PriceSeries(epochDays, closes, available, column -> columns[column.ordinal()]);
+  }
+
+  /**
+   * Creates a series from a map of dates in the format 'yyyy-MM-dd' and closing prices.
+   *
+   * @param closesByDate map of date and closing price on that date
+   * @return series holding the same prices
+   * @throws IllegalArgumentException if any date is not in the format 'yyyy-MM-dd'
+   */
+  public static PriceSeries of(Map<String, Double> closesByDate) throws IllegalArgumentException {
+    Map<Integer, Double> sorted = new TreeMap<>();
+    for (Map.Entry<String, Double> entry : closesByDate.entrySet()) {
+      sorted.put(EpochDays.parse(entry.getKey()), entry.getValue());
+    }
+    int[] days = new int[sorted.size()];
+    double[] prices = new double[sorted.size()];
+    int i = 0;
+    for (Map.Entry<Integer, Double> entry : sorted.entrySet()) {
+      days[i] = entry.getKey();
+      prices[i] = entry.getValue();
+      i++;
+    }
+    return new PriceSeries(days, prices);
+  }
+
+  /**
+   * Fetches the number of trading days in this series.
+   *
+   * @return number of trading days
+   */
+  public int size() {
+    return epochDays.length;
+  }
+
+  /**
+   * Searches the position of a trading day in this series.
+   *
+   * @param epochDay day since epoch to search
+   * @return position of the day if present, otherwise a negative value as returned by
+   *         {@link Arrays#binarySearch(int[], int)}
+   */
+  public int indexOf(int epochDay) {
+    return Arrays.binarySearch(epochDays, epochDay);
+  }
+
+  /**
+   * Searches the position of the last trading day on or before the given day.
+   *
+   * @param epochDay day since epoch to search
+   * @return position of the last trading day on or before the day, or -1 if every trading day in
+   *         this series is after it
+   */
+  public int floorIndex(int epochDay) {
+    int index = Arrays.binarySearch(epochDays, epochDay);
+    return index >= 0 ? index : -index - 2;
+  }
+
+  /**
+   * Checks if this series has a price on the given day.
+   *
+   * @param epochDay day since epoch
+   * @return true if a price is present on the day, false otherwise
+   */
+  public boolean containsDay(int epochDay) {
+    return indexOf(epochDay) >= 0;
+  }
+
+  /**
+   * Fetches the trading day at a position in this series.
+   *
+   * @param index position in the series
+   * @return trading day as days since epoch
+   */
+  public int getEpochDay(int index) {
+    return epochDays[index];
+  }
+
+  /**
+   * Fetches the closing price at a position in this series.
+   *
+   * @param index position in the series
+   * @return closing price
+   */
+  public double getClose(int index) {
+    return closes[index];
+  }
+
+  /**
+   * Checks if a column of price data is available for this series.
+   *
+   * @param column of price data
+   * @return true if the column can be read, false otherwise
+   */
+  public boolean hasColumn(PriceColumn column) {
+    return availableColumns.contains(column);
+  }
+
+  /**
+   * Fetches a value of a column at a position in this series. The column is loaded on the first
+   * call and kept afterwards.
+   *
+   * @param column of price data
+   * @param index  position in the series
+   * @return value of the column on the trading day at the position
+   * @throws IllegalArgumentException if the column is not available for this series
+   */
+  public double getValue(PriceColumn column, int index) throws IllegalArgumentException {
+    return column(column)[index];
+  }
+
+  /**
+   * Checks if a column has been loaded into memory.
+   *
+   * @param column of price data
+   * @return true if the column is held in memory, false otherwise
+   */
+  boolean isColumnLoaded(PriceColumn column) {
+    return loadedColumns.get(column.ordinal()) != null;
+  }
+
+  /**
+   * Creates a series made of the trading days of this series followed by the trading days of a
+   * newer series. Only the columns available in both series are kept and every kept column is
+   * held in memory.
+   *
+   * @param newer series whose trading days all come after the last trading day of this series
+   * @return series holding the trading days of both series
+   * @throws IllegalArgumentException if the newer series starts on or before the last trading day
+   *                                  of this series
+   */
+  public PriceSeries appendedWith(PriceSeries newer) throws IllegalArgumentException {
+    if (newer.size() == 0) {
+      return this;
+    }
+    if (size() > 0 && newer.getEpochDay(0) <= getEpochDay(size() - 1)) {
+      throw new IllegalArgumentException("Trading days must be sorted and unique!");
+    }
+    int size = size() + newer.size();
+    int[] days = Arrays.copyOf(epochDays, size);
+    System.arraycopy(newer.epochDays, 0, days, size(), newer.size());
+    double[][] columns = new double[PriceColumn.values().length][];
+    for (PriceColumn column : PriceColumn.values()) {
+      if (hasColumn(column) && newer.hasColumn(column)) {
+        double[] values = Arrays.copyOf(column(column), size);
+        System.arraycopy(newer.column(column), 0, values, size(), newer.size());
+        columns[column.ordinal()] = values;
+      }
+    }
+    PriceSeries appended = ofColumns(days, columns);
+    // the appended series holds the days of this one as they are, so nothing needs comparing
+    appended.carryAggregatesOf(this);
+    return appended;
+  }
+
+  /**
+   * Fetches this series aggregated by a period, with one point for each week ending on a Friday,
+   * month or year that has a trading day. A point is dated on the last trading day of its period
+   * and holds the closing price of that day, along with the opening price of the first day, the
+   * highest and lowest prices and the total volume of the period where this series has them. So
+   * the close of a period is looked up with {@link #floorIndex(int)} on the aggregate just as on
+   * the daily series, as long as the asked day is the end of a period.
+   *
+   * @param period WEEKLY, MONTHLY or YEARLY, DAILY gives this series
+   * @return aggregated series, built on first use and reused afterwards
+   */
+  public PriceSeries getAggregated(ApiPeriod period) {
+    if (period == ApiPeriod.DAILY) {
+      return this;
+    }
+    PriceSeries aggregate = aggregates.get(period.ordinal());
+    if (aggregate == null) {
+      aggregate = aggregate(period, 0);
+      aggregates.compareAndSet(period.ordinal(), null, aggregate);
+      aggregate = aggregates.get(period.ordinal());
+    }
+    return aggregate;
+  }
+
+  /**
+   * Checks if the aggregate of this series by a period has been built.
+   *
+   * @param period WEEKLY, MONTHLY or YEARLY
+   * @return true if the aggregate is held in memory, false otherwise
+   */
+  boolean isAggregateBuilt(ApiPeriod period) {
+    return aggregates.get(period.ordinal()) != null;
+  }
+
+  /**
+   * Extends the aggregates already built for an older series of the same stock to this series, if
+   * this series holds the same trading days and prices as every day of the older one, such as
+   * once new days have been merged into the saved data of the stock. A series whose earlier days
+   * were fetched again with other prices, such as after a split, builds its aggregates anew. Only
+   * the periods from the last one of each aggregate onwards are aggregated again.
+   *
+   * @param older series this one may extend
+   */
+  void extendAggregatesOf(PriceSeries older) {
+    if (older != this && older.hasAggregates() && startsWith(older)) {
+      carryAggregatesOf(older);
+    }
+  }
+
+  private boolean hasAggregates() {
+    for (int i = 0; i < aggregates.length(); i++) {
+      if (aggregates.get(i) != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // checks that this series holds every day of an older one with the same values in each column
+  // the older one has loaded, since those are the columns its aggregates were built from
+  private boolean startsWith(PriceSeries older) {
+    int size = older.size();
+    if (size == 0 || size() < size
+        || !Arrays.equals(epochDays, 0, size, older.epochDays, 0, size)) {
+      return false;
+    }
+    try {
+      for (PriceColumn column : PriceColumn.values()) {
+        double[] olderValues = older.loadedColumns.get(column.ordinal());
+        if (olderValues != null && (!hasColumn(column)
+            || !Arrays.equals(column(column), 0, size, olderValues, 0, size))) {
+          return false;
+        }
+      }
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    return true;
+  }
+
+  // extends the aggregates of an older series this one is known to start with
+  private void carryAggregatesOf(PriceSeries older) {
+    for (ApiPeriod period : ApiPeriod.values()) {
+      PriceSeries olderAggregate = older.aggregates.get(period.ordinal());
+      if (olderAggregate == null || olderAggregate.size() == 0) {
+        continue;
+      }
+      // the last period of the older series may have gained trading days
+      int keptPoints = olderAggregate.size() - 1;
+      int from = keptPoints == 0 ? 0 : floorIndex(olderAggregate.getEpochDay(keptPoints - 1)) + 1;
+      PriceSeries aggregate;
+      try {
+        aggregate = olderAggregate.prefix(keptPoints).appendedWith(aggregate(period, from));
+      } catch (IllegalArgumentException e) {
+        // the columns of the older aggregate do not match, it is built again on first use
+        continue;
+      }
+      aggregates.compareAndSet(period.ordinal(), null, aggregate);
+    }
+  }
+
+  // aggregates the trading days from the given position, which starts a period, onwards
+  private PriceSeries aggregate(ApiPeriod period, int from) {
+    PriceColumn[] columns = PriceColumn.values();
+    double[][] values = new double[columns.length][];
+    for (PriceColumn column : columns) {
+      if (hasColumn(column)) {
+        values[column.ordinal()] = column(column);
+      }
+    }
+    int[] days = new int[size() - from];
+    double[][] aggregated = new double[columns.length][];
+    for (PriceColumn column : columns) {
+      if (values[column.ordinal()] != null) {
+        aggregated[column.ordinal()] = new double[days.length];
+      }
+    }
+    int points = -1;
+    int periodEnd = Integer.MIN_VALUE;
+    for (int i = from; i < size(); i++) {
+      boolean first = epochDays[i] > periodEnd;
+      if (first) {
+        periodEnd = periodEnd(period, epochDays[i]);
+        points++;
+      }
+      days[points] = epochDays[i];
+      for (PriceColumn column : columns) {
+        double[] source = values[column.ordinal()];
+        if (source == null) {
+          continue;
+        }
+        double[] target = aggregated[column.ordinal()];
+        double value = source[i];
+        if (column == PriceColumn.HIGH && !first) {
+          target[points] = Math.max(target[points], value);
+        } else if (column == PriceColumn.LOW && !first) {
+          target[points] = Math.min(target[points], value);
+        } else if (column == PriceColumn.VOLUME && !first) {
+          target[points] += value;
+        } else if (column != PriceColumn.OPEN || first) {
+          target[points] = value;
+        }
+      }
+    }
+    int size = points + 1;
+    for (PriceColumn column : columns) {
+      if (aggregated[column.ordinal()] != null) {
+        aggregated[column.ordinal()] = Arrays.copyOf(aggregated[column.ordinal()], size);
+      }
+    }
+    return ofColumns(Arrays.copyOf(days, size), aggregated);
+  }
+
+  // last day of the week ending on a Friday, month or year containing the given day
+  private static int periodEnd(ApiPeriod period, int epochDay) {
+    if (period == ApiPeriod.WEEKLY) {
+      return epochDay + Math.floorMod(FRIDAY - TradingCalendar.dayOfWeek(epochDay), 7);
+    }
+    LocalDate date = LocalDate.ofEpochDay(epochDay);
+    LocalDate end = period == ApiPeriod.MONTHLY ? date.withDayOfMonth(date.lengthOfMonth())
+        : date.withDayOfYear(date.lengthOfYear());
+    return (int) end.toEpochDay();
+  }
+
+  // series holding the given number of first trading days of this series
+  private PriceSeries prefix(int size) {
+    double[][] columns = new double[PriceColumn.values().length][];
+    for (PriceColumn column : PriceColumn.values()) {
+      if (hasColumn(column)) {
+        columns[column.ordinal()] = Arrays.copyOf(column(column), size);
+      }
+    }
+    return ofColumns(Arrays.copyOf(epochDays, size), columns);
+  }
+
+  /**
+   * Estimates the memory held by the columns of this series that are loaded, along with its
+   * trading calendar and aggregates if they have been built.
+   *
+   * @return size of the loaded data in bytes
+   */
+  public long getMemoryFootprint() {
+    long bytes = (long) epochDays.length * Integer.BYTES;
+    for (int i = 0; i < loadedColumns.length(); i++) {
+      if (loadedColumns.get(i) != null) {
+        bytes += (long) epochDays.length * Double.BYTES;
+      }
+    }
+    TradingCalendar calendar = tradingCalendar;
+    if (calendar != null) {
+      bytes += calendar.getMemoryFootprint();
+    }
+    for (int i = 0; i < aggregates.length(); i++) {
+      PriceSeries aggregate = aggregates.get(i);
+      if (aggregate != null) {
+        bytes += aggregate.getMemoryFootprint();
+      }
+    }
+    return bytes;
+  }
+
+  private double[] column(PriceColumn column) throws IllegalArgumentException {
+    double[] values = loadedColumns.get(column.ordinal());
+    if (values != null) {
+      return values;
+    }
+    if (!hasColumn(column)) {
+      throw new IllegalArgumentException("Price data does not have the column " + column);
+    }
+    values = columnLoader.apply(column);
+    if (values == null || values.length != epochDays.length) {
+      throw new IllegalArgumentException("Every trading day must have exactly one price!");
+    }
+    loadedColumns.compareAndSet(column.ordinal(), null, values);
+    return loadedColumns.get(column.ordinal());
+  }
+
+  /**
+   * Fetches the trading calendar of this series. The calendar is built on first use and reused
+   * afterwards since the series never changes.
+   *
+   * @return trading calendar made of the trading days of this series
+   */
+  public TradingCalendar getTradingCalendar() {
+    TradingCalendar calendar = tradingCalendar;
+    if (calendar == null) {
+      calendar = new TradingCalendar(epochDays);
+      tradingCalendar = calendar;
+    }
+    return calendar;
+  }
+}
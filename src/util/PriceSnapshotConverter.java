@@ -0,0 +1,64 @@
+package util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Regenerates the binary snapshots of the csv price data files in a directory whose snapshots are
+ * missing or older than their csv files. It can be run on its own with the directories to convert
+ * as arguments, e.g. after new price data has been copied into the cache directory.
+ */
+public final class PriceSnapshotConverter {
+
+  private PriceSnapshotConverter() {
+  }
+
+  /**
+   * Regenerates the stale snapshots of the given directories, or of 'res/stock_value_data_cache/'
+   * when no directory is given.
+   *
+   * @param args directories holding csv price data files
+   */
+  public static void main(String[] args) {
+    String[] directories = args.length == 0 ? new String[]{"res/stock_value_data_cache/"} : args;
+    for (String directory : directories) {
+      int converted = convertStale(directory);
+      System.out.println(directory + ": " + converted + " snapshot(s) regenerated");
+    }
+  }
+
+  /**
+   * Regenerates the snapshots of all csv price data files in a directory that are missing or stale.
+   * Files are parsed in parallel and files that cannot be parsed are skipped.
+   *
+   * @param directory holding csv price data files
+   * @return number of snapshots written
+   */
+  public static int convertStale(String directory) {
+    File[] files = new File(directory).listFiles();
+    if (files == null) {
+      return 0;
+    }
+    List<String> stalePaths = new ArrayList<>();
+    for (File file : files) {
+      String path = file.getPath();
+      if (file.isFile() && path.endsWith(".csv") && !PriceSnapshotFile.isFresh(path)) {
+        stalePaths.add(path);
+      }
+    }
+    // files that are not price data files or are faulty are left to the csv fallback
+    int converted = 0;
+    for (Map.Entry<String, PriceSeries> parsed
+        : new CsvPriceReader().readAll(stalePaths).entrySet()) {
+      try {
+        PriceSnapshotFile.write(parsed.getKey(), parsed.getValue());
+        converted++;
+      } catch (IllegalArgumentException e) {
+        // the snapshot is written again on the next conversion
+      }
+    }
+    return converted;
+  }
+}
@@ -0,0 +1,205 @@
+package util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Reads and writes binary snapshots of price data files. A snapshot is written next to the csv file
+ * it was generated from and holds a fixed header followed by the column of trading days as days
+ * since epoch and one column for each available {@link PriceColumn}, so that it can be memory
+ * mapped and copied into a {@link PriceSeries} without parsing any text. Only the trading days and
+ * closing prices are copied when a snapshot is read, other columns are copied from the mapping when
+ * they are first used. The header records the size and modification time of the csv file, which
+ * tells when the snapshot has gone stale.
+ *
+ * <p>Layout, little endian: magic, version, csv size, csv modification time, number of days,
+ * bit mask of available columns by ordinal, days as ints, padding to 8 bytes, then each available
+ * column as doubles in ordinal order.
+ */
+public final class PriceSnapshotFile {
+
+  /**
+   * Extension of snapshot files.
+   */
+  public static final String EXTENSION = ".snap";
+
+  private static final int MAGIC = 0x50534e50;
+  private static final int VERSION = 2;
+  private static final int HEADER_SIZE = 32;
+
+  private PriceSnapshotFile() {
+  }
+
+  /**
+   * Fetches the path of the snapshot of a csv price data file.
+   *
+   * @param csvFilePath path of the csv file
+   * @return path of the snapshot, which is the csv path with its extension replaced
+   */
+  public static String snapshotPathOf(String csvFilePath) {
+    return CsvFileUtil.siblingPath(csvFilePath, EXTENSION);
+  }
+
+  /**
+   * Checks if a snapshot exists and was generated from the current content of its csv file.
+   *
+   * @param csvFilePath path of the csv file
+   * @return true if the snapshot can be used in place of the csv file, false otherwise
+   */
+  public static boolean isFresh(String csvFilePath) {
+    File csv = new File(csvFilePath);
+    File snapshot = new File(snapshotPathOf(csvFilePath));
+    if (!csv.isFile() || !snapshot.isFile() || snapshot.length() < HEADER_SIZE) {
+      return false;
+    }
+    try (FileChannel channel = FileChannel.open(snapshot.toPath(), StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+      while (header.hasRemaining() && channel.read(header) >= 0) {
+        // keep reading until the header is complete
+      }
+      header.flip();
+      return header.remaining() == HEADER_SIZE
+          && header.getInt() == MAGIC
+          && header.getInt() == VERSION
+          && header.getLong() == csv.length()
+          && header.getLong() == csv.lastModified();
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Reads the price history stored in the snapshot of a csv file by memory mapping it.
+   *
+   * @param csvFilePath path of the csv file whose snapshot is read
+   * @return price history stored in the snapshot
+   * @throws IllegalArgumentException if the snapshot cannot be read or is corrupt
+   */
+  public static PriceSeries read(String csvFilePath) throws IllegalArgumentException {
+    Path snapshot = Path.of(snapshotPathOf(csvFilePath));
+    try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < HEADER_SIZE) {
+        throw new IllegalArgumentException("Snapshot file is faulty!");
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+        throw new IllegalArgumentException("Snapshot file is faulty!");
+      }
+      int count = buffer.getInt(24);
+      Set<PriceColumn> columns = columnsOf(buffer.getInt(28));
+      if (count < 0 || !columns.contains(PriceColumn.CLOSE)
+          || columnOffset(count, columns, null) != size) {
+        throw new IllegalArgumentException("Snapshot file is faulty!");
+      }
+      int[] epochDays = new int[count];
+      buffer.position(HEADER_SIZE);
+      buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(epochDays);
+      double[] closes = copyColumn(buffer, count, columns, PriceColumn.CLOSE);
+      return new PriceSeries(epochDays, closes, columns,
+          column -> copyColumn(buffer, count, columns, column));
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Snapshot file could not be read!");
+    }
+  }
+
+  /**
+   * Writes the snapshot of a csv file with every column available in the price history. The
+   * snapshot is first written to a temporary file and then moved in place, so a reader never sees
+   * a partly written snapshot.
+   *
+   * @param csvFilePath path of the csv file the price history was read from
+   * @param series      price history read from the csv file
+   * @throws IllegalArgumentException if the snapshot cannot be written
+   */
+  public static void write(String csvFilePath, PriceSeries series)
+      throws IllegalArgumentException {
+    File csv = new File(csvFilePath);
+    int count = series.size();
+    Set<PriceColumn> columns = EnumSet.noneOf(PriceColumn.class);
+    int mask = 0;
+    for (PriceColumn column : PriceColumn.values()) {
+      if (series.hasColumn(column)) {
+        columns.add(column);
+        mask |= 1 << column.ordinal();
+      }
+    }
+    ByteBuffer buffer = ByteBuffer.allocate((int) columnOffset(count, columns, null))
+        .order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(MAGIC).putInt(VERSION).putLong(csv.length()).putLong(csv.lastModified())
+        .putInt(count).putInt(mask);
+    for (int i = 0; i < count; i++) {
+      buffer.putInt(series.getEpochDay(i));
+    }
+    for (PriceColumn column : columns) {
+      buffer.position((int) columnOffset(count, columns, column));
+      for (int i = 0; i < count; i++) {
+        buffer.putDouble(series.getValue(column, i));
+      }
+    }
+    buffer.position(buffer.capacity());
+    buffer.flip();
+
+    Path snapshot = Path.of(snapshotPathOf(csvFilePath));
+    Path temporary = Path.of(snapshot + ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+      Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      try {
+        Files.deleteIfExists(temporary);
+      } catch (IOException ignored) {
+        // nothing more can be done about a temporary file that cannot be removed
+      }
+      throw new IllegalArgumentException("Snapshot file could not be written!");
+    }
+  }
+
+  private static Set<PriceColumn> columnsOf(int mask) {
+    Set<PriceColumn> columns = EnumSet.noneOf(PriceColumn.class);
+    for (PriceColumn column : PriceColumn.values()) {
+      if ((mask & (1 << column.ordinal())) != 0) {
+        columns.add(column);
+      }
+    }
+    return columns;
+  }
+
+  private static double[] copyColumn(ByteBuffer buffer, int count, Set<PriceColumn> columns,
+      PriceColumn column) {
+    double[] values = new double[count];
+    ByteBuffer view = buffer.duplicate();
+    view.position((int) columnOffset(count, columns, column));
+    view.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(values);
+    return values;
+  }
+
+  // start of a column in a snapshot, or the size of the snapshot when column is null
+  private static long columnOffset(int count, Set<PriceColumn> columns, PriceColumn column) {
+    long offset = (HEADER_SIZE + (long) count * Integer.BYTES + 7) / 8 * 8;
+    for (PriceColumn present : columns) {
+      if (present == column) {
+        return offset;
+      }
+      offset += (long) count * Double.BYTES;
+    }
+    return offset;
+  }
+}
@@ -0,0 +1,38 @@
+package util;
+
+import java.io.InputStream;
+
+/**
+ * This interface represents a source of historical price data that a {@link DataHydrator} saves
+ * and parses. Every source answers in the csv layout of the AlphaVantage API, that is a header line
+ * followed by rows of 'timestamp,open,high,low,close,volume' with the latest date first, so that
+ * the data of any source can be saved and read the same way.
+ */
+public interface PriceSource {
+
+  /**
+   * Number of latest trading days answered for a compact request.
+   */
+  int COMPACT_SIZE = 100;
+
+  /**
+   * Fetches the name of this source, which tells apart data saved from different sources.
+   *
+   * @return name of the source, equal for sources that answer the same price data
+   */
+  String getName();
+
+  /**
+   * Opens the price data of a stock. A source may answer an error message instead of price data,
+   * which the caller detects by the missing header of price data.
+   *
+   * @param stockName name of the stock
+   * @param period    DAILY, WEEKLY or MONTHLY data of the stock
+   * @param compact   true to ask for only the latest {@value #COMPACT_SIZE} trading days, false
+   *                  for the whole history
+   * @return stream of the price data, which the caller closes
+   * @throws IllegalArgumentException if the price data cannot be opened
+   */
+  InputStream open(String stockName, ApiPeriod period, boolean compact)
+      throws IllegalArgumentException;
+}
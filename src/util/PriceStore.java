@@ -0,0 +1,191 @@
+package util;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * This interface represents a store of price histories of stocks on a range of dates that is used
+ * to value portfolios.
+ */
+public interface PriceStore {
+
+  /**
+   * Checks if price history of a stock is present in the store.
+   *
+   * @param ticker name of the stock
+   * @return true if price history is present, false otherwise
+   */
+  boolean containsTicker(String ticker);
+
+  /**
+   * Checks if price history of a stock is present in the store.
+   *
+   * @param tickerId id of the stock as assigned by {@link TickerSymbols}
+   * @return true if price history is present, false otherwise
+   */
+  boolean containsTicker(int tickerId);
+
+  /**
+   * Checks if price history of a stock is present in the store or registered with a loader,
+   * without loading it. A registered history that later fails to load is then no longer counted.
+   *
+   * @param ticker name of the stock
+   * @return true if price history is present or registered, false otherwise
+   */
+  boolean isRegistered(String ticker);
+
+  /**
+   * Fetches the price history of a stock.
+   *
+   * @param ticker name of the stock
+   * @return price history of the stock
+   * @throws IllegalArgumentException if price history of the stock is not present
+   */
+  PriceSeries getSeries(String ticker) throws IllegalArgumentException;
+
+  /**
+   * Fetches the price history of a stock.
+   *
+   * @param tickerId id of the stock as assigned by {@link TickerSymbols}
+   * @return price history of the stock
+   * @throws IllegalArgumentException if price history of the stock is not present
+   */
+  PriceSeries getSeries(int tickerId) throws IllegalArgumentException;
+
+  /**
+   * Stores the price history of a stock replacing any previous history for it.
+   *
+   * @param ticker name of the stock
+   * @param series price history of the stock
+   */
+  void putSeries(String ticker, PriceSeries series);
+
+  /**
+   * Registers where the price history of a stock can be loaded from without loading it. The
+   * history is loaded on first access and the stock counts as present in the store meanwhile. If
+   * loading fails, the stock is treated as not present.
+   *
+   * @param ticker name of the stock
+   * @param loader loads the price history of the stock
+   */
+  void registerLoader(String ticker, Supplier<PriceSeries> loader);
+
+  /**
+   * Loads the price histories of the given stocks in the background, so that the first access to
+   * them does not wait for loading. Stocks that are already loaded or unknown are skipped.
+   *
+   * @param tickers names of the stocks
+   */
+  void prefetch(Collection<String> tickers);
+
+  /**
+   * Removes the price history of a stock from the store.
+   *
+   * @param ticker name of the stock
+   */
+  void removeSeries(String ticker);
+
+  /**
+   * Fetches the names of all stocks whose price history is present in the store.
+   *
+   * @return set of stock names
+   */
+  Set<String> getTickers();
+
+  /**
+   * Checks if price of a stock is present on the exact given date.
+   *
+   * @param ticker name of the stock
+   * @param date   in the format 'yyyy-MM-dd'
+   * @return true if price is present on the date, false otherwise
+   */
+  boolean hasPriceOnDate(String ticker, String date);
+
+  /**
+   * Fetches the price of a stock on the exact given date.
+   *
+   * @param ticker name of the stock
+   * @param date   in the format 'yyyy-MM-dd'
+   * @return closing price of the stock on the date
+   * @throws IllegalArgumentException if the stock or its price on the date is not present
+   */
+  double getPriceOnDate(String ticker, String date) throws IllegalArgumentException;
+
+  /**
+   * Fetches the last closing price of a stock on or before the given date. A price older than
+   * {@link #getMaxStalenessDays()} days from the date is not used.
+   *
+   * @param ticker name of the stock
+   * @param date   in the format 'yyyy-MM-dd'
+   * @return closing price of the stock on the last trading day on or before the date
+   * @throws IllegalArgumentException if the stock is not present or has no price within the
+   *                                  staleness limit before the date
+   */
+  double getPriceAsOf(String ticker, String date) throws IllegalArgumentException;
+
+  /**
+   * Fetches the last closing price of a stock on or before the given day. A price older than
+   * {@link #getMaxStalenessDays()} days from the day is not used.
+   *
+   * @param tickerId id of the stock as assigned by {@link TickerSymbols}
+   * @param epochDay day since epoch
+   * @return closing price of the stock on the last trading day on or before the day
+   * @throws IllegalArgumentException if the stock is not present or has no price within the
+   *                                  staleness limit before the day
+   */
+  double getPriceAsOf(int tickerId, int epochDay) throws IllegalArgumentException;
+
+  /**
+   * Fetches the closing price of a stock at the end of a week ending on a Friday, month or year,
+   * looked up in the series of the stock aggregated by that period, so that only one point per
+   * period is searched. For the end of a period, this is the price given by
+   * {@link #getPriceAsOf(int, int)}, with the same staleness limit.
+   *
+   * @param tickerId id of the stock as assigned by {@link TickerSymbols}
+   * @param epochDay last day of a period as days since epoch
+   * @param period   WEEKLY, MONTHLY or YEARLY
+   * @return closing price of the stock on the last trading day on or before the day
+   * @throws IllegalArgumentException if the stock is not present or has no price within the
+   *                                  staleness limit before the day
+   */
+  double getPeriodEndPrice(int tickerId, int epochDay, ApiPeriod period)
+      throws IllegalArgumentException;
+
+  /**
+   * Fetches the number of days, counting the asked date, within which a price must be found for
+   * {@link #getPriceAsOf(String, String)}.
+   *
+   * @return staleness limit in days
+   */
+  int getMaxStalenessDays();
+
+  /**
+   * Fetches the number of accesses that found the price history of a stock already loaded.
+   *
+   * @return number of cache hits
+   */
+  long getHitCount();
+
+  /**
+   * Fetches the number of accesses that had to load the price history of a stock, either for the
+   * first time or again after it was evicted.
+   *
+   * @return number of cache misses
+   */
+  long getMissCount();
+
+  /**
+   * Fetches the number of price histories that were released to stay within the memory budget.
+   *
+   * @return number of evictions
+   */
+  long getEvictionCount();
+
+  /**
+   * Fetches the estimated memory held by the price histories currently loaded.
+   *
+   * @return memory in bytes
+   */
+  long getMemoryUsage();
+}
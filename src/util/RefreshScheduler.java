@@ -0,0 +1,49 @@
+package util;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * This interface refreshes the price histories of held stocks in the background, so that a long
+ * running session does not value portfolios with prices of the day it was started.
+ */
+public interface RefreshScheduler {
+
+  /**
+   * Starts refreshing on the schedule of this scheduler. Starting a started scheduler does nothing.
+   *
+   * @throws IllegalStateException if the scheduler was stopped
+   */
+  void start() throws IllegalStateException;
+
+  /**
+   * Stops refreshing. A running refresh still finishes, but no refresh starts afterwards and the
+   * scheduler cannot be started again.
+   */
+  void stop();
+
+  /**
+   * Refreshes the held stocks now, off the calling thread. Refreshes never overlap, one that is
+   * asked for while another runs starts once it has finished.
+   *
+   * @return future completed with the status once the refresh has finished
+   * @throws IllegalStateException if the scheduler was stopped
+   */
+  CompletableFuture<RefreshStatus> refreshNow() throws IllegalStateException;
+
+  /**
+   * Fetches the progress of the running or last refresh.
+   *
+   * @return current status
+   */
+  RefreshStatus getStatus();
+
+  /**
+   * Adds a listener told about the stocks refreshed by each refresh once it has finished, so that
+   * anything derived from their previous price histories can be invalidated.
+   *
+   * @param listener accepts the names of the refreshed stocks
+   */
+  void addRefreshListener(Consumer<Set<String>> listener);
+}
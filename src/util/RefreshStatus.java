@@ -0,0 +1,159 @@
+package util;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Represents a snapshot of the progress of a {@link RefreshScheduler}, which views can poll to
+ * show when prices were last refreshed and which stocks could not be refreshed. A snapshot never
+ * changes, the scheduler publishes a new one as its refresh makes progress.
+ */
+public final class RefreshStatus {
+
+  /**
+   * What a scheduler is doing.
+   */
+  public enum State {
+    /**
+     * No refresh is running.
+     */
+    IDLE,
+    /**
+     * A refresh is running.
+     */
+    RUNNING
+  }
+
+  private final State state;
+  private final int tickerCount;
+  private final int completedCount;
+  private final Map<String, String> failures;
+  private final Instant lastStarted;
+  private final Instant lastFinished;
+  private final Instant nextRun;
+
+  private RefreshStatus(State state, int tickerCount, int completedCount,
+      Map<String, String> failures, Instant lastStarted, Instant lastFinished, Instant nextRun) {
+    this.state = state;
+    this.tickerCount = tickerCount;
+    this.completedCount = completedCount;
+    this.failures = failures;
+    this.lastStarted = lastStarted;
+    this.lastFinished = lastFinished;
+    this.nextRun = nextRun;
+  }
+
+  /**
+   * Fetches the status of a scheduler that has not refreshed anything yet.
+   *
+   * @return idle status without any refresh
+   */
+  static RefreshStatus initial() {
+    return new RefreshStatus(State.IDLE, 0, 0, Collections.emptyMap(), null, null, null);
+  }
+
+  // status of a refresh of the given number of stocks starting at the given time
+  RefreshStatus started(int tickers, Instant startedAt) {
+    return new RefreshStatus(State.RUNNING, tickers, 0, Collections.emptyMap(), startedAt,
+        lastFinished, nextRun);
+  }
+
+  // status after one more stock was refreshed, or failed with the given reason if not null
+  RefreshStatus completed(String ticker, String failure) {
+    Map<String, String> updatedFailures = failures;
+    if (failure != null) {
+      updatedFailures = new TreeMap<>(failures);
+      updatedFailures.put(ticker, failure);
+      updatedFailures = Collections.unmodifiableMap(updatedFailures);
+    }
+    return new RefreshStatus(state, tickerCount, completedCount + 1, updatedFailures, lastStarted,
+        lastFinished, nextRun);
+  }
+
+  // status once the running refresh has finished at the given time
+  RefreshStatus finished(Instant finishedAt) {
+    return new RefreshStatus(State.IDLE, tickerCount, completedCount, failures, lastStarted,
+        finishedAt, nextRun);
+  }
+
+  // status with the time of the next scheduled refresh, or null if none is scheduled
+  RefreshStatus scheduled(Instant next) {
+    return new RefreshStatus(state, tickerCount, completedCount, failures, lastStarted,
+        lastFinished, next);
+  }
+
+  /**
+   * Fetches what the scheduler is doing.
+   *
+   * @return state of the scheduler
+   */
+  public State getState() {
+    return state;
+  }
+
+  /**
+   * Fetches the number of stocks of the running or last refresh.
+   *
+   * @return number of stocks being or last refreshed
+   */
+  public int getTickerCount() {
+    return tickerCount;
+  }
+
+  /**
+   * Fetches the number of stocks the running or last refresh is done with, whether they were
+   * refreshed or failed.
+   *
+   * @return number of stocks done with
+   */
+  public int getCompletedCount() {
+    return completedCount;
+  }
+
+  /**
+   * Fetches the stocks that could not be refreshed by the running or last refresh.
+   *
+   * @return reason of the failure by name of each stock that could not be refreshed
+   */
+  public Map<String, String> getFailures() {
+    return failures;
+  }
+
+  /**
+   * Fetches the time the running or last refresh started.
+   *
+   * @return start of the refresh, or null if no refresh has started yet
+   */
+  public Instant getLastStarted() {
+    return lastStarted;
+  }
+
+  /**
+   * Fetches the time the last refresh finished.
+   *
+   * @return end of the refresh, or null if no refresh has finished yet
+   */
+  public Instant getLastFinished() {
+    return lastFinished;
+  }
+
+  /**
+   * Fetches the time of the next scheduled refresh.
+   *
+   * @return time of the next refresh, or null if none is scheduled
+   */
+  public Instant getNextRun() {
+    return nextRun;
+  }
+
+  @Override
+  public String toString() {
+    String progress = state == State.RUNNING
+        ? "Refreshing prices: " + completedCount + " of " + tickerCount + " stocks"
+        : lastFinished == null ? "Prices not refreshed yet"
+            : "Prices refreshed at " + lastFinished;
+    return failures.isEmpty() ? progress : progress + ", failed for " + failures.keySet();
+  }
+}
@@ -0,0 +1,71 @@
+package util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one call per key at a time. A caller that asks for a key whose call is still running
+ * does not start another one but waits for the running call and gets its result or its failure.
+ * Once a call has finished, the next caller of its key starts a new call.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the results
+ */
+public final class SingleFlight<K, V> {
+
+  private final ConcurrentHashMap<K, CompletableFuture<V>> calls;
+
+  /**
+   * Constructs a single flight with no call running.
+   */
+  public SingleFlight() {
+    this.calls = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Runs a call for a key, or waits for the call of the key that is already running.
+   *
+   * @param key  of the call
+   * @param call computes the result, run on the thread of the first caller
+   * @return result of the call
+   * @throws RuntimeException thrown by the call, to every caller that shared it
+   */
+  public V execute(K key, Supplier<V> call) {
+    CompletableFuture<V> created = new CompletableFuture<>();
+    CompletableFuture<V> running = calls.putIfAbsent(key, created);
+    if (running == null) {
+      try {
+        V result = call.get();
+        created.complete(result);
+        return result;
+      } catch (RuntimeException | Error e) {
+        created.completeExceptionally(e);
+        throw e;
+      } finally {
+        calls.remove(key, created);
+      }
+    }
+    try {
+      return running.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Fetches the number of calls currently running.
+   *
+   * @return number of keys with a running call
+   */
+  public int getRunningCount() {
+    return calls.size();
+  }
+}
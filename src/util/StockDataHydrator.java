@@ -1,70 +1,265 @@
 package util;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * This class makes the API call to the AlphaVantage API and saves the data to the file.
+ * This class fetches the price data of a stock from a {@link PriceSource} and saves it to a file.
+ * When daily data of a stock is already saved and only a few days behind, just the compact window
+ * of the latest days is requested and the days missing from the file are merged into it. A full
+ * history is streamed through one buffer into the file and into a parser of its price columns at
+ * once, so the response is never held as a whole nor read back from the file.
+ *
+ * <p>Saved files are kept across runs of the application. A {@link HydrationMetadata} record saved
+ * next to each file after every fetch lets a {@link FreshnessPolicy} decide whether the file is
+ * reused without any call to the source, refreshed with the compact window, or fetched again.
  */
 
 public final class StockDataHydrator implements DataHydrator {
 
-  private final String apiKey;
+  private static final String PRICE_DATA_HEADER = "timestamp";
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final PriceSource priceSource;
   private final String stockPriceDataDirectory;
   private final ApiPeriod period;
+  private final FreshnessPolicy freshnessPolicy;
 
   /**
-   * Constructs an API hydrator instance that can make an api call and write to a file.
+   * Constructs a hydrator instance that fetches price data from a source and writes it to a file,
+   * deciding with the default {@link FreshnessPolicy} when saved data is fetched again.
    *
-   * @param apiKey                  to make an api call
+   * @param priceSource             source of the price data
    * @param stockPriceDataDirectory directory where file needs to be saved
    * @param period                  fetch DAILY, WEEKLY or MONTHLY data of stock
    */
-  public StockDataHydrator(String apiKey, String stockPriceDataDirectory,
+  public StockDataHydrator(PriceSource priceSource, String stockPriceDataDirectory,
       ApiPeriod period) {
-    this.apiKey = apiKey;
+    this(priceSource, stockPriceDataDirectory, period, new FreshnessPolicy());
+  }
+
+  /**
+   * Constructs a hydrator instance that fetches price data from a source and writes it to a file.
+   *
+   * @param priceSource             source of the price data
+   * @param stockPriceDataDirectory directory where file needs to be saved
+   * @param period                  fetch DAILY, WEEKLY or MONTHLY data of stock
+   * @param freshnessPolicy         decides when saved data is reused or fetched again
+   */
+  public StockDataHydrator(PriceSource priceSource, String stockPriceDataDirectory,
+      ApiPeriod period, FreshnessPolicy freshnessPolicy) {
+    new ParamNullChecker().accept(new Object[]{priceSource, stockPriceDataDirectory, period,
+        freshnessPolicy});
+    this.priceSource = priceSource;
     this.stockPriceDataDirectory = stockPriceDataDirectory;
     this.period = period;
+    this.freshnessPolicy = freshnessPolicy;
   }
 
   @Override
-  public void hydrate(String stockName) {
+  public PriceSeries hydrate(String stockName) {
+    File stockFile = new File(stockPriceDataDirectory + stockName + "_" + period.getApiPeriod()
+        + ".csv");
+    String latestDate = latestSavedDate(stockFile);
+    FreshnessPolicy.Decision decision = freshnessPolicy.decide(latestDate,
+        HydrationMetadata.read(stockFile.getPath()), priceSource.getName());
+    if (decision == FreshnessPolicy.Decision.REUSE) {
+      return new PriceSeries(new int[0], new double[0]);
+    }
+    if (decision == FreshnessPolicy.Decision.DELTA && period.equals(ApiPeriod.DAILY)) {
+      // the compact window holds at most 100 rows, so it is small enough to keep as text
+      String compact = new String(fetchCompact(stockName), StandardCharsets.US_ASCII);
+      String[] lines = compact.split("\r?\n");
+      if (isPriceData(lines) && lines.length > 1
+          && dateOf(lines[lines.length - 1]).compareTo(latestDate) <= 0) {
+        List<String> newRows = new ArrayList<>();
+        StringBuilder newData = new StringBuilder(lines[0]).append('\n');
+        for (int i = 1; i < lines.length && dateOf(lines[i]).compareTo(latestDate) > 0; i++) {
+          if (!lines[i].isBlank()) {
+            newRows.add(lines[i]);
+            newData.append(lines[i]).append('\n');
+          }
+        }
+        if (!newRows.isEmpty()) {
+          mergeStockData(stockFile, newRows, stockName);
+        }
+        saveMetadata(stockFile, newRows.isEmpty() ? latestDate : dateOf(newRows.get(0)));
+        CsvPriceReader.Parser parser = new CsvPriceReader().newParser(stockName);
+        parser.feed(ByteBuffer.wrap(newData.toString().getBytes(StandardCharsets.US_ASCII)));
+        return parser.finish();
+      }
+    }
+    PriceSeries series = downloadFull(stockName, stockFile);
+    if (series.size() > 0) {
+      saveMetadata(stockFile, EpochDays.format(series.getEpochDay(series.size() - 1)));
+    }
+    return series;
+  }
 
-    URL url;
+  private void saveMetadata(File stockFile, String lastBarDate) {
     try {
-      url = new URL("https://www.alphavantage.co/query?function=TIME_SERIES_"
-          + period.getApiPeriod()
-          + "&outputsize=full"
-          + "&symbol"
-          + "=" + stockName + "&apikey=" + apiKey + "&datatype=csv");
-    } catch (MalformedURLException e) {
-      throw new RuntimeException("the EOD Historical API has either changed or "
-          + "no longer works");
+      new HydrationMetadata(lastBarDate, freshnessPolicy.now(), priceSource.getName())
+          .write(stockFile.getPath());
+    } catch (IllegalArgumentException e) {
+      // the saved data is still valid, it is only fetched again on the next run
     }
+  }
 
-    InputStream in;
-    StringBuilder output = new StringBuilder();
+  private byte[] fetchCompact(String stockName) {
+    try (InputStream in = priceSource.open(stockName, period, true)) {
+      return in.readAllBytes();
+    } catch (IOException e) {
+      throw new IllegalArgumentException("No price data found for " + stockName);
+    }
+  }
 
+  // streams the response through one buffer into a temporary file and the parser at once, and
+  // moves the file in place once the whole response has been parsed
+  private PriceSeries downloadFull(String stockName, File stockFile) {
+    Path temporary = Path.of(stockFile.getPath() + ".tmp");
+    CsvPriceReader.Parser parser = new CsvPriceReader().newParser(stockName);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
     try {
-      in = url.openStream();
-      int b;
-      while ((b = in.read()) != -1) {
-        output.append((char) b);
+      Files.createDirectories(temporary.toAbsolutePath().getParent());
+    } catch (IOException e) {
+      throw new IllegalArgumentException("No price data found for " + stockName);
+    }
+    PriceSeries series;
+    try (ReadableByteChannel in = Channels.newChannel(
+        priceSource.open(stockName, period, false));
+        FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      boolean headerChecked = false;
+      while (in.read(buffer) >= 0) {
+        if (!headerChecked) {
+          if (buffer.position() < PRICE_DATA_HEADER.length()) {
+            continue;
+          }
+          checkPriceData(buffer, stockName);
+          headerChecked = true;
+        }
+        buffer.flip();
+        parser.feed(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+          out.write(buffer);
+        }
+        buffer.clear();
       }
-      writeStockData(output.toString(), stockName + "_" + period.getApiPeriod(),
-          stockPriceDataDirectory);
+      if (!headerChecked) {
+        // the response is shorter than the header of price data
+        checkPriceData(buffer, stockName);
+      }
+      series = parser.finish();
+      out.force(false);
+    } catch (IOException | IllegalArgumentException e) {
+      throw discard(temporary, stockName);
+    }
+    // the file is only moved once the channel writing it has been closed
+    try {
+      Files.move(temporary, stockFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
     } catch (IOException e) {
+      throw discard(temporary, stockName);
+    }
+    return series;
+  }
+
+  // removes the temporary file of a failed download and gives the error to report
+  private IllegalArgumentException discard(Path temporary, String stockName) {
+    try {
+      Files.deleteIfExists(temporary);
+    } catch (IOException ignored) {
+      // nothing more can be done about a temporary file that cannot be removed
+    }
+    return new IllegalArgumentException("No price data found for " + stockName);
+  }
+
+  // the api answers errors such as an unknown symbol with a json message instead of csv rows
+  private void checkPriceData(ByteBuffer buffer, String stockName) {
+    if (buffer.position() < PRICE_DATA_HEADER.length()) {
       throw new IllegalArgumentException("No price data found for " + stockName);
     }
+    for (int i = 0; i < PRICE_DATA_HEADER.length(); i++) {
+      if (buffer.get(i) != PRICE_DATA_HEADER.charAt(i)) {
+        throw new IllegalArgumentException("No price data found for " + stockName);
+      }
+    }
+  }
+
+  private boolean isPriceData(String[] lines) {
+    return lines.length > 0 && lines[0].startsWith(PRICE_DATA_HEADER);
+  }
+
+  private String dateOf(String row) {
+    return row.length() < 10 ? row : row.substring(0, 10);
   }
 
-  private void writeStockData(String content, String stockFileName, String stockPriceDataDirectory)
-      throws IOException {
-    FileWriter file = new FileWriter(stockPriceDataDirectory + stockFileName + ".csv");
-    file.write(String.valueOf(content));
-    file.close();
+  /**
+   * Fetches the latest date of the price data saved in a file, which is listed first.
+   *
+   * @param stockFile file of price data in the layout returned by the API
+   * @return latest date in the format 'yyyy-MM-dd', or null if the file does not exist or holds
+   *         no valid row
+   */
+  static String latestSavedDate(File stockFile) {
+    if (!stockFile.isFile()) {
+      return null;
+    }
+    try (BufferedReader reader = new BufferedReader(new FileReader(stockFile))) {
+      String header = reader.readLine();
+      String latestRow = reader.readLine();
+      if (header == null || latestRow == null || latestRow.length() < 10) {
+        return null;
+      }
+      String latestDate = latestRow.substring(0, 10);
+      EpochDays.parse(latestDate);
+      return latestDate;
+    } catch (IOException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private void mergeStockData(File stockFile, List<String> newRows, String stockName) {
+    File merged = new File(stockFile.getPath() + ".tmp");
+    try (BufferedReader reader = new BufferedReader(new FileReader(stockFile));
+        BufferedWriter writer = new BufferedWriter(new FileWriter(merged))) {
+      writer.write(reader.readLine());
+      writer.newLine();
+      for (String row : newRows) {
+        writer.write(row);
+        writer.newLine();
+      }
+      String line;
+      while ((line = reader.readLine()) != null) {
+        writer.write(line);
+        writer.newLine();
+      }
+    } catch (IOException e) {
+      merged.delete();
+      throw new IllegalArgumentException("No price data found for " + stockName);
+    }
+    try {
+      Files.move(merged.toPath(), stockFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      merged.delete();
+      throw new IllegalArgumentException("No price data found for " + stockName);
+    }
   }
 }
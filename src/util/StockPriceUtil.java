@@ -1,9 +1,13 @@
 package util;
 
+import java.io.File;
+import java.util.AbstractMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Represents an implementation of {@link StockPriceUtil} that has functionalities to be performed.
@@ -12,20 +16,135 @@ import java.util.Set;
 public final class StockPriceUtil implements StockUtil {
 
   private static final String STOCK_PRICE_DATA_DIRECTORY = "res/stock_value_data/";
+  private static final String STOCK_PRICE_DATA_CACHE_DIRECTORY = "res/stock_value_data_cache/";
   private static final String CSV = ".csv";
 
+  private final PriceSource priceSource;
+  private final String stockPriceDataDirectory;
+  private final SingleFlight<Map.Entry<PriceStore, String>, Boolean> fetches;
+
+  /**
+   * Constructs a stock utility that fetches price data offline by replaying the files of
+   * 'res/stock_value_data_cache/'.
+   */
+  public StockPriceUtil() {
+    this(new DirectoryPriceSource(STOCK_PRICE_DATA_CACHE_DIRECTORY));
+  }
+
+  /**
+   * Constructs a stock utility that fetches price data from the given source and saves it to
+   * 'res/stock_value_data/'.
+   *
+   * @param priceSource source of the price data
+   */
+  public StockPriceUtil(PriceSource priceSource) {
+    this(priceSource, STOCK_PRICE_DATA_DIRECTORY);
+  }
+
+  /**
+   * Constructs a stock utility that fetches price data from the given source and saves it to the
+   * given directory.
+   *
+   * @param priceSource             source of the price data
+   * @param stockPriceDataDirectory directory where fetched price data is saved, ending with a
+   *                                separator
+   */
+  public StockPriceUtil(PriceSource priceSource, String stockPriceDataDirectory) {
+    new ParamNullChecker().accept(new Object[]{priceSource, stockPriceDataDirectory});
+    this.priceSource = priceSource;
+    this.stockPriceDataDirectory = stockPriceDataDirectory;
+    this.fetches = new SingleFlight<>();
+  }
+
+  /**
+   * Fetches the data of the stock from the price source of this utility. Concurrent calls for the
+   * same stock and price store share a single fetch and its result or failure.
+   *
+   * @param stockName  name of the stock
+   * @param priceStore price store which is hydrated by the fetched data
+   * @throws IllegalArgumentException if no price data could be fetched for the stock
+   */
   @Override
-  public Map<String, Map<String, Double>> fetchStockData(String apiKey,
-      String stockName,
-      Map<String, Map<String, Double>> stockPriceMap) {
-    String stockDataFileName = stockName + "_" + ApiPeriod.DAILY.getApiPeriod();
-    new StockDataHydrator(apiKey, STOCK_PRICE_DATA_DIRECTORY, ApiPeriod.DAILY).hydrate(stockName);
-    List<String[]> stockDataFromFile = new CsvFileUtil().readFile(
-        STOCK_PRICE_DATA_DIRECTORY + stockDataFileName + CSV);
-    Map<String, Double> stockData = getStockMap(stockDataFromFile, 0, 4);
-    stockPriceMap.put(stockDataFileName, stockData);
+  public void fetchStockData(String stockName, PriceStore priceStore)
+      throws IllegalArgumentException {
+    hydrate(stockName, priceStore, new FreshnessPolicy());
+  }
+
+  /**
+   * Brings the data of the stock up to date from the price source of this utility, even when its
+   * saved data would be reused by a fetch. A refresh shares a running fetch of the same stock and
+   * price store, as both write the same file.
+   *
+   * @param stockName  name of the stock
+   * @param priceStore price store which is hydrated by the refreshed data
+   * @throws IllegalArgumentException if no price data could be fetched for the stock
+   */
+  @Override
+  public void refreshStockData(String stockName, PriceStore priceStore)
+      throws IllegalArgumentException {
+    hydrate(stockName, priceStore, new FreshnessPolicy().withoutReuse());
+  }
 
-    return stockPriceMap;
+  private void hydrate(String stockName, PriceStore priceStore, FreshnessPolicy freshnessPolicy) {
+    // price stores compare by identity, so each store gets its own fetch
+    fetches.execute(new AbstractMap.SimpleImmutableEntry<>(priceStore, stockName), () -> {
+      hydrateInto(new StockDataHydrator(priceSource, stockPriceDataDirectory, ApiPeriod.DAILY,
+          freshnessPolicy), stockPriceDataDirectory, stockName, priceStore);
+      return Boolean.TRUE;
+    });
+  }
+
+  /**
+   * Hydrates the data file of a stock and stores its price history. The history parsed by the
+   * hydrator while it fetched the data is stored as it is, so the saved file is not read again.
+   * When the hydrator only merged new days into a file whose snapshot was fresh, those days are
+   * appended to the history from the snapshot. The snapshot is regenerated in both cases, unless
+   * the saved file was reused as it is.
+   *
+   * @param hydrator                fetches the data of the stock into the data directory
+   * @param stockPriceDataDirectory directory holding the data file of the stock
+   * @param stockName               name of the stock
+   * @param priceStore              price store which is hydrated
+   */
+  void hydrateInto(DataHydrator hydrator, String stockPriceDataDirectory, String stockName,
+      PriceStore priceStore) {
+    String stockDataFilePath = stockPriceDataDirectory + stockName + "_"
+        + ApiPeriod.DAILY.getApiPeriod() + CSV;
+    String savedDate = StockDataHydrator.latestSavedDate(new File(stockDataFilePath));
+    PriceSeries cached = null;
+    if (savedDate != null && PriceSnapshotFile.isFresh(stockDataFilePath)) {
+      try {
+        cached = PriceSnapshotFile.read(stockDataFilePath);
+      } catch (IllegalArgumentException e) {
+        // the whole file is parsed again below
+      }
+    }
+    PriceSeries fetched = hydrator.hydrate(stockName);
+    // a history fetched in full starts on or before the latest day saved before
+    boolean merged = savedDate != null
+        && (fetched.size() == 0 || fetched.getEpochDay(0) > EpochDays.parse(savedDate));
+    PriceSeries series;
+    if (!merged) {
+      series = fetched;
+    } else if (cached != null) {
+      series = cached.appendedWith(fetched);
+    } else {
+      series = null;
+    }
+    if (series != null && (!merged || fetched.size() > 0)) {
+      try {
+        PriceSnapshotFile.write(stockDataFilePath, series);
+      } catch (IllegalArgumentException e) {
+        // the snapshot is regenerated from the csv file on the next load
+      }
+    }
+    AtomicReference<PriceSeries> hydrated = new AtomicReference<>(series);
+    priceStore.registerLoader(stockName, () -> {
+      PriceSeries first = hydrated.getAndSet(null);
+      return first != null ? first : loadPriceSeries(stockDataFilePath);
+    });
+    // stores the fetched data now, so that faulty data is reported to the caller
+    priceStore.getSeries(stockName);
   }
 
   @Override
@@ -40,14 +159,91 @@ public final class StockPriceUtil implements StockUtil {
   }
 
   @Override
-  public Map<String, Map<String, Double>> fetchAllStockData(String apiKey, Set<String> tickerSet,
-      Map<String, Map<String, Double>> stockPriceMap) {
-    for (String stock : tickerSet) {
-      if (!stockPriceMap.containsKey(stock + "_" + ApiPeriod.DAILY.getApiPeriod())) {
-        stockPriceMap = fetchStockData(apiKey, stock,
-            stockPriceMap);
+  public PriceSeries getPriceSeries(List<String[]> stockPrices, int dateColumn,
+      int valueColumn) {
+    int size = stockPrices.size();
+    int[] epochDays = new int[size];
+    double[] closes = new double[size];
+    // api files list the latest date first, so columns are filled from the end
+    for (int i = 0; i < size; i++) {
+      String[] row = stockPrices.get(i);
+      epochDays[size - 1 - i] = EpochDays.parse(row[dateColumn]);
+      closes[size - 1 - i] = Double.parseDouble(row[valueColumn]);
+    }
+    if (!isSortedAndUnique(epochDays)) {
+      Map<String, Double> closesByDate = new HashMap<>();
+      for (String[] row : stockPrices) {
+        closesByDate.put(row[dateColumn], Double.parseDouble(row[valueColumn]));
+      }
+      return PriceSeries.of(closesByDate);
+    }
+    return new PriceSeries(epochDays, closes);
+  }
+
+  @Override
+  public PriceSeries loadPriceSeries(String csvFilePath) throws IllegalArgumentException {
+    if (PriceSnapshotFile.isFresh(csvFilePath)) {
+      try {
+        return PriceSnapshotFile.read(csvFilePath);
+      } catch (IllegalArgumentException e) {
+        // fall back to the csv file below
       }
     }
-    return stockPriceMap;
+    PriceSeries series = new CsvPriceReader().read(csvFilePath);
+    try {
+      PriceSnapshotFile.write(csvFilePath, series);
+      return PriceSnapshotFile.read(csvFilePath);
+    } catch (IllegalArgumentException e) {
+      // the parsed columns are kept in memory until a snapshot can be written
+      return series;
+    }
+  }
+
+  @Override
+  public PriceSeries getOhlcvSeries(List<String[]> stockPrices) {
+    PriceColumn[] columns = PriceColumn.values();
+    for (String[] row : stockPrices) {
+      if (row.length <= PriceColumn.VOLUME.getCsvColumn()) {
+        return getPriceSeries(stockPrices, 0, PriceColumn.CLOSE.getCsvColumn());
+      }
+    }
+    // later rows replace earlier ones for the same date, as in a map of date and price
+    Map<Integer, Integer> rowByDay = new TreeMap<>();
+    for (int i = 0; i < stockPrices.size(); i++) {
+      rowByDay.put(EpochDays.parse(stockPrices.get(i)[0]), i);
+    }
+    int size = rowByDay.size();
+    int[] epochDays = new int[size];
+    double[][] values = new double[columns.length][size];
+    int position = 0;
+    for (Map.Entry<Integer, Integer> day : rowByDay.entrySet()) {
+      String[] row = stockPrices.get(day.getValue());
+      epochDays[position] = day.getKey();
+      for (PriceColumn column : columns) {
+        values[column.ordinal()][position] = Double.parseDouble(row[column.getCsvColumn()]);
+      }
+      position++;
+    }
+    return PriceSeries.ofColumns(epochDays, values);
+  }
+
+  private boolean isSortedAndUnique(int[] epochDays) {
+    for (int i = 1; i < epochDays.length; i++) {
+      if (epochDays[i - 1] >= epochDays[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void fetchAllStockData(Set<String> tickerSet, PriceStore priceStore)
+      throws IllegalArgumentException {
+    Map<String, String> failures = new ConcurrentHydrationService(this::fetchStockData)
+        .hydrateAll(tickerSet, priceStore);
+    if (!failures.isEmpty()) {
+      throw new IllegalArgumentException("Stock data could not be fetched for "
+          + new TreeMap<>(failures).keySet());
+    }
   }
 }
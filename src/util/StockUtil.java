@@ -10,15 +10,22 @@ import java.util.Set;
 public interface StockUtil {
 
   /**
-   * Fetches the data of the stock from the AlphaVantage API.
+   * Fetches the data of the stock from the price source of this utility.
    *
-   * @param apiKey                 is the api key provided to the AlphaVantage API
    * @param stockPriceDataFileName is the file name of the stock file
-   * @param stockPriceMap          is the price map which is hydrated by the API call
-   * @return returns a map of the stock data
+   * @param priceStore             is the price store which is hydrated by the fetched data
    */
-  Map<String, Map<String, Double>> fetchStockData(String apiKey, String stockPriceDataFileName,
-      Map<String, Map<String, Double>> stockPriceMap);
+  void fetchStockData(String stockPriceDataFileName, PriceStore priceStore);
+
+  /**
+   * Brings the data of the stock up to date from the price source of this utility, even when its
+   * saved data would be reused by a fetch. The refreshed history replaces the one in the store.
+   *
+   * @param stockName  name of the stock
+   * @param priceStore is the price store which is hydrated by the refreshed data
+   * @throws IllegalArgumentException if no price data could be fetched for the stock
+   */
+  void refreshStockData(String stockName, PriceStore priceStore) throws IllegalArgumentException;
 
   /**
    * Fetches the value and the ticker of the stock.
@@ -32,13 +39,45 @@ public interface StockUtil {
       int valueColumn);
 
   /**
-   * Fetches all the stock data.
+   * Fetches the price history of a stock from rows of its price data file.
+   *
+   * @param stockPrices is the list of rows of the price data file
+   * @param dateColumn  is the column of the date in the format 'yyyy-MM-dd'
+   * @param valueColumn is the column of the price
+   * @return the price history of the stock sorted by date
+   */
+  PriceSeries getPriceSeries(List<String[]> stockPrices, int dateColumn, int valueColumn);
+
+  /**
+   * Fetches the price history of a stock with every column of a price data file in the layout
+   * returned by the API, that is date, open, high, low, close and volume. Rows that do not have
+   * every column only give the closing prices.
+   *
+   * @param stockPrices is the list of rows of the price data file
+   * @return the price history of the stock sorted by date
+   */
+  PriceSeries getOhlcvSeries(List<String[]> stockPrices);
+
+  /**
+   * Loads the price history of a stock from its price data file. A fresh binary snapshot of the
+   * file is memory mapped when present, otherwise the csv file is parsed and its snapshot is
+   * regenerated for the next load.
+   *
+   * @param csvFilePath is the path of the csv price data file
+   * @return the price history of the stock sorted by date
+   * @throws IllegalArgumentException if neither the snapshot nor the csv file can be read
+   */
+  PriceSeries loadPriceSeries(String csvFilePath) throws IllegalArgumentException;
+
+  /**
+   * Fetches all the stock data. The stocks are fetched concurrently and the method returns once
+   * every fetch has finished.
    *
-   * @param apiKey        is the api key provided to the AlphaVantage API
-   * @param tickerSet     is the ticker set
-   * @param stockPriceMap is the value ticker map for a stock
-   * @return the map of stock price map
+   * @param tickerSet  is the ticker set
+   * @param priceStore is the price store which is hydrated by the fetched data
+   * @throws IllegalArgumentException if any of the stocks could not be fetched, after the others
+   *                                  have been stored
    */
-  Map<String, Map<String, Double>> fetchAllStockData(String apiKey, Set<String> tickerSet,
-      Map<String, Map<String, Double>> stockPriceMap);
+  void fetchAllStockData(Set<String> tickerSet, PriceStore priceStore)
+      throws IllegalArgumentException;
 }
@@ -0,0 +1,223 @@
+package util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates a synthetic market for scale tests: daily price data files of many stocks over many
+ * years, in the layout of the AlphaVantage csv files and optionally with their binary snapshots,
+ * and flexible portfolio files trading those stocks. The prices are those of a
+ * {@link SyntheticPriceSource} with the same seed and dates, and the trades depend only on the
+ * seed, so the same arguments always generate the same files.
+ */
+public final class SyntheticMarketGenerator {
+
+  private static final String DEFAULT_PORTFOLIO_NAME = "synthetic_";
+  private static final int TICKER_LENGTH = 4;
+  private static final int MAX_BUY_QUANTITY = 100;
+  private static final double SELL_PROBABILITY = 0.3;
+  private static final String USAGE = "Usage: SyntheticMarketGenerator <price directory>"
+      + " <portfolio directory> <stocks> <years> [portfolios] [trades per portfolio] [seed]"
+      + " [csv|binary]";
+
+  private final long seed;
+  private final int firstDay;
+  private final int lastDay;
+  private final SyntheticPriceSource priceSource;
+
+  /**
+   * Constructs a generator of the market between two dates.
+   *
+   * @param seed      of the prices and trades
+   * @param firstDate first date of the prices in the format 'yyyy-MM-dd'
+   * @param lastDate  last date of the prices in the format 'yyyy-MM-dd'
+   * @throws IllegalArgumentException if a date is not valid or the last date is before the first
+   */
+  public SyntheticMarketGenerator(long seed, String firstDate, String lastDate)
+      throws IllegalArgumentException {
+    this.priceSource = new SyntheticPriceSource(seed, firstDate, lastDate);
+    this.seed = seed;
+    this.firstDay = EpochDays.parse(firstDate);
+    this.lastDay = EpochDays.parse(lastDate);
+  }
+
+  /**
+   * Generates a synthetic market into a price data directory and a portfolio directory.
+   *
+   * @param args price data directory, such as 'res/stock_value_data/', portfolio directory, such
+   *             as 'res/flexible_portfolios/', number of stocks, number of years up to yesterday,
+   *             and optionally the number of portfolios, 1 by default, the number of trades of each
+   *             portfolio, 100 by default, the seed, 0 by default, and 'binary' to also write the
+   *             snapshot of every price data file
+   */
+  public static void main(String[] args) {
+    if (args.length < 4) {
+      System.out.println(USAGE);
+      return;
+    }
+    int tickerCount;
+    int years;
+    int portfolioCount;
+    int tradeCount;
+    long seed;
+    try {
+      tickerCount = Integer.parseInt(args[2]);
+      years = Integer.parseInt(args[3]);
+      portfolioCount = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+      tradeCount = args.length > 5 ? Integer.parseInt(args[5]) : 100;
+      seed = args.length > 6 ? Long.parseLong(args[6]) : 0L;
+    } catch (NumberFormatException e) {
+      System.out.println(USAGE);
+      return;
+    }
+    boolean snapshots = args.length > 7 && args[7].equalsIgnoreCase("binary");
+    LocalDate lastDate = LocalDate.now().minusDays(1);
+    SyntheticMarketGenerator generator = new SyntheticMarketGenerator(seed,
+        lastDate.minusYears(years).toString(), lastDate.toString());
+
+    long start = System.nanoTime();
+    List<String> tickers = generator.writePriceFiles(withSeparator(args[0]), tickerCount,
+        snapshots);
+    List<String> portfolios = generator.writePortfolioFiles(withSeparator(args[1]), tickers,
+        portfolioCount, tradeCount);
+    System.out.println(tickers.size() + " stock(s) and " + portfolios.size()
+        + " portfolio(s) generated in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+  }
+
+  /**
+   * Fetches the names of the stocks of a synthetic market, which are made of capital letters like
+   * real tickers and never repeat.
+   *
+   * @param count number of stocks
+   * @return names of the stocks
+   * @throws IllegalArgumentException if the count is negative or too large to be named
+   */
+  public static List<String> tickerNames(int count) throws IllegalArgumentException {
+    if (count < 0 || count > Math.pow(26, TICKER_LENGTH)) {
+      throw new IllegalArgumentException("Number of stocks should be between 0 and "
+          + (int) Math.pow(26, TICKER_LENGTH) + "!");
+    }
+    List<String> tickers = new ArrayList<>(count);
+    char[] name = new char[TICKER_LENGTH];
+    for (int i = 0; i < count; i++) {
+      int remainder = i;
+      for (int j = TICKER_LENGTH - 1; j >= 0; j--) {
+        name[j] = (char) ('A' + remainder % 26);
+        remainder /= 26;
+      }
+      tickers.add(new String(name));
+    }
+    return tickers;
+  }
+
+  /**
+   * Writes the daily price data file of each stock of a synthetic market, named
+   * '&lt;stock&gt;_DAILY.csv' with the latest day first as the AlphaVantage API returns it. The
+   * files are written concurrently.
+   *
+   * @param directory   directory of the files, ending with a separator
+   * @param tickerCount number of stocks
+   * @param snapshots   true to also write the binary snapshot of every file, false otherwise
+   * @return names of the stocks
+   * @throws IllegalArgumentException if the count is not valid or a file cannot be written
+   */
+  public List<String> writePriceFiles(String directory, int tickerCount, boolean snapshots)
+      throws IllegalArgumentException {
+    new ParamNullChecker().accept(new Object[]{directory});
+    List<String> tickers = tickerNames(tickerCount);
+    new File(directory).mkdirs();
+    tickers.parallelStream().forEach(ticker -> {
+      String csvFilePath = directory + ticker + "_" + ApiPeriod.DAILY.getApiPeriod() + ".csv";
+      try (InputStream in = priceSource.open(ticker, ApiPeriod.DAILY, false);
+          OutputStream out = Files.newOutputStream(Path.of(csvFilePath))) {
+        in.transferTo(out);
+      } catch (IOException e) {
+        throw new IllegalArgumentException("Price data file could not be written for " + ticker);
+      }
+      if (snapshots) {
+        PriceSnapshotFile.write(csvFilePath, new CsvPriceReader().read(csvFilePath));
+      }
+    });
+    return tickers;
+  }
+
+  /**
+   * Writes flexible portfolio files trading the stocks of a synthetic market, named
+   * 'synthetic_&lt;n&gt;.csv' in the layout the application saves them. Trades are listed in the
+   * order of their dates, which are weekdays between the first and last date of the prices, and a
+   * stock is only sold when it is held, so every file loads without error.
+   *
+   * @param directory      directory of the files, ending with a separator
+   * @param tickers        names of the stocks traded
+   * @param portfolioCount number of portfolios
+   * @param tradeCount     number of trades of each portfolio
+   * @return names of the portfolios
+   * @throws IllegalArgumentException if there are no stocks, a count is negative or a file cannot
+   *                                  be written
+   */
+  public List<String> writePortfolioFiles(String directory, List<String> tickers,
+      int portfolioCount, int tradeCount) throws IllegalArgumentException {
+    new ParamNullChecker().accept(new Object[]{directory, tickers});
+    if (tickers.isEmpty() || portfolioCount < 0 || tradeCount < 0) {
+      throw new IllegalArgumentException("Portfolios need stocks and a positive number of "
+          + "trades!");
+    }
+    new File(directory).mkdirs();
+    List<String> portfolios = new ArrayList<>(portfolioCount);
+    for (int i = 1; i <= portfolioCount; i++) {
+      String portfolioName = DEFAULT_PORTFOLIO_NAME + i;
+      writePortfolioFile(directory + portfolioName + ".csv", tickers, tradeCount,
+          new Random(seed * 31 + i));
+      portfolios.add(portfolioName);
+    }
+    return portfolios;
+  }
+
+  // writes the trades of one portfolio, drawn in date order so sells never exceed holdings
+  private void writePortfolioFile(String path, List<String> tickers, int tradeCount,
+      Random random) throws IllegalArgumentException {
+    int[] days = new int[tradeCount];
+    for (int i = 0; i < tradeCount; i++) {
+      int day;
+      do {
+        day = firstDay + random.nextInt(lastDay - firstDay + 1);
+      } while (TradingCalendar.dayOfWeek(day) > 5);
+      days[i] = day;
+    }
+    Arrays.sort(days);
+    Map<String, Integer> holdings = new HashMap<>();
+    try (BufferedWriter writer = Files.newBufferedWriter(Path.of(path),
+        StandardCharsets.US_ASCII)) {
+      writer.write("Stock Name,Quantity,Date,Type of Trade\n");
+      for (int day : days) {
+        String ticker = tickers.get(random.nextInt(tickers.size()));
+        int held = holdings.getOrDefault(ticker, 0);
+        boolean sell = held > 0 && random.nextDouble() < SELL_PROBABILITY;
+        int quantity = sell ? 1 + random.nextInt(held) : 1 + random.nextInt(MAX_BUY_QUANTITY);
+        holdings.put(ticker, sell ? held - quantity : held + quantity);
+        writer.write(ticker + "," + (double) quantity + "," + EpochDays.format(day) + ","
+            + (sell ? TradeType.SELL : TradeType.BUY).getTradeType() + "\n");
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Portfolio file could not be written: " + path);
+    }
+  }
+
+  private static String withSeparator(String directory) {
+    return directory.endsWith("/") || directory.endsWith(File.separator) ? directory
+        : directory + "/";
+  }
+}
@@ -0,0 +1,103 @@
+package util;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Represents an implementation of {@link PriceSource} that generates price data instead of
+ * fetching it, for offline runs and load tests. Each stock follows its own random walk over the
+ * weekdays between a first and a last date. The walk depends only on the seed, the stock and the
+ * first date, so a stock always gets the same prices on the same dates. A source without a last
+ * date generates prices up to the day it is opened, so it only ever extends forward and its name
+ * and past prices stay the same from one day to the next.
+ */
+public final class SyntheticPriceSource implements PriceSource {
+
+  private static final String HEADER = "timestamp,open,high,low,close,volume\n";
+  private static final String DEFAULT_FIRST_DATE = "2000-01-03";
+  private static final int OPEN_END = Integer.MAX_VALUE;
+
+  private final long seed;
+  private final int firstDay;
+  private final int lastDay;
+
+  /**
+   * Constructs a source generating daily prices from {@value #DEFAULT_FIRST_DATE} up to the day it
+   * is opened.
+   *
+   * @param seed of the random walks
+   */
+  public SyntheticPriceSource(long seed) {
+    this.seed = seed;
+    this.firstDay = EpochDays.parse(DEFAULT_FIRST_DATE);
+    this.lastDay = OPEN_END;
+  }
+
+  /**
+   * Constructs a source generating daily prices between two dates.
+   *
+   * @param seed      of the random walks
+   * @param firstDate first date of the prices in the format 'yyyy-MM-dd'
+   * @param lastDate  last date of the prices in the format 'yyyy-MM-dd'
+   * @throws IllegalArgumentException if a date is not valid or the last date is before the first
+   */
+  public SyntheticPriceSource(long seed, String firstDate, String lastDate)
+      throws IllegalArgumentException {
+    this.seed = seed;
+    this.firstDay = EpochDays.parse(firstDate);
+    this.lastDay = EpochDays.parse(lastDate);
+    if (lastDay < firstDay) {
+      throw new IllegalArgumentException("Last date cannot be before the first date!");
+    }
+  }
+
+  @Override
+  public String getName() {
+    String name = "synthetic:" + seed + ":" + EpochDays.format(firstDay);
+    return lastDay == OPEN_END ? name : name + ":" + EpochDays.format(lastDay);
+  }
+
+  @Override
+  public InputStream open(String stockName, ApiPeriod period, boolean compact)
+      throws IllegalArgumentException {
+    if (period != ApiPeriod.DAILY) {
+      throw new IllegalArgumentException("No price data found for " + stockName);
+    }
+    int lastDay = this.lastDay == OPEN_END ? (int) LocalDate.now().toEpochDay() : this.lastDay;
+    int days = 0;
+    for (int day = firstDay; day <= lastDay; day++) {
+      if (TradingCalendar.dayOfWeek(day) <= 5) {
+        days++;
+      }
+    }
+    String[] rows = new String[days];
+    Random random = new Random(seed * 31 + stockName.hashCode());
+    double close = 10 + random.nextInt(490);
+    int index = 0;
+    for (int day = firstDay; day <= lastDay; day++) {
+      if (TradingCalendar.dayOfWeek(day) > 5) {
+        continue;
+      }
+      double open = close;
+      close = Math.max(1, open * (1 + random.nextGaussian() * 0.02));
+      double high = Math.max(open, close) * (1 + random.nextDouble() * 0.01);
+      double low = Math.min(open, close) * (1 - random.nextDouble() * 0.01);
+      long volume = 100_000 + random.nextInt(10_000_000);
+      rows[index++] = EpochDays.format(day) + "," + cents(open) + "," + cents(high) + ","
+          + cents(low) + "," + cents(close) + "," + volume + "\n";
+    }
+    int count = compact ? Math.min(COMPACT_SIZE, days) : days;
+    StringBuilder content = new StringBuilder(HEADER.length() + count * 64).append(HEADER);
+    for (int i = days - 1; i >= days - count; i--) {
+      content.append(rows[i]);
+    }
+    return new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static double cents(double price) {
+    return Math.round(price * 100) / 100.0;
+  }
+}
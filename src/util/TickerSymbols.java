@@ -0,0 +1,89 @@
+package util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents the table of ticker symbols known to the application. Each ticker is interned once
+ * and assigned a dense integer id starting from 0, so that trades, compositions and price data can
+ * be kept in arrays indexed by the id instead of maps keyed by ticker strings. Ids are never
+ * reused and stay valid for the lifetime of the application.
+ */
+public final class TickerSymbols {
+
+  private static final Map<String, Integer> idsByTicker = new ConcurrentHashMap<>();
+  private static volatile String[] tickersById = new String[64];
+  private static volatile int count = 0;
+
+  private TickerSymbols() {
+  }
+
+  /**
+   * Fetches the id of a ticker, assigning the next free id if the ticker was not seen before.
+   *
+   * @param ticker name of the stock
+   * @return id of the ticker
+   * @throws NullPointerException if ticker is null
+   */
+  public static int idOf(String ticker) throws NullPointerException {
+    Integer id = idsByTicker.get(ticker);
+    if (id != null) {
+      return id;
+    }
+    return register(ticker);
+  }
+
+  /**
+   * Fetches the id of a ticker without assigning one.
+   *
+   * @param ticker name of the stock
+   * @return id of the ticker, or -1 if the ticker was never seen
+   */
+  public static int find(String ticker) {
+    if (ticker == null) {
+      return -1;
+    }
+    Integer id = idsByTicker.get(ticker);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Fetches the ticker assigned to an id.
+   *
+   * @param id of the ticker
+   * @return name of the stock
+   * @throws IllegalArgumentException if no ticker is assigned to the id
+   */
+  public static String nameOf(int id) throws IllegalArgumentException {
+    if (id < 0 || id >= count) {
+      throw new IllegalArgumentException("No ticker registered for id " + id);
+    }
+    return tickersById[id];
+  }
+
+  /**
+   * Fetches the number of tickers registered so far, which is one more than the largest id.
+   *
+   * @return number of registered tickers
+   */
+  public static int size() {
+    return count;
+  }
+
+  private static synchronized int register(String ticker) {
+    new ParamNullChecker().accept(new Object[]{ticker});
+    Integer id = idsByTicker.get(ticker);
+    if (id != null) {
+      return id;
+    }
+    int next = count;
+    if (next == tickersById.length) {
+      tickersById = Arrays.copyOf(tickersById, next * 2);
+    }
+    tickersById[next] = ticker;
+    count = next + 1;
+    idsByTicker.put(ticker, next);
+    return next;
+  }
+}
@@ -0,0 +1,75 @@
+package util;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the rate of calls made to an API with a token bucket. The bucket holds up to a number of
+ * permits and is refilled evenly over a period, so that a burst of up to the capacity is allowed
+ * and the rate then settles at the capacity per period. Callers that find the bucket empty reserve
+ * the next permit and wait for it outside of any lock, so waiting callers are served in the order
+ * they arrived.
+ */
+public final class TokenBucketRateLimiter {
+
+  /**
+   * Number of requests per minute allowed by the AlphaVantage API for a free api key.
+   */
+  public static final int ALPHAVANTAGE_REQUESTS_PER_MINUTE = 5;
+
+  private final int capacity;
+  private final double nanosPerPermit;
+  private double storedPermits;
+  private long lastRefillNanos;
+
+  /**
+   * Constructs a rate limiter with a full bucket.
+   *
+   * @param capacity number of permits given out per period, which is also the largest burst
+   * @param period   period over which the bucket is refilled completely
+   * @throws IllegalArgumentException if the capacity or the period is not positive
+   */
+  public TokenBucketRateLimiter(int capacity, Duration period) throws IllegalArgumentException {
+    new ParamNullChecker().accept(new Object[]{period});
+    if (capacity <= 0 || period.isZero() || period.isNegative()) {
+      throw new IllegalArgumentException("Rate limit should be a positive number of calls over a "
+          + "positive period!");
+    }
+    this.capacity = capacity;
+    this.nanosPerPermit = (double) period.toNanos() / capacity;
+    this.storedPermits = capacity;
+    this.lastRefillNanos = System.nanoTime();
+  }
+
+  /**
+   * Constructs a rate limiter matching the quota of a free AlphaVantage api key.
+   *
+   * @return rate limiter giving out {@value #ALPHAVANTAGE_REQUESTS_PER_MINUTE} permits per minute
+   */
+  public static TokenBucketRateLimiter forAlphavantage() {
+    return new TokenBucketRateLimiter(ALPHAVANTAGE_REQUESTS_PER_MINUTE, Duration.ofMinutes(1));
+  }
+
+  /**
+   * Takes a permit, waiting until one is available.
+   *
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public void acquire() throws InterruptedException {
+    long waitNanos = reserve();
+    if (waitNanos > 0) {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+  }
+
+  // takes a permit, possibly ahead of time, and returns how long to wait until it is due
+  private synchronized long reserve() {
+    long now = System.nanoTime();
+    storedPermits = Math.min(capacity, storedPermits + (now - lastRefillNanos) / nanosPerPermit);
+    lastRefillNanos = now;
+    long waitNanos = storedPermits >= 1 ? 0 : (long) Math.ceil((1 - storedPermits)
+        * nanosPerPermit);
+    storedPermits -= 1;
+    return waitNanos;
+  }
+}
@@ -0,0 +1,191 @@
+package util;
+
+/**
+ * Represents the trading days of a stock derived once from its price history. Besides the sorted
+ * trading days, a dense index with one slot per calendar day between the first and last trading
+ * day is kept, so that questions such as the next or previous trading day are answered with a
+ * single array read instead of probing day by day. All days are counted as days since epoch.
+ */
+public final class TradingCalendar {
+
+  /**
+   * Returned when no trading day satisfies a query.
+   */
+  public static final int NO_TRADING_DAY = Integer.MIN_VALUE;
+
+  private final int[] tradingDays;
+  private final int firstDay;
+  private final int[] ceilingIndex;
+
+  /**
+   * Constructs a calendar from trading days sorted in strictly ascending order. The calendar does
+   * not modify the array.
+   *
+   * @param tradingDays trading days as days since epoch
+   */
+  TradingCalendar(int[] tradingDays) {
+    this.tradingDays = tradingDays;
+    if (tradingDays.length == 0) {
+      this.firstDay = 0;
+      this.ceilingIndex = new int[0];
+      return;
+    }
+    this.firstDay = tradingDays[0];
+    this.ceilingIndex = new int[tradingDays[tradingDays.length - 1] - firstDay + 1];
+    int index = 0;
+    for (int slot = 0; slot < ceilingIndex.length; slot++) {
+      if (tradingDays[index] < firstDay + slot) {
+        index++;
+      }
+      ceilingIndex[slot] = index;
+    }
+  }
+
+  /**
+   * Fetches the day of week of a day since epoch.
+   *
+   * @param epochDay day since epoch
+   * @return day of week from 1 for Monday to 7 for Sunday
+   */
+  public static int dayOfWeek(int epochDay) {
+    return Math.floorMod(epochDay + 3, 7) + 1;
+  }
+
+  /**
+   * Checks if the given day is a trading day.
+   *
+   * @param epochDay day since epoch
+   * @return true if the stock was traded on the day, false otherwise
+   */
+  public boolean isTradingDay(int epochDay) {
+    int slot = epochDay - firstDay;
+    if (slot < 0 || slot >= ceilingIndex.length) {
+      return false;
+    }
+    return tradingDays[ceilingIndex[slot]] == epochDay;
+  }
+
+  /**
+   * Checks if the given date is a trading day.
+   *
+   * @param date in the format 'yyyy-MM-dd'
+   * @return true if the stock was traded on the date, false otherwise or if the date is not in the
+   *         expected format
+   */
+  public boolean isTradingDay(String date) {
+    try {
+      return isTradingDay(EpochDays.parse(date));
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Fetches the first trading day on or after the given day.
+   *
+   * @param epochDay day since epoch
+   * @return first trading day on or after the day, or {@link #NO_TRADING_DAY} if there is none
+   */
+  public int onOrAfter(int epochDay) {
+    if (tradingDays.length == 0 || epochDay > tradingDays[tradingDays.length - 1]) {
+      return NO_TRADING_DAY;
+    }
+    if (epochDay <= firstDay) {
+      return firstDay;
+    }
+    return tradingDays[ceilingIndex[epochDay - firstDay]];
+  }
+
+  /**
+   * Fetches the last trading day on or before the given day.
+   *
+   * @param epochDay day since epoch
+   * @return last trading day on or before the day, or {@link #NO_TRADING_DAY} if there is none
+   */
+  public int onOrBefore(int epochDay) {
+    if (tradingDays.length == 0 || epochDay < firstDay) {
+      return NO_TRADING_DAY;
+    }
+    int lastDay = tradingDays[tradingDays.length - 1];
+    if (epochDay >= lastDay) {
+      return lastDay;
+    }
+    int index = ceilingIndex[epochDay - firstDay];
+    return tradingDays[index] == epochDay ? epochDay : tradingDays[index - 1];
+  }
+
+  /**
+   * Fetches the first trading day strictly after the given day.
+   *
+   * @param epochDay day since epoch
+   * @return next trading day, or {@link #NO_TRADING_DAY} if there is none
+   */
+  public int nextTradingDay(int epochDay) {
+    return onOrAfter(epochDay + 1);
+  }
+
+  /**
+   * Fetches the last trading day strictly before the given day.
+   *
+   * @param epochDay day since epoch
+   * @return previous trading day, or {@link #NO_TRADING_DAY} if there is none
+   */
+  public int previousTradingDay(int epochDay) {
+    return onOrBefore(epochDay - 1);
+  }
+
+  /**
+   * Fetches the Nth trading day of the Monday to Sunday week containing the given day.
+   *
+   * @param epochDay any day of the week
+   * @param n        position of the trading day in the week starting from 1
+   * @return Nth trading day of the week, or {@link #NO_TRADING_DAY} if the week has fewer trading
+   *         days
+   */
+  public int nthTradingDayOfWeek(int epochDay, int n) {
+    int monday = epochDay - dayOfWeek(epochDay) + 1;
+    return nthTradingDayBetween(monday, monday + 6, n);
+  }
+
+  /**
+   * Fetches the Nth trading day of the month containing the given day.
+   *
+   * @param epochDay any day of the month
+   * @param n        position of the trading day in the month starting from 1
+   * @return Nth trading day of the month, or {@link #NO_TRADING_DAY} if the month has fewer trading
+   *         days
+   */
+  public int nthTradingDayOfMonth(int epochDay, int n) {
+    String date = EpochDays.format(epochDay);
+    int year = Integer.parseInt(date.substring(0, 4));
+    int month = Integer.parseInt(date.substring(5, 7));
+    int firstOfMonth = EpochDays.of(year, month, 1);
+    int firstOfNextMonth = month == 12 ? EpochDays.of(year + 1, 1, 1)
+        : EpochDays.of(year, month + 1, 1);
+    return nthTradingDayBetween(firstOfMonth, firstOfNextMonth - 1, n);
+  }
+
+  /**
+   * Estimates the memory held by the dense index of this calendar.
+   *
+   * @return size of the index in bytes
+   */
+  long getMemoryFootprint() {
+    return (long) ceilingIndex.length * Integer.BYTES;
+  }
+
+  private int nthTradingDayBetween(int start, int end, int n) {
+    if (n < 1) {
+      throw new IllegalArgumentException("Position of trading day should start from 1");
+    }
+    int first = onOrAfter(start);
+    if (first == NO_TRADING_DAY || first > end) {
+      return NO_TRADING_DAY;
+    }
+    int index = ceilingIndex[first - firstDay] + n - 1;
+    if (index >= tradingDays.length || tradingDays[index] > end) {
+      return NO_TRADING_DAY;
+    }
+    return tradingDays[index];
+  }
+}
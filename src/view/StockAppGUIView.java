@@ -6,6 +6,8 @@ import java.awt.Font;
 import java.awt.HeadlessException;
 import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.text.DecimalFormat;
 import java.time.LocalDate;
 import java.time.Month;
@@ -33,6 +35,7 @@ import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.SpinnerModel;
 import javax.swing.SpinnerNumberModel;
+import javax.swing.Timer;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
@@ -51,6 +54,7 @@ import util.ValidDateChecker;
 public class StockAppGUIView extends JFrame implements IView {
 
   private static final DecimalFormat df = new DecimalFormat("0.00");
+  private static final int PRICE_REFRESH_POLL_MILLIS = 5000;
   private final ValidDateChecker validDateChecker;
   private final JPanel mainPanel;
   private JPanel menuPanel;
@@ -102,6 +106,7 @@ public class StockAppGUIView extends JFrame implements IView {
   private JLabel compositionDate;
   private JLabel buyByQuantityDate;
   private JLabel sellDate;
+  private JLabel priceRefreshStatus;
   private JComboBox<String> combobox;
   private JComboBox<String> periodCombobox;
   private JSplitPane splitPane;
@@ -143,6 +148,8 @@ public class StockAppGUIView extends JFrame implements IView {
     menuPanel.add(combobox);
     changeCommissionButton = new JButton("Change Commission");
     menuPanel.add(changeCommissionButton);
+    priceRefreshStatus = new JLabel("", JLabel.CENTER);
+    menuPanel.add(priceRefreshStatus);
     backBtn = new JButton("Go Back");
     portfolioOptions = new JPanel();
     portfolioOptions.setLayout(new BoxLayout(portfolioOptions, BoxLayout.Y_AXIS));
@@ -184,6 +191,15 @@ public class StockAppGUIView extends JFrame implements IView {
     valueBtn.addActionListener(evt -> feature.showPortfolioValue());
     compositionMenuBtn.addActionListener(evt -> feature.handleCompositionOfPortfolio());
     compositionBtn.addActionListener(evt -> feature.showPortfolioComposition());
+    addWindowListener(new WindowAdapter() {
+      @Override
+      public void windowClosing(WindowEvent e) {
+        feature.handleClose();
+      }
+    });
+    // the background refresh of prices is polled, so the view never waits for it
+    new Timer(PRICE_REFRESH_POLL_MILLIS, evt -> priceRefreshStatus.setText(
+        String.valueOf(feature.getPriceRefreshStatus()))).start();
   }
 
   @Override
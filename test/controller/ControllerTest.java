@@ -17,6 +17,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import model.User;
 import model.UserImpl;
@@ -24,6 +25,7 @@ import org.junit.Before;
 import org.junit.Test;
 import util.ApiPeriod;
 import util.FileUtil;
+import util.PriceStore;
 import view.StockAppView;
 import view.StockAppViewImpl;
 
@@ -430,7 +432,7 @@ public class ControllerTest {
 
     @Override
     public void addFractionalTradeToFlexiblePortfolio(String portfolioName,
-        Map<String, Map<String, Double>> stockPriceMap, Double amount,
+        PriceStore stockPriceMap, Double amount,
         Map<String, Double> tickerRatios, String date) {
       // do nothing
     }
@@ -447,7 +449,7 @@ public class ControllerTest {
 
     @Override
     public Double getCostBasisForFlexiblePortfolio(String portfolioName, String date,
-        Map<String, Map<String, Double>> stockPriceMap) {
+        PriceStore stockPriceMap) {
       sb.append(portfolioName);
       sb.append(",");
       sb.append(date);
@@ -472,23 +474,25 @@ public class ControllerTest {
 
     @Override
     public Double getValuesOfStocksOfPortfolio(String portfolioName,
-        Map<String, Map<String, Double>> stockValues, String date)
+        PriceStore stockValues, String date)
         throws IllegalArgumentException, NullPointerException {
       sb.append(portfolioName);
       sb.append(",");
       sb.append(date);
       sb.append("\n");
-      for (Map.Entry<String, Map<String, Double>> stock : stockValues.entrySet()) {
+      Map<String, String> stockFileNames = new HashMap<>();
+      for (String ticker : stockValues.getTickers()) {
+        stockFileNames.put(ticker + "_DAILY", ticker);
+      }
+      for (Map.Entry<String, String> stock : stockFileNames.entrySet()) {
         sb.append(stock.getKey());
         sb.append(":");
         sb.append("\n");
-        for (Map.Entry<String, Double> stockPriceOnDate : stock.getValue().entrySet()) {
-          if (date.equals(stockPriceOnDate.getKey())) {
-            sb.append(stockPriceOnDate.getKey());
-            sb.append(",");
-            sb.append(stockPriceOnDate.getValue());
-            sb.append("\n");
-          }
+        if (stockValues.hasPriceOnDate(stock.getValue(), date)) {
+          sb.append(date);
+          sb.append(",");
+          sb.append(stockValues.getPriceOnDate(stock.getValue(), date));
+          sb.append("\n");
         }
         sb.append("\n");
       }
@@ -536,7 +540,7 @@ public class ControllerTest {
 
     @Override
     public void getPerformanceOfFlexiblePortfolio(String portfolioName, String from, String to,
-        Map<String, Map<String, Double>> stockValues,
+        PriceStore stockValues,
         BiConsumer<Map<String, Double>, ApiPeriod> performanceScaler)
         throws IllegalArgumentException {
       sb.append(portfolioName);
@@ -549,11 +553,16 @@ public class ControllerTest {
 
     @Override
     public void addStrategyToFlexiblePortfolio(String portfolioName,
-        Map<String, Map<String, Double>> stockPriceMap, Double amount,
+        PriceStore stockPriceMap, Double amount,
         Map<String, Double> tickerRatios, String from, String to, ApiPeriod period)
         throws IllegalArgumentException {
       // do nothing
     }
+
+    @Override
+    public void invalidatePrices(Set<String> tickers) {
+      // do nothing as it is a mock
+    }
   }
 
   /**
@@ -15,14 +15,17 @@ import java.util.function.BiConsumer;
 import org.junit.Before;
 import org.junit.Test;
 import util.ApiPeriod;
+import util.ColumnarPriceStore;
 import util.FileUtil;
+import util.PriceSeries;
+import util.PriceStore;
 
 /**
  * Represents a test class for {@link FlexiblePortfolioImpl}.
  */
 public class FlexiblePortfolioImplTest {
 
-  private Map<String, Map<String, Double>> stockPriceMap;
+  private PriceStore stockPriceMap;
   private FlexiblePortfolio flexiblePortfolio;
 
   @Before
@@ -30,17 +33,17 @@ public class FlexiblePortfolioImplTest {
     String date1 = "2022-11-08";
     String date2 = "2022-11-09";
     String date3 = "2022-11-10";
-    stockPriceMap = new HashMap<>();
+    stockPriceMap = new ColumnarPriceStore();
     Map<String, Double> sp1 = new HashMap<>();
     sp1.put(date1, 1.0);
     sp1.put(date2, 2.0);
     sp1.put(date3, 3.0);
-    stockPriceMap.put("Stock1_DAILY", sp1);
+    stockPriceMap.putSeries("Stock1", PriceSeries.of(sp1));
     Map<String, Double> sp2 = new HashMap<>();
     sp2.put(date1, 1.0);
     sp2.put(date2, 2.0);
     sp2.put(date3, 3.0);
-    stockPriceMap.put("Stock2_DAILY", sp2);
+    stockPriceMap.putSeries("Stock2", PriceSeries.of(sp2));
     flexiblePortfolio = new FlexiblePortfolioImpl("Portfolio1");
     flexiblePortfolio.addTrade("Stock1", 12.0, "2022-11-08");
     flexiblePortfolio.addTrade("Stock1", 13.0, "2022-11-10");
@@ -242,9 +245,9 @@ public class FlexiblePortfolioImplTest {
     stockPrices.remove("2022-09-13");
     stockPrices.remove("2022-09-14");
     stockPrices.remove("2022-09-15");
-    stockPriceMap = new HashMap<>();
-    stockPriceMap.put("Stock1_DAILY", stockPrices);
-    stockPriceMap.put("Stock2_DAILY", stockPrices);
+    stockPriceMap = new ColumnarPriceStore();
+    stockPriceMap.putSeries("Stock1", PriceSeries.of(stockPrices));
+    stockPriceMap.putSeries("Stock2", PriceSeries.of(stockPrices));
     Map<String, Double> tickerRatios = new HashMap<>();
     tickerRatios.put("Stock1", 50.0);
     tickerRatios.put("Stock2", 50.0);
@@ -287,9 +290,9 @@ public class FlexiblePortfolioImplTest {
     stockPrices.remove("2022-09-13");
     stockPrices.remove("2022-09-14");
     stockPrices.remove("2022-09-15");
-    stockPriceMap = new HashMap<>();
-    stockPriceMap.put("Stock1_DAILY", stockPrices);
-    stockPriceMap.put("Stock2_DAILY", stockPrices);
+    stockPriceMap = new ColumnarPriceStore();
+    stockPriceMap.putSeries("Stock1", PriceSeries.of(stockPrices));
+    stockPriceMap.putSeries("Stock2", PriceSeries.of(stockPrices));
     Map<String, Double> tickerRatios = new HashMap<>();
     tickerRatios.put("Stock1", 50.0);
     tickerRatios.put("Stock2", 50.0);
@@ -367,8 +370,8 @@ public class FlexiblePortfolioImplTest {
       price += 0.1;
       fromD = fromD.plusDays(1);
     }
-    stockPriceMap.put("Stock1_DAILY", stockPrices);
-    stockPriceMap.put("Stock2_DAILY", stockPrices);
+    stockPriceMap.putSeries("Stock1", PriceSeries.of(stockPrices));
+    stockPriceMap.putSeries("Stock2", PriceSeries.of(stockPrices));
     Map<String, Double> tickerRatios = new HashMap<>();
     tickerRatios.put("Stock1", 30.0);
     tickerRatios.put("Stock2", 70.0);
@@ -413,8 +416,8 @@ public class FlexiblePortfolioImplTest {
       price += 0.1;
       fromD = fromD.plusDays(1);
     }
-    stockPriceMap.put("Stock1_DAILY", stockPrices);
-    stockPriceMap.put("Stock2_DAILY", stockPrices);
+    stockPriceMap.putSeries("Stock1", PriceSeries.of(stockPrices));
+    stockPriceMap.putSeries("Stock2", PriceSeries.of(stockPrices));
     Map<String, Double> tickerRatios = new HashMap<>();
     tickerRatios.put("Stock1", 30.0);
     tickerRatios.put("Stock2", 70.0);
@@ -478,7 +481,7 @@ public class FlexiblePortfolioImplTest {
 
   @Test(expected = IllegalArgumentException.class)
   public void shouldThrowWhenGetValueOnInvalidDate() {
-    stockPriceMap.put("Stock1_DAILY", new HashMap<>());
+    stockPriceMap.putSeries("Stock1", PriceSeries.of(new HashMap<>()));
     Double actual1 = flexiblePortfolio.getValue(stockPriceMap, "2022-11-10");
   }
 
@@ -489,6 +492,22 @@ public class FlexiblePortfolioImplTest {
     flexiblePortfolio.addTrade("Stock1", -13.0, "2022-11-10");
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowIllegalArgumentExceptionWhenSellPrecedesBuy() {
+    flexiblePortfolio = new FlexiblePortfolioImpl("Portfolio1");
+    flexiblePortfolio.addTrade("Stock1", 12.0, "2022-11-10");
+    flexiblePortfolio.addTrade("Stock1", -5.0, "2022-11-08");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowIllegalArgumentExceptionWhenBackDatedSellBreaksLaterSell() {
+    flexiblePortfolio = new FlexiblePortfolioImpl("Portfolio1");
+    flexiblePortfolio.addTrade("Stock1", 12.0, "2022-11-01");
+    flexiblePortfolio.addTrade("Stock1", -10.0, "2022-11-10");
+    flexiblePortfolio.addTrade("Stock1", 20.0, "2022-11-14");
+    flexiblePortfolio.addTrade("Stock1", -5.0, "2022-11-08");
+  }
+
   @Test(expected = NullPointerException.class)
   public void shouldThrowNullPointerExceptionWhenAddTradeWithNullDate() {
     flexiblePortfolio.addTrade("Stock1", 2.0, null);
@@ -511,19 +530,19 @@ public class FlexiblePortfolioImplTest {
 
   @Test(expected = NullPointerException.class)
   public void shouldThrowNullPointerExceptionWhenGetValueOnNullDate() {
-    stockPriceMap.put("Stock1_DAILY", new HashMap<>());
+    stockPriceMap.putSeries("Stock1", PriceSeries.of(new HashMap<>()));
     Double actual1 = flexiblePortfolio.getValue(stockPriceMap, null);
   }
 
   @Test(expected = NullPointerException.class)
   public void shouldThrowNullPointerExceptionWhenGetValueOnNullStockPriceMap() {
-    stockPriceMap.put("Stock1_DAILY", new HashMap<>());
+    stockPriceMap.putSeries("Stock1", PriceSeries.of(new HashMap<>()));
     Double actual1 = flexiblePortfolio.getValue(null, "2022-11-10");
   }
 
   @Test(expected = IllegalArgumentException.class)
   public void shouldThrowIllegalArgumentExceptionWhenGetValueOnDataNotPresentInStockPriceMap() {
-    stockPriceMap.put("Stock1_DAILY", new HashMap<>());
+    stockPriceMap.putSeries("Stock1", PriceSeries.of(new HashMap<>()));
     Double actual1 = flexiblePortfolio.getValue(stockPriceMap, "2022-11-18");
   }
 
@@ -543,6 +562,19 @@ public class FlexiblePortfolioImplTest {
     assertEquals(153.0, flexiblePortfolio.getCostBasis("2022-11-10", 10.0, stockPriceMap), 0.0);
   }
 
+  @Test
+  public void getCostBasisWithChangedCommissionAndBackDatedTrade() {
+    assertEquals(153.0, flexiblePortfolio.getCostBasis("2022-11-10", 10.0, stockPriceMap), 0.0);
+    assertEquals(103.0, flexiblePortfolio.getCostBasis("2022-11-10", 0.0, stockPriceMap), 0.0);
+    assertEquals(115.5, flexiblePortfolio.getCostBasis("2022-11-10", 2.5, stockPriceMap), 0.0);
+
+    flexiblePortfolio.addTrade("Stock1", 2.0, "2022-11-09");
+
+    assertEquals(38.0, flexiblePortfolio.getCostBasis("2022-11-09", 0.0, stockPriceMap), 0.0);
+    assertEquals(107.0, flexiblePortfolio.getCostBasis("2022-11-10", 0.0, stockPriceMap), 0.0);
+    assertEquals(167.0, flexiblePortfolio.getCostBasis("2022-11-10", 10.0, stockPriceMap), 0.0);
+  }
+
   @Test
   public void getCostBasisInEmptyFlexiblePortfolio() {
     flexiblePortfolio = new FlexiblePortfolioImpl("Portfolio1");
@@ -573,8 +605,8 @@ public class FlexiblePortfolioImplTest {
     sp1.put("2022-11-07", 1.0);
     sp1.put("2022-11-08", 1.0);
     sp1.put("2022-11-10", 1.0);
-    stockPriceMap.put("Stock1_DAILY", sp1);
-    stockPriceMap.put("Stock2_DAILY", sp1);
+    stockPriceMap.putSeries("Stock1", PriceSeries.of(sp1));
+    stockPriceMap.putSeries("Stock2", PriceSeries.of(sp1));
     flexiblePortfolio.getPerformance("2022-11-07", "2022-11-10", stockPriceMap,
         mockLog);
     String expected = "DAILY\n"
@@ -601,8 +633,8 @@ public class FlexiblePortfolioImplTest {
       price += 0.1;
       fromD = fromD.plusDays(1);
     }
-    stockPriceMap.put("Stock1_DAILY", stockPrices);
-    stockPriceMap.put("Stock2_DAILY", stockPrices);
+    stockPriceMap.putSeries("Stock1", PriceSeries.of(stockPrices));
+    stockPriceMap.putSeries("Stock2", PriceSeries.of(stockPrices));
 
     FlexiblePortfolio flexiblePortfolio = new FlexiblePortfolioImpl("Portfolio1");
     flexiblePortfolio.addTrade("Stock1", 12.0, "2022-09-08");
@@ -644,8 +676,8 @@ public class FlexiblePortfolioImplTest {
       price += 0.1;
       fromD = fromD.plusDays(1);
     }
-    stockPriceMap.put("Stock1_DAILY", stockPrices);
-    stockPriceMap.put("Stock2_DAILY", stockPrices);
+    stockPriceMap.putSeries("Stock1", PriceSeries.of(stockPrices));
+    stockPriceMap.putSeries("Stock2", PriceSeries.of(stockPrices));
 
     FlexiblePortfolio flexiblePortfolio = new FlexiblePortfolioImpl("Portfolio1");
     flexiblePortfolio.addTrade("Stock1", 12.0, "2022-09-08");
@@ -683,8 +715,8 @@ public class FlexiblePortfolioImplTest {
       price += 0.01;
       fromD = fromD.plusDays(1);
     }
-    stockPriceMap.put("Stock1_DAILY", stockPrices);
-    stockPriceMap.put("Stock2_DAILY", stockPrices);
+    stockPriceMap.putSeries("Stock1", PriceSeries.of(stockPrices));
+    stockPriceMap.putSeries("Stock2", PriceSeries.of(stockPrices));
 
     FlexiblePortfolio flexiblePortfolio = new FlexiblePortfolioImpl("Portfolio1");
     flexiblePortfolio.addTrade("Stock1", 12.0, "2021-11-08");
@@ -731,8 +763,8 @@ public class FlexiblePortfolioImplTest {
       price += 0.01;
       fromD = fromD.plusDays(1);
     }
-    stockPriceMap.put("Stock1_DAILY", stockPrices);
-    stockPriceMap.put("Stock2_DAILY", stockPrices);
+    stockPriceMap.putSeries("Stock1", PriceSeries.of(stockPrices));
+    stockPriceMap.putSeries("Stock2", PriceSeries.of(stockPrices));
 
     FlexiblePortfolio flexiblePortfolio = new FlexiblePortfolioImpl("Portfolio1");
     flexiblePortfolio.addTrade("Stock1", 12.0, "2021-11-08");
@@ -11,6 +11,7 @@ import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
 import util.FileUtil;
+import util.TickerSymbols;
 
 /**
  * Represents a Test class to test if behaviour of {@link InflexiblePortfolioImpl} is correct.
@@ -152,6 +153,11 @@ public class InflexiblePortfolioImplTest {
       return this.name;
     }
 
+    @Override
+    public int getTickerId() {
+      return TickerSymbols.idOf(this.name);
+    }
+
     @Override
     public Double getQuantity() {
       return 1.0;
@@ -0,0 +1,133 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import util.ApiPeriod;
+import util.ColumnarPriceStore;
+import util.EpochDays;
+import util.PriceSeries;
+import util.PriceStore;
+import util.TradingCalendar;
+
+/**
+ * Represents a test class for {@link PerformanceSweep}.
+ */
+public class PerformanceSweepTest {
+
+  private static final int FIRST_DAY = EpochDays.parse("2018-01-01");
+  private static final int LAST_DAY = EpochDays.parse("2022-12-31");
+
+  private PriceStore priceStore;
+  private FlexiblePortfolioImpl portfolio;
+  private TradeLedger ledger;
+
+  @Before
+  public void setUp() {
+    Random random = new Random(17);
+    priceStore = new ColumnarPriceStore();
+    for (int stock = 1; stock <= 4; stock++) {
+      Map<String, Double> closes = new HashMap<>();
+      double close = 50.0 + stock;
+      // the last stock stops trading, so its price goes stale
+      int lastDay = stock == 4 ? EpochDays.parse("2021-06-30") : LAST_DAY;
+      for (int day = FIRST_DAY + 30 * stock; day <= lastDay; day++) {
+        if (TradingCalendar.dayOfWeek(day) <= 5) {
+          close = Math.max(1.0, close * (1 + random.nextGaussian() * 0.02));
+          closes.put(EpochDays.format(day), close);
+        }
+      }
+      priceStore.putSeries("Sweep" + stock, PriceSeries.of(closes));
+    }
+    portfolio = new FlexiblePortfolioImpl("Portfolio1", 8);
+    ledger = new TradeLedger(8);
+    for (int i = 0; i < 400; i++) {
+      String ticker = "Sweep" + (1 + random.nextInt(4));
+      String date = EpochDays.format(FIRST_DAY + 120 + random.nextInt(LAST_DAY - FIRST_DAY - 120));
+      double quantity = 1 + random.nextInt(50);
+      portfolio.addTrade(ticker, quantity, date);
+      ledger.insert(new TradeImpl(new StockImpl(ticker, quantity), date));
+    }
+  }
+
+  // value of the portfolio on a day as asked one day at a time, by the prices at the end of the
+  // period for the other periods
+  private double valueOn(int day, ApiPeriod period) {
+    String date = EpochDays.format(day);
+    try {
+      if (period == ApiPeriod.DAILY) {
+        return portfolio.getValue(priceStore, date);
+      }
+      Positions positions = portfolio.getPositions(date);
+      double value = 0.0;
+      for (int i = 0; i < positions.size(); i++) {
+        value += priceStore.getPeriodEndPrice(positions.getTickerId(i), day, period)
+            * positions.getQuantity(i);
+      }
+      return value;
+    } catch (IllegalArgumentException e) {
+      return Double.NaN;
+    }
+  }
+
+  private void assertSameValues(int[] days, ApiPeriod period) {
+    double[] values = new PerformanceSweep(ledger, priceStore).getValues(days, period);
+
+    assertEquals(days.length, values.length);
+    for (int i = 0; i < days.length; i++) {
+      assertEquals(EpochDays.format(days[i]), valueOn(days[i], period), values[i], 0.0);
+    }
+  }
+
+  @Test
+  public void getValuesMatchesDailyValues() {
+    int[] days = new int[LAST_DAY - FIRST_DAY + 1];
+    for (int i = 0; i < days.length; i++) {
+      days[i] = FIRST_DAY + i;
+    }
+
+    assertSameValues(days, ApiPeriod.DAILY);
+  }
+
+  @Test
+  public void getValuesMatchesValuesAtEndOfWeeks() {
+    int[] days = new int[(LAST_DAY - FIRST_DAY) / 7];
+    for (int i = 0; i < days.length; i++) {
+      days[i] = EpochDays.parse("2018-01-05") + 7 * i;
+    }
+
+    assertSameValues(days, ApiPeriod.WEEKLY);
+  }
+
+  @Test
+  public void getValuesMatchesValuesAtEndOfMonthsAndYears() {
+    int[] months = new int[60];
+    int[] years = new int[5];
+    for (int i = 0; i < months.length; i++) {
+      int month = i % 12 + 1;
+      int year = 2018 + i / 12;
+      months[i] = EpochDays.of(year, month, 1) + YearMonth.of(year, month)
+          .lengthOfMonth() - 1;
+      if (month == 12) {
+        years[i / 12] = months[i];
+      }
+    }
+
+    assertSameValues(months, ApiPeriod.MONTHLY);
+    assertSameValues(years, ApiPeriod.YEARLY);
+    assertTrue(Double.isNaN(new PerformanceSweep(ledger, priceStore)
+        .getValues(new int[]{LAST_DAY}, ApiPeriod.YEARLY)[0]));
+  }
+
+  @Test
+  public void getValuesOfNoDays() {
+    assertEquals(0, new PerformanceSweep(ledger, priceStore).getValues(new int[0],
+        ApiPeriod.DAILY).length);
+  }
+}
@@ -0,0 +1,88 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Represents a test class for {@link PositionIndex}.
+ */
+public class PositionIndexTest {
+
+  private PositionIndex index;
+
+  @Before
+  public void setUp() {
+    index = new PositionIndex();
+  }
+
+  @Test
+  public void canTradeChecksPositionOnDateOfSell() {
+    index.add(1, 100, 10.0);
+    index.add(1, 110, 5.0);
+
+    assertFalse(index.canTrade(1, 99, -1.0));
+    assertTrue(index.canTrade(1, 105, -10.0));
+    assertFalse(index.canTrade(1, 105, -11.0));
+    assertTrue(index.canTrade(1, 110, -15.0));
+    assertTrue(index.canTrade(1, 99, 1.0));
+    assertFalse(index.canTrade(2, 110, -1.0));
+  }
+
+  @Test
+  public void canTradeChecksPositionOnLaterDates() {
+    index.add(1, 100, 10.0);
+    index.add(1, 120, -8.0);
+    index.add(1, 130, 20.0);
+
+    assertTrue(index.canTrade(1, 110, -2.0));
+    assertFalse(index.canTrade(1, 110, -3.0));
+    assertTrue(index.canTrade(1, 130, -22.0));
+  }
+
+  @Test
+  public void canTradeMatchesReplayOfTrades() {
+    Random random = new Random(5);
+    List<int[]> trades = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      int tickerId = random.nextInt(3);
+      int epochDay = random.nextInt(1000);
+      double quantity = random.nextInt(30) - 12;
+
+      boolean expected = true;
+      if (quantity < 0) {
+        // the trade goes after the trades already on its day
+        double position = 0.0;
+        for (int[] trade : trades) {
+          if (trade[0] == tickerId && trade[1] <= epochDay) {
+            position += trade[2];
+          }
+        }
+        expected = position + quantity >= 0;
+        List<int[]> later = new ArrayList<>();
+        for (int[] trade : trades) {
+          if (trade[0] == tickerId && trade[1] > epochDay) {
+            later.add(trade);
+          }
+        }
+        later.sort((a, b) -> Integer.compare(a[1], b[1]));
+        for (int[] trade : later) {
+          position += trade[2];
+          expected &= position + quantity >= 0;
+        }
+      }
+
+      assertEquals(expected, index.canTrade(tickerId, epochDay, quantity));
+      if (expected) {
+        index.add(tickerId, epochDay, quantity);
+        trades.add(new int[]{tickerId, epochDay, (int) quantity});
+      }
+    }
+  }
+}
@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 
 import org.junit.Before;
 import org.junit.Test;
+import util.TickerSymbols;
 
 /**
  * Represents a test class for {@link TradeImpl}.
@@ -87,6 +88,11 @@ public class TradeImplTest {
       return this.name;
     }
 
+    @Override
+    public int getTickerId() {
+      return TickerSymbols.idOf(this.name);
+    }
+
     @Override
     public Double getQuantity() {
       return this.quantity;
@@ -0,0 +1,213 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.IntToDoubleFunction;
+import org.junit.Before;
+import org.junit.Test;
+import util.EpochDays;
+import util.TickerSymbols;
+
+/**
+ * Represents a test class for {@link TradeLedger}.
+ */
+public class TradeLedgerTest {
+
+  private TradeLedger ledger;
+
+  @Before
+  public void setUp() {
+    ledger = new TradeLedger();
+  }
+
+  private Trade trade(String date) {
+    return new TradeImpl(new StockImpl("Stock1", 1.0), date);
+  }
+
+  @Test
+  public void insertKeepsTradesInDateOrder() {
+    Trade last = trade("2022-11-10");
+    Trade first = trade("2022-11-08");
+    Trade middle = trade("2022-11-09");
+
+    assertEquals(0, ledger.insert(last));
+    assertEquals(0, ledger.insert(first));
+    assertEquals(1, ledger.insert(middle));
+
+    assertEquals(List.of(first, middle, last), ledger);
+    assertEquals(EpochDays.parse("2022-11-09"), ledger.getEpochDay(1));
+  }
+
+  @Test
+  public void insertKeepsOrderOfTradesOnSameDay() {
+    List<Trade> sameDay = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      sameDay.add(trade("2022-11-09"));
+      ledger.insert(sameDay.get(i));
+      ledger.insert(trade("2022-11-08"));
+      ledger.insert(trade("2022-11-10"));
+    }
+
+    for (int i = 0; i < 5; i++) {
+      assertSame(sameDay.get(i), ledger.get(5 + i));
+    }
+  }
+
+  @Test
+  public void countUpToSeeksToDate() {
+    Random random = new Random(3);
+    List<Integer> days = new ArrayList<>();
+    int firstDay = EpochDays.parse("2020-01-01");
+    for (int i = 0; i < 2000; i++) {
+      int day = firstDay + random.nextInt(500);
+      days.add(day);
+      ledger.insert(trade(EpochDays.format(day)));
+    }
+
+    for (int i = 1; i < ledger.size(); i++) {
+      assertTrue(ledger.getEpochDay(i - 1) <= ledger.getEpochDay(i));
+    }
+    for (int day = firstDay - 1; day <= firstDay + 500; day += 7) {
+      final int cutoff = day;
+      assertEquals(days.stream().filter(d -> d <= cutoff).count(), ledger.countUpTo(day));
+      assertEquals(ledger.countUpTo(day), ledger.countUpTo(EpochDays.format(day)));
+    }
+  }
+
+  @Test
+  public void countUpToOfEmptyLedgerIgnoresDate() {
+    assertEquals(0, ledger.countUpTo((String) null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void insertRejectsInvalidDate() {
+    ledger.insert(trade("2022-13-01"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void countUpToRejectsInvalidDate() {
+    ledger.insert(trade("2022-11-09"));
+    ledger.countUpTo("11/09/2022");
+  }
+
+  // replays the first trades of the ledger without checkpoints, by ascending ticker id
+  private SortedMap<Integer, Double> replay(TradeLedger ledger, int count) {
+    SortedMap<Integer, Double> positions = new TreeMap<>();
+    for (int i = 0; i < count; i++) {
+      Trade trade = ledger.get(i);
+      positions.merge(trade.getTickerId(), trade.getQuantity(), Double::sum);
+    }
+    return positions;
+  }
+
+  private void assertPositions(SortedMap<Integer, Double> expected, Positions actual) {
+    assertEquals(expected.size(), actual.size());
+    int index = 0;
+    for (Map.Entry<Integer, Double> entry : expected.entrySet()) {
+      assertEquals((int) entry.getKey(), actual.getTickerId(index));
+      assertEquals(entry.getValue(), actual.getQuantity(index), 0.0);
+      index++;
+    }
+  }
+
+  @Test
+  public void getPositionsMatchesReplayWithBackDatedTrades() {
+    ledger = new TradeLedger(4);
+    Random random = new Random(11);
+    int firstDay = EpochDays.parse("2020-01-01");
+    for (int i = 0; i < 300; i++) {
+      String ticker = "Stock" + random.nextInt(6);
+      ledger.insert(new TradeImpl(new StockImpl(ticker, 1.0 + random.nextInt(20)),
+          EpochDays.format(firstDay + random.nextInt(400))));
+      if (i % 7 == 0) {
+        int count = random.nextInt(ledger.size() + 1);
+        assertPositions(replay(ledger, count), ledger.getPositions(count));
+      }
+    }
+
+    for (int count = 0; count <= ledger.size(); count++) {
+      assertPositions(replay(ledger, count), ledger.getPositions(count));
+    }
+    assertEquals(75, ledger.getCheckpointCount());
+    assertEquals(6, ledger.getSlotCount());
+  }
+
+  @Test
+  public void insertDropsCheckpointsAfterBackDatedTrade() {
+    ledger = new TradeLedger(2);
+    for (int i = 0; i < 10; i++) {
+      ledger.insert(trade(EpochDays.format(EpochDays.parse("2022-11-01") + i)));
+    }
+    ledger.getPositions(10);
+    assertEquals(5, ledger.getCheckpointCount());
+
+    ledger.insert(trade("2022-11-11"));
+    assertEquals(5, ledger.getCheckpointCount());
+    ledger.insert(trade("2022-11-04"));
+    assertEquals(2, ledger.getCheckpointCount());
+    Positions positions = ledger.getPositions(12);
+    assertEquals(1, positions.size());
+    assertEquals(TickerSymbols.find("Stock1"), positions.getTickerId(0));
+    assertEquals(12.0, positions.getQuantity(0), 0.0);
+    assertEquals(6, ledger.getCheckpointCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void ledgerRejectsNonPositiveCheckpointSpacing() {
+    new TradeLedger(0);
+  }
+
+  @Test
+  public void getCumulativeCostResolvesEachTradeOnce() {
+    List<Integer> resolved = new ArrayList<>();
+    IntToDoubleFunction costOfTrade = index -> {
+      resolved.add(ledger.getEpochDay(index));
+      return ledger.getEpochDay(index) - EpochDays.parse("2022-11-01");
+    };
+    ledger.insert(trade("2022-11-02"));
+    ledger.insert(trade("2022-11-04"));
+    ledger.insert(trade("2022-11-06"));
+
+    assertEquals(4.0, ledger.getCumulativeCost(2, costOfTrade), 0.0);
+    assertEquals(9.0, ledger.getCumulativeCost(3, costOfTrade), 0.0);
+    assertEquals(1.0, ledger.getCumulativeCost(1, costOfTrade), 0.0);
+    assertEquals(0.0, ledger.getCumulativeCost(0, costOfTrade), 0.0);
+    assertEquals(3, resolved.size());
+
+    ledger.insert(trade("2022-11-03"));
+    assertEquals(11.0, ledger.getCumulativeCost(4, costOfTrade), 0.0);
+    assertEquals(4, resolved.size());
+
+    ledger.clearCosts();
+    assertEquals(11.0, ledger.getCumulativeCost(4, costOfTrade), 0.0);
+    assertEquals(8, resolved.size());
+  }
+
+  @Test
+  public void clearCostsOfStocksResolvesOnlyTheirTrades() {
+    List<Integer> resolved = new ArrayList<>();
+    IntToDoubleFunction costOfTrade = index -> {
+      resolved.add(index);
+      return ledger.get(index).getQuantity();
+    };
+    ledger.insert(new TradeImpl(new StockImpl("Stock1", 1.0), "2022-11-02"));
+    ledger.insert(new TradeImpl(new StockImpl("Stock2", 2.0), "2022-11-03"));
+    ledger.insert(new TradeImpl(new StockImpl("Stock1", 4.0), "2022-11-04"));
+    assertEquals(7.0, ledger.getCumulativeCost(3, costOfTrade), 0.0);
+    resolved.clear();
+
+    ledger.clearCosts(Set.of(TickerSymbols.find("Stock2")));
+
+    assertEquals(7.0, ledger.getCumulativeCost(3, costOfTrade), 0.0);
+    assertEquals(List.of(1), resolved);
+  }
+}
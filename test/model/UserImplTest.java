@@ -17,7 +17,11 @@ import java.util.function.BiConsumer;
 import org.junit.Before;
 import org.junit.Test;
 import util.ApiPeriod;
+import util.ColumnarPriceStore;
 import util.FileUtil;
+import util.PriceSeries;
+import util.PriceStore;
+import util.TickerSymbols;
 
 /**
  * Represents a Test class to test if behaviour of {@link UserImpl} is correct.
@@ -29,7 +33,7 @@ public class UserImplTest {
   private User user;
   private List<Stock> stocks;
   private Map<String, Double> stockMap;
-  private Map<String, Map<String, Double>> stockPriceMap;
+  private PriceStore stockPriceMap;
   private String date;
   private String date2;
   private String date3;
@@ -61,9 +65,9 @@ public class UserImplTest {
     datePriceMap.put(date, 45.0);
     datePriceMap.put(date2, 55.0);
     datePriceMap.put(date3, 65.0);
-    stockPriceMap = new HashMap<>();
-    stockPriceMap.put(stock1Name + "_DAILY", datePriceMap);
-    stockPriceMap.put(stock2Name + "_DAILY", datePriceMap);
+    stockPriceMap = new ColumnarPriceStore();
+    stockPriceMap.putSeries(stock1Name, PriceSeries.of(datePriceMap));
+    stockPriceMap.putSeries(stock2Name, PriceSeries.of(datePriceMap));
   }
 
   @Test(expected = NullPointerException.class)
@@ -220,7 +224,7 @@ public class UserImplTest {
     stocks.add(mockStock2);
     stockMap.put("Stock2", 100.0);
     user.createPortfolio(stockMap, "Portfolio 2");
-    stockPriceMap.remove("Stock2_DAILY");
+    stockPriceMap.removeSeries("Stock2");
     Double valueOfPortfolio = user.getValuesOfStocksOfPortfolio("Portfolio 2", stockPriceMap, date);
   }
 
@@ -387,6 +391,11 @@ public class UserImplTest {
       return this.name;
     }
 
+    @Override
+    public int getTickerId() {
+      return TickerSymbols.idOf(this.name);
+    }
+
     @Override
     public Double getQuantity() {
       return 1.0;
@@ -0,0 +1,145 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Represents a Test class to test if behaviour of {@link BulkPriceImporter} is correct.
+ */
+public class BulkPriceImporterTest {
+
+  private File directory;
+  private Set<String> opened;
+  private AtomicInteger inFlight;
+  private AtomicInteger maxInFlight;
+  private PriceSource source;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("import").toFile();
+    opened = ConcurrentHashMap.newKeySet();
+    inFlight = new AtomicInteger();
+    maxInFlight = new AtomicInteger();
+    PriceSource synthetic = new SyntheticPriceSource(7, "2022-01-03", "2022-12-30");
+    source = new PriceSource() {
+      @Override
+      public String getName() {
+        return synthetic.getName();
+      }
+
+      @Override
+      public InputStream open(String stockName, ApiPeriod period, boolean compact) {
+        if (stockName.startsWith("BAD")) {
+          throw new IllegalArgumentException("No price data found for " + stockName);
+        }
+        opened.add(stockName);
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(20);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        inFlight.decrementAndGet();
+        return synthetic.open(stockName, period, compact);
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    for (File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  private BulkPriceImporter importer() {
+    return new BulkPriceImporter(source, directory.getPath() + "/");
+  }
+
+  private List<String> tickers(int count) {
+    List<String> tickers = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      tickers.add("STOCK" + i);
+    }
+    return tickers;
+  }
+
+  private String csvPath(String ticker) {
+    return new File(directory, ticker + "_DAILY.csv").getPath();
+  }
+
+  @Test
+  public void importTickersSavesFilesSnapshotsAndMetadata() {
+    List<String> reported = Collections.synchronizedList(new ArrayList<>());
+
+    Map<String, String> failures = importer().importTickers(tickers(40),
+        (ticker, failure) -> reported.add(ticker));
+
+    assertTrue(failures.isEmpty());
+    assertEquals(40, reported.size());
+    assertEquals(40, opened.size());
+    assertTrue(maxInFlight.get() > 1);
+    for (String ticker : tickers(40)) {
+      assertTrue(PriceSnapshotFile.isFresh(csvPath(ticker)));
+      assertNotNull(HydrationMetadata.read(csvPath(ticker)));
+      PriceSeries series = PriceSnapshotFile.read(csvPath(ticker));
+      assertEquals(new CsvPriceReader().read(csvPath(ticker)).size(), series.size());
+      assertEquals(EpochDays.parse("2022-12-30"), series.getEpochDay(series.size() - 1));
+    }
+    assertFalse(new File(directory, BulkPriceImporter.CHECKPOINT_FILE_NAME).exists());
+  }
+
+  @Test
+  public void importTickersResumesFromCheckpoint() throws IOException {
+    List<String> tickers = new ArrayList<>(tickers(10));
+    tickers.add("BAD1");
+
+    Map<String, String> failures = importer().importTickers(tickers, (ticker, failure) -> {
+    });
+
+    assertEquals(Map.of("BAD1", "No price data found for BAD1"), failures);
+    File checkpoint = new File(directory, BulkPriceImporter.CHECKPOINT_FILE_NAME);
+    assertEquals(10, Files.readAllLines(checkpoint.toPath()).size());
+
+    opened.clear();
+    tickers.set(10, "STOCK10");
+    failures = importer().importTickers(tickers, (ticker, failure) -> {
+    });
+
+    assertTrue(failures.isEmpty());
+    assertEquals(Set.of("STOCK10"), opened);
+    assertFalse(checkpoint.exists());
+  }
+
+  @Test
+  public void readTickerListSkipsCommentsBlanksAndRepeats() throws IOException {
+    File list = new File(directory, "tickers.txt");
+    Files.writeString(list.toPath(), "# seed tickers\nAAPL\n\n GOOG , MSFT\nAAPL\r\nTSLA");
+
+    assertEquals(List.of("AAPL", "GOOG", "MSFT", "TSLA"),
+        BulkPriceImporter.readTickerList(list.getPath()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readTickerListRejectsMissingFile() {
+    BulkPriceImporter.readTickerList(new File(directory, "missing.txt").getPath());
+  }
+}
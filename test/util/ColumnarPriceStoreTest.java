@@ -0,0 +1,482 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Represents a Test class to test if behaviour of {@link ColumnarPriceStore} and
+ * {@link PriceSeries} is correct.
+ */
+public class ColumnarPriceStoreTest {
+
+  private PriceStore priceStore;
+
+  @Before
+  public void setUp() {
+    List<String[]> rows = new ArrayList<>();
+    rows.add(new String[]{"2022-11-10", "1.0", "1.0", "1.0", "3.0", "100"});
+    rows.add(new String[]{"2022-11-09", "1.0", "1.0", "1.0", "2.0", "100"});
+    rows.add(new String[]{"2022-11-08", "1.0", "1.0", "1.0", "1.0", "100"});
+    priceStore = new ColumnarPriceStore();
+    priceStore.putSeries("Stock1", new StockPriceUtil().getPriceSeries(rows, 0, 4));
+  }
+
+  @Test
+  public void getPriceSeriesSortsLatestFirstRows() {
+    PriceSeries series = priceStore.getSeries("Stock1");
+
+    assertEquals(3, series.size());
+    assertEquals(EpochDays.parse("2022-11-08"), series.getEpochDay(0));
+    assertEquals(1.0, series.getClose(0), 0.0);
+    assertEquals(3.0, series.getClose(2), 0.0);
+  }
+
+  @Test
+  public void getPriceOnDate() {
+    assertTrue(priceStore.hasPriceOnDate("Stock1", "2022-11-09"));
+    assertEquals(2.0, priceStore.getPriceOnDate("Stock1", "2022-11-09"), 0.0);
+    assertFalse(priceStore.hasPriceOnDate("Stock1", "2022-11-11"));
+    assertFalse(priceStore.hasPriceOnDate("Stock1", "2022/11/09"));
+    assertFalse(priceStore.hasPriceOnDate("Stock2", "2022-11-09"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getPriceOnDateNotPresent() {
+    priceStore.getPriceOnDate("Stock1", "2022-11-11");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getSeriesOfStockNotPresent() {
+    priceStore.getSeries("Stock2");
+  }
+
+  @Test
+  public void getPriceAsOfUsesLastPriceOnOrBeforeDate() {
+    assertEquals(2.0, priceStore.getPriceAsOf("Stock1", "2022-11-09"), 0.0);
+    assertEquals(3.0, priceStore.getPriceAsOf("Stock1", "2022-11-13"), 0.0);
+    assertEquals(3.0, priceStore.getPriceAsOf("Stock1", "2023-02-17"), 0.0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getPriceAsOfBeforeFirstTradingDay() {
+    priceStore.getPriceAsOf("Stock1", "2022-11-07");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getPriceAsOfOlderThanDefaultStalenessLimit() {
+    priceStore.getPriceAsOf("Stock1", "2023-02-18");
+  }
+
+  @Test
+  public void getPriceAsOfWithConfiguredStalenessLimit() {
+    PriceStore store = new ColumnarPriceStore(3);
+    store.putSeries("Stock1", priceStore.getSeries("Stock1"));
+
+    assertEquals(3, store.getMaxStalenessDays());
+    assertEquals(3.0, store.getPriceAsOf("Stock1", "2022-11-12"), 0.0);
+    try {
+      store.getPriceAsOf("Stock1", "2022-11-13");
+      fail("Price older than the staleness limit should not be used");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Stock values not present on any date in last 3 days from the given date",
+          e.getMessage());
+    }
+  }
+
+  @Test
+  public void floorIndex() {
+    PriceSeries series = priceStore.getSeries("Stock1");
+
+    assertEquals(-1, series.floorIndex(EpochDays.parse("2022-11-07")));
+    assertEquals(0, series.floorIndex(EpochDays.parse("2022-11-08")));
+    assertEquals(2, series.floorIndex(EpochDays.parse("2022-11-30")));
+  }
+
+  @Test
+  public void registeredSeriesIsLoadedOnFirstAccess() {
+    int[] loads = new int[1];
+    PriceSeries series = priceStore.getSeries("Stock1");
+    priceStore.registerLoader("Stock3", () -> {
+      loads[0]++;
+      return series;
+    });
+
+    assertTrue(priceStore.getTickers().contains("Stock3"));
+    assertTrue(priceStore.isRegistered("Stock3"));
+    assertFalse(priceStore.isRegistered("Unknown"));
+    assertEquals(0, loads[0]);
+    assertTrue(priceStore.containsTicker("Stock3"));
+    assertEquals(2.0, priceStore.getPriceOnDate("Stock3", "2022-11-09"), 0.0);
+    assertEquals(1, loads[0]);
+  }
+
+  @Test
+  public void failedLoadIsTreatedAsNotPresent() {
+    priceStore.registerLoader("Stock4", () -> {
+      throw new IllegalArgumentException("Csv file provided is faulty!");
+    });
+
+    assertFalse(priceStore.containsTicker("Stock4"));
+    assertFalse(priceStore.getTickers().contains("Stock4"));
+  }
+
+  @Test
+  public void prefetchLoadsInBackground() throws InterruptedException {
+    CountDownLatch loaded = new CountDownLatch(1);
+    PriceSeries series = priceStore.getSeries("Stock1");
+    priceStore.registerLoader("Stock5", () -> {
+      loaded.countDown();
+      return series;
+    });
+
+    priceStore.prefetch(List.of("Stock5", "Stock1", "Unknown"));
+
+    assertTrue(loaded.await(5, TimeUnit.SECONDS));
+    assertTrue(priceStore.containsTicker("Stock5"));
+  }
+
+  @Test
+  public void leastRecentlyUsedSeriesIsEvictedAndReloaded() {
+    PriceSeries series = priceStore.getSeries("Stock1");
+    long footprint = series.getMemoryFootprint();
+    PriceStore store = new ColumnarPriceStore(100, 2 * footprint);
+    int[] loads = new int[3];
+    for (int i = 0; i < 3; i++) {
+      int loader = i;
+      store.registerLoader("Lru" + i, () -> {
+        loads[loader]++;
+        return PriceSeries.of(Map.of("2022-11-08", 1.0, "2022-11-09", 2.0, "2022-11-10", 3.0));
+      });
+    }
+
+    store.getSeries("Lru0");
+    store.getSeries("Lru1");
+    store.getSeries("Lru0");
+    store.getSeries("Lru2");
+
+    assertEquals(1, store.getEvictionCount());
+    assertEquals(3, store.getMissCount());
+    assertEquals(1, store.getHitCount());
+    assertEquals(2 * footprint, store.getMemoryUsage());
+
+    assertEquals(2.0, store.getPriceOnDate("Lru1", "2022-11-09"), 0.0);
+    assertEquals(2, loads[1]);
+    assertEquals(1, loads[0]);
+    assertEquals(2, store.getEvictionCount());
+    assertTrue(store.getTickers().containsAll(List.of("Lru0", "Lru1", "Lru2")));
+  }
+
+  @Test
+  public void memoryUsageFollowsReplacedAndRemovedSeries() {
+    PriceSeries series = priceStore.getSeries("Stock1");
+    long footprint = series.getMemoryFootprint();
+    PriceStore store = new ColumnarPriceStore();
+    store.putSeries("Usage1", series);
+    store.registerLoader("Usage2", () -> series);
+    assertEquals(footprint, store.getMemoryUsage());
+
+    store.getSeries("Usage2");
+    assertEquals(2 * footprint, store.getMemoryUsage());
+    // the replaced series is kept, and counted, until the new one is loaded
+    store.registerLoader("Usage2", () -> series);
+    assertEquals(2 * footprint, store.getMemoryUsage());
+    store.removeSeries("Usage1");
+    assertEquals(footprint, store.getMemoryUsage());
+    assertFalse(store.getTickers().contains("Usage1"));
+    store.removeSeries("Usage2");
+    assertEquals(0, store.getMemoryUsage());
+  }
+
+  @Test
+  public void memoryUsageFollowsSeriesGrownAfterLoading() throws IOException {
+    PriceSeries series = syntheticSeries("2020-01-01", "2022-12-31");
+    PriceStore store = new ColumnarPriceStore();
+    store.registerLoader("Grown1", () -> series);
+    store.getSeries("Grown1");
+    long loaded = store.getMemoryUsage();
+    assertEquals(series.getMemoryFootprint(), loaded);
+
+    assertTrue(store.hasPriceOnDate("Grown1", "2022-11-08"));
+    store.getSeries("Grown1").getAggregated(ApiPeriod.MONTHLY);
+    store.getSeries("Grown1");
+    assertTrue(series.getMemoryFootprint() > loaded);
+    assertEquals(series.getMemoryFootprint(), store.getMemoryUsage());
+
+    store.removeSeries("Grown1");
+    assertEquals(0, store.getMemoryUsage());
+  }
+
+  @Test
+  public void grownSeriesIsEvictedWithWhatItHolds() throws IOException {
+    PriceSeries small = priceStore.getSeries("Stock1");
+    PriceSeries grown = syntheticSeries("2020-01-01", "2022-12-31");
+    PriceStore store = new ColumnarPriceStore(100,
+        grown.getMemoryFootprint() + small.getMemoryFootprint());
+    store.registerLoader("Grown2", () -> grown);
+    store.registerLoader("Small", () -> small);
+
+    store.getSeries("Grown2").getAggregated(ApiPeriod.WEEKLY);
+    store.getSeries("Grown2").getTradingCalendar();
+    // the growth is counted on the next access, the only series loaded is kept meanwhile
+    store.getSeries("Grown2");
+    assertEquals(grown.getMemoryFootprint(), store.getMemoryUsage());
+    assertEquals(0, store.getEvictionCount());
+
+    store.getSeries("Small");
+
+    assertEquals(1, store.getEvictionCount());
+    assertEquals(small.getMemoryFootprint(), store.getMemoryUsage());
+    store.removeSeries("Small");
+    assertEquals(0, store.getMemoryUsage());
+  }
+
+  @Test
+  public void seriesWithoutLoaderIsNeverEvicted() {
+    PriceSeries series = priceStore.getSeries("Stock1");
+    PriceStore store = new ColumnarPriceStore(100, 1);
+    store.putSeries("Pinned", series);
+    store.registerLoader("Loaded", () -> series);
+
+    store.getSeries("Loaded");
+
+    assertTrue(store.containsTicker("Pinned"));
+    assertEquals(0, store.getEvictionCount());
+  }
+
+  @Test
+  public void readersSeeWholeSeriesWhileItIsReplaced() throws InterruptedException {
+    PriceSeries oldSeries = PriceSeries.of(Map.of("2022-11-08", 1.0, "2022-11-09", 1.0));
+    PriceSeries newSeries = PriceSeries.of(Map.of("2022-11-08", 2.0, "2022-11-09", 2.0,
+        "2022-11-10", 2.0));
+    priceStore.putSeries("Swapped", oldSeries);
+    AtomicBoolean consistent = new AtomicBoolean(true);
+    Thread[] readers = new Thread[4];
+    for (int i = 0; i < readers.length; i++) {
+      readers[i] = new Thread(() -> {
+        for (int j = 0; j < 20000; j++) {
+          PriceSeries series = priceStore.getSeries("Swapped");
+          double first = series.getClose(0);
+          if (series.size() != (int) (first + 1) || series.getClose(series.size() - 1) != first) {
+            consistent.set(false);
+          }
+        }
+      });
+      readers[i].start();
+    }
+    for (int j = 0; j < 20000; j++) {
+      priceStore.putSeries("Swapped", j % 2 == 0 ? newSeries : oldSeries);
+    }
+    for (Thread reader : readers) {
+      reader.join();
+    }
+
+    assertTrue(consistent.get());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void memoryBudgetMustBePositive() {
+    new ColumnarPriceStore(100, 0);
+  }
+
+  @Test
+  public void epochDaysRoundTrip() {
+    assertEquals(0, EpochDays.parse("1970-01-01"));
+    assertEquals(19304, EpochDays.parse("2022-11-08"));
+    assertEquals("2020-02-29", EpochDays.format(EpochDays.parse("2020-02-29")));
+    assertEquals("1999-12-31", EpochDays.format(EpochDays.parse("1999-12-31")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void epochDaysInvalidDate() {
+    EpochDays.parse("2022-20-26");
+  }
+
+  private PriceSeries syntheticSeries(String firstDate, String lastDate) throws IOException {
+    CsvPriceReader.Parser parser = new CsvPriceReader().newParser("Stock1");
+    try (InputStream in = new SyntheticPriceSource(3, firstDate, lastDate).open("Stock1",
+        ApiPeriod.DAILY, false)) {
+      parser.feed(ByteBuffer.wrap(in.readAllBytes()));
+    }
+    return parser.finish();
+  }
+
+  @Test
+  public void getAggregatedKeepsOnePointPerPeriod() {
+    List<String[]> rows = new ArrayList<>();
+    rows.add(new String[]{"2022-12-01", "7.0", "9.0", "6.0", "8.0", "50"});
+    rows.add(new String[]{"2022-11-30", "5.0", "6.0", "4.5", "5.5", "40"});
+    rows.add(new String[]{"2022-11-25", "4.0", "5.0", "3.0", "4.5", "30"});
+    rows.add(new String[]{"2022-11-22", "2.0", "4.0", "1.0", "3.5", "20"});
+    rows.add(new String[]{"2022-11-21", "1.0", "2.0", "0.5", "1.5", "10"});
+    PriceSeries series = new StockPriceUtil().getOhlcvSeries(rows);
+
+    PriceSeries weekly = series.getAggregated(ApiPeriod.WEEKLY);
+    assertEquals(2, weekly.size());
+    assertEquals(EpochDays.parse("2022-11-25"), weekly.getEpochDay(0));
+    assertEquals(1.0, weekly.getValue(PriceColumn.OPEN, 0), 0.0);
+    assertEquals(5.0, weekly.getValue(PriceColumn.HIGH, 0), 0.0);
+    assertEquals(0.5, weekly.getValue(PriceColumn.LOW, 0), 0.0);
+    assertEquals(4.5, weekly.getClose(0), 0.0);
+    assertEquals(60.0, weekly.getValue(PriceColumn.VOLUME, 0), 0.0);
+    assertEquals(EpochDays.parse("2022-12-01"), weekly.getEpochDay(1));
+    assertEquals(5.0, weekly.getValue(PriceColumn.OPEN, 1), 0.0);
+    assertEquals(8.0, weekly.getClose(1), 0.0);
+
+    PriceSeries monthly = series.getAggregated(ApiPeriod.MONTHLY);
+    assertEquals(2, monthly.size());
+    assertEquals(EpochDays.parse("2022-11-30"), monthly.getEpochDay(0));
+    assertEquals(5.5, monthly.getClose(0), 0.0);
+    assertEquals(100.0, monthly.getValue(PriceColumn.VOLUME, 0), 0.0);
+
+    PriceSeries yearly = series.getAggregated(ApiPeriod.YEARLY);
+    assertEquals(1, yearly.size());
+    assertEquals(9.0, yearly.getValue(PriceColumn.HIGH, 0), 0.0);
+    assertTrue(yearly == series.getAggregated(ApiPeriod.YEARLY));
+    assertTrue(series == series.getAggregated(ApiPeriod.DAILY));
+  }
+
+  @Test
+  public void getPeriodEndPriceMatchesDailyLookup() throws IOException {
+    PriceStore store = new ColumnarPriceStore();
+    store.putSeries("Stock1", syntheticSeries("2019-01-01", "2022-12-31"));
+    int tickerId = TickerSymbols.find("Stock1");
+    List<int[]> periodEnds = new ArrayList<>();
+    for (LocalDate date = LocalDate.of(2018, 12, 1); date.getYear() < 2024;
+        date = date.plusDays(1)) {
+      int day = (int) date.toEpochDay();
+      if (date.getDayOfWeek() == DayOfWeek.FRIDAY) {
+        periodEnds.add(new int[]{day, ApiPeriod.WEEKLY.ordinal()});
+      }
+      if (date.getDayOfMonth() == date.lengthOfMonth()) {
+        periodEnds.add(new int[]{day, ApiPeriod.MONTHLY.ordinal()});
+      }
+      if (date.getDayOfYear() == date.lengthOfYear()) {
+        periodEnds.add(new int[]{day, ApiPeriod.YEARLY.ordinal()});
+      }
+    }
+
+    for (int[] periodEnd : periodEnds) {
+      ApiPeriod period = ApiPeriod.values()[periodEnd[1]];
+      Double expected;
+      try {
+        expected = store.getPriceAsOf(tickerId, periodEnd[0]);
+      } catch (IllegalArgumentException e) {
+        expected = null;
+      }
+      Double actual;
+      try {
+        actual = store.getPeriodEndPrice(tickerId, periodEnd[0], period);
+      } catch (IllegalArgumentException e) {
+        actual = null;
+      }
+      assertEquals(EpochDays.format(periodEnd[0]) + " " + period, expected, actual);
+    }
+  }
+
+  @Test
+  public void replacedSeriesExtendsAggregatesOfPreviousSeries() throws IOException {
+    PriceSeries full = syntheticSeries("2020-01-01", "2022-12-31");
+    PriceSeries older = syntheticSeries("2020-01-01", "2022-11-16");
+    PriceStore store = new ColumnarPriceStore();
+    store.putSeries("Stock1", older);
+    older.getAggregated(ApiPeriod.MONTHLY);
+    older.getAggregated(ApiPeriod.WEEKLY);
+
+    PriceSeries reloaded = syntheticSeries("2020-01-01", "2022-12-31");
+    store.registerLoader("Stock1", () -> reloaded);
+    PriceSeries refreshed = store.getSeries("Stock1");
+
+    assertTrue(refreshed.isAggregateBuilt(ApiPeriod.MONTHLY));
+    assertTrue(refreshed.isAggregateBuilt(ApiPeriod.WEEKLY));
+    assertFalse(refreshed.isAggregateBuilt(ApiPeriod.YEARLY));
+    for (ApiPeriod period : List.of(ApiPeriod.WEEKLY, ApiPeriod.MONTHLY)) {
+      PriceSeries expected = full.getAggregated(period);
+      PriceSeries actual = refreshed.getAggregated(period);
+      assertEquals(expected.size(), actual.size());
+      for (int i = 0; i < expected.size(); i++) {
+        assertEquals(expected.getEpochDay(i), actual.getEpochDay(i));
+        for (PriceColumn column : PriceColumn.values()) {
+          assertEquals(expected.getValue(column, i), actual.getValue(column, i), 0.0);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void rewrittenSeriesRebuildsAggregatesOfPreviousSeries() throws IOException {
+    PriceSeries older = syntheticSeries("2020-01-01", "2022-11-16");
+    PriceStore store = new ColumnarPriceStore();
+    store.putSeries("Stock1", older);
+    older.getAggregated(ApiPeriod.MONTHLY);
+    // the prices of the first months are adjusted, while the last day and close stay the same
+    int adjusted = older.floorIndex(EpochDays.parse("2020-03-31")) + 1;
+    int[] days = new int[older.size()];
+    double[][] columns = new double[PriceColumn.values().length][older.size()];
+    for (int i = 0; i < older.size(); i++) {
+      days[i] = older.getEpochDay(i);
+      for (PriceColumn column : PriceColumn.values()) {
+        double value = older.getValue(column, i);
+        columns[column.ordinal()][i] = i < adjusted && column != PriceColumn.VOLUME
+            ? value / 2 : value;
+      }
+    }
+    PriceSeries rewritten = PriceSeries.ofColumns(days, columns);
+
+    store.registerLoader("Stock1", () -> rewritten);
+    PriceSeries refreshed = store.getSeries("Stock1");
+
+    assertFalse(refreshed.isAggregateBuilt(ApiPeriod.MONTHLY));
+    PriceSeries monthly = refreshed.getAggregated(ApiPeriod.MONTHLY);
+    assertEquals(rewritten.getClose(adjusted - 1), monthly.getClose(2), 0.0);
+    assertEquals(older.getAggregated(ApiPeriod.MONTHLY).getClose(2) / 2, monthly.getClose(2),
+        0.0);
+  }
+
+  @Test
+  public void appendedSeriesExtendsAggregates() throws IOException {
+    PriceSeries full = syntheticSeries("2022-01-01", "2022-09-30");
+    int split = full.floorIndex(EpochDays.parse("2022-06-15")) + 1;
+    PriceSeries older = slice(full, 0, split);
+    older.getAggregated(ApiPeriod.YEARLY);
+
+    PriceSeries appended = older.appendedWith(slice(full, split, full.size()));
+
+    assertTrue(appended.isAggregateBuilt(ApiPeriod.YEARLY));
+    assertFalse(appended.isAggregateBuilt(ApiPeriod.MONTHLY));
+    PriceSeries yearly = appended.getAggregated(ApiPeriod.YEARLY);
+    assertEquals(1, yearly.size());
+    assertEquals(full.getEpochDay(full.size() - 1), yearly.getEpochDay(0));
+    assertEquals(full.getClose(full.size() - 1), yearly.getClose(0), 0.0);
+    assertEquals(full.getAggregated(ApiPeriod.YEARLY).getValue(PriceColumn.VOLUME, 0),
+        yearly.getValue(PriceColumn.VOLUME, 0), 0.0);
+  }
+
+  // copies the trading days of a series in a range of indices
+  private PriceSeries slice(PriceSeries series, int from, int to) {
+    int[] days = new int[to - from];
+    double[][] columns = new double[PriceColumn.values().length][to - from];
+    for (int i = from; i < to; i++) {
+      days[i - from] = series.getEpochDay(i);
+      for (PriceColumn column : PriceColumn.values()) {
+        columns[column.ordinal()][i - from] = series.getValue(column, i);
+      }
+    }
+    return PriceSeries.ofColumns(days, columns);
+  }
+}
@@ -0,0 +1,157 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Represents a Test class to test if behaviour of {@link ConcurrentHydrationService} is correct.
+ * The API is stood in for by a local server that answers slowly and tracks how many requests it
+ * serves at once.
+ */
+public class ConcurrentHydrationServiceTest {
+
+  private HttpServer server;
+  private File directory;
+  private String apiUrl;
+  private AtomicInteger inFlight;
+  private AtomicInteger maxInFlight;
+  private AtomicInteger requests;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("hydration").toFile();
+    inFlight = new AtomicInteger();
+    maxInFlight = new AtomicInteger();
+    requests = new AtomicInteger();
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/query", exchange -> {
+      requests.incrementAndGet();
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(200);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      String response = exchange.getRequestURI().getQuery().contains("symbol=Unknown")
+          ? "{\"Error Message\": \"Invalid API call.\"}"
+          : "timestamp,open,high,low,close,volume\n2022-11-10,1.0,1.0,1.0,3.5,100\n";
+      byte[] body = response.getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+      inFlight.decrementAndGet();
+    });
+    server.start();
+    apiUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/query";
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+    for (File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  private HydrationService service(TokenBucketRateLimiter rateLimiter) {
+    String stockPriceDataDirectory = directory.getPath() + "/";
+    StockUtil stockUtil = new StockPriceUtil(new AlphavantagePriceSource("key", apiUrl,
+        rateLimiter), stockPriceDataDirectory);
+    return new ConcurrentHydrationService(stockUtil::fetchStockData);
+  }
+
+  @Test
+  public void hydrateAllFetchesConcurrently() {
+    PriceStore priceStore = new ColumnarPriceStore();
+
+    Map<String, String> failures = service(new TokenBucketRateLimiter(100, Duration.ofSeconds(1)))
+        .hydrateAll(List.of("Hyd1", "Hyd2", "Hyd3", "Hyd4", "Hyd5", "Hyd6"), priceStore);
+
+    assertTrue(failures.isEmpty());
+    assertTrue(maxInFlight.get() > 1);
+    for (int i = 1; i <= 6; i++) {
+      assertEquals(3.5, priceStore.getPriceOnDate("Hyd" + i, "2022-11-10"), 0.0);
+    }
+  }
+
+  @Test
+  public void hydrateAllReportsFailuresPerTicker() {
+    PriceStore priceStore = new ColumnarPriceStore();
+
+    Map<String, String> failures = service(new TokenBucketRateLimiter(100, Duration.ofSeconds(1)))
+        .hydrateAll(List.of("Hyd1", "Unknown", "Hyd2"), priceStore);
+
+    assertEquals(1, failures.size());
+    assertEquals("No price data found for Unknown", failures.get("Unknown"));
+    assertTrue(priceStore.containsTicker("Hyd1"));
+    assertTrue(priceStore.containsTicker("Hyd2"));
+    assertFalse(priceStore.containsTicker("Unknown"));
+  }
+
+  @Test
+  public void hydrateAllSkipsStoredTickers() {
+    PriceStore priceStore = new ColumnarPriceStore();
+    priceStore.putSeries("Hyd1", PriceSeries.of(Map.of("2022-11-10", 1.0)));
+
+    service(new TokenBucketRateLimiter(100, Duration.ofSeconds(1)))
+        .hydrateAll(List.of("Hyd1", "Hyd2", "Hyd2"), priceStore);
+
+    assertEquals(1, requests.get());
+    assertEquals(1.0, priceStore.getPriceOnDate("Hyd1", "2022-11-10"), 0.0);
+  }
+
+  @Test
+  public void hydrateAllSkipsRegisteredTickersWithoutLoading() {
+    PriceStore priceStore = new ColumnarPriceStore();
+    AtomicInteger loads = new AtomicInteger();
+    priceStore.registerLoader("Hyd3", () -> {
+      loads.incrementAndGet();
+      return PriceSeries.of(Map.of("2022-11-10", 1.0));
+    });
+
+    service(new TokenBucketRateLimiter(100, Duration.ofSeconds(1)))
+        .hydrateAll(List.of("Hyd3", "Hyd4"), priceStore);
+
+    assertEquals(1, requests.get());
+    assertEquals(0, loads.get());
+  }
+
+  @Test
+  public void hydrateAllRespectsRateLimit() {
+    long start = System.nanoTime();
+
+    service(new TokenBucketRateLimiter(2, Duration.ofMillis(600)))
+        .hydrateAll(List.of("Hyd1", "Hyd2", "Hyd3", "Hyd4"), new ColumnarPriceStore());
+
+    // two calls are allowed at once, the other two wait 300ms and 600ms for their permits
+    assertTrue(System.nanoTime() - start >= 550_000_000L);
+    assertEquals(4, requests.get());
+  }
+
+  @Test(expected = CompletionException.class)
+  public void hydrateAsyncCompletesExceptionallyOnFailure() {
+    service(new TokenBucketRateLimiter(100, Duration.ofSeconds(1)))
+        .hydrateAsync("Unknown", new ColumnarPriceStore()).join();
+  }
+}
@@ -0,0 +1,187 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Represents a Test class to test if behaviour of {@link CsvPriceReader} is correct.
+ */
+public class CsvPriceReaderTest {
+
+  private static final String CACHE_DIRECTORY = "test/resources/stock_value_data_cache/";
+
+  private File directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("csvreader").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    for (File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  private String writeCsv(String name, String content) throws IOException {
+    File file = new File(directory, name);
+    try (FileWriter writer = new FileWriter(file)) {
+      writer.write(content);
+    }
+    return file.getPath();
+  }
+
+  private void assertSameSeries(PriceSeries expected, PriceSeries actual) {
+    assertEquals(expected.size(), actual.size());
+    for (PriceColumn column : PriceColumn.values()) {
+      assertEquals(expected.hasColumn(column), actual.hasColumn(column));
+    }
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.getEpochDay(i), actual.getEpochDay(i));
+      for (PriceColumn column : PriceColumn.values()) {
+        if (expected.hasColumn(column)) {
+          assertEquals(expected.getValue(column, i), actual.getValue(column, i), 0.0);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void readMatchesParsedRowsOfCacheFiles() {
+    File[] files = new File(CACHE_DIRECTORY).listFiles((dir, name) -> name.endsWith(".csv"));
+    assertTrue(files.length > 0);
+    for (File file : files) {
+      PriceSeries expected = new StockPriceUtil().getOhlcvSeries(
+          new CsvFileUtil().readFile(file.getPath()));
+      assertSameSeries(expected, new CsvPriceReader().read(file.getPath()));
+    }
+  }
+
+  @Test
+  public void readSortsRowsAndKeepsLastRowOfDay() throws IOException {
+    String path = writeCsv("Stock1_DAILY.csv", "timestamp,open,high,low,close,volume\r\n"
+        + "2022-11-08,1.0,1.1,0.9,1.5,100\r\n"
+        + "2022-11-10,3.0,3.1,2.9,3.5,300\r\n"
+        + "\r\n"
+        + "2022-11-08,2.0,2.1,1.9,2.5,200\r\n"
+        + "2022-11-09,-0.125,1e2,0.000001,123456789.0123456789,0");
+
+    PriceSeries series = new CsvPriceReader().read(path);
+
+    assertEquals(3, series.size());
+    assertEquals(EpochDays.parse("2022-11-08"), series.getEpochDay(0));
+    assertEquals(2.5, series.getClose(0), 0.0);
+    assertEquals(200, series.getValue(PriceColumn.VOLUME, 0), 0.0);
+    assertEquals(-0.125, series.getValue(PriceColumn.OPEN, 1), 0.0);
+    assertEquals(100.0, series.getValue(PriceColumn.HIGH, 1), 0.0);
+    assertEquals(0.000001, series.getValue(PriceColumn.LOW, 1), 0.0);
+    assertEquals(123456789.0123456789, series.getClose(1), 0.0);
+    assertEquals(3.5, series.getClose(2), 0.0);
+  }
+
+  @Test
+  public void readParsesNumbersLikeDoubleParse() throws IOException {
+    StringBuilder content = new StringBuilder("timestamp,open,high,low,close,volume\n");
+    List<String> values = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      values.add(String.valueOf(Math.random() * Math.pow(10, i % 12)));
+      values.add(String.format(Locale.ROOT, "%.4f", Math.random() * 1000));
+    }
+    for (int i = 0; i < values.size(); i++) {
+      content.append(EpochDays.format(19000 - i)).append(",1,1,1,").append(values.get(i))
+          .append(",1\n");
+    }
+    PriceSeries series = new CsvPriceReader().read(writeCsv("Stock1_DAILY.csv",
+        content.toString()));
+
+    for (int i = 0; i < values.size(); i++) {
+      assertEquals(Double.parseDouble(values.get(i)), series.getClose(values.size() - 1 - i),
+          0.0);
+    }
+  }
+
+  @Test
+  public void readKeepsOnlyClosesWhenVolumeIsMissing() throws IOException {
+    String path = writeCsv("Stock1_DAILY.csv", "timestamp,open,high,low,close,volume\n"
+        + "2022-11-10,1.0,1.0,1.0,3.5,100\n"
+        + "2022-11-09,1.0,1.0,1.0,2.5\n");
+
+    PriceSeries series = new CsvPriceReader().read(path);
+
+    assertEquals(2, series.size());
+    assertTrue(series.hasColumn(PriceColumn.CLOSE));
+    assertFalse(series.hasColumn(PriceColumn.VOLUME));
+    assertEquals(2.5, series.getClose(0), 0.0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readRejectsMissingClose() throws IOException {
+    new CsvPriceReader().read(writeCsv("Stock1_DAILY.csv", "timestamp,open,high,low,close\n"
+        + "2022-11-10,1.0,1.0,1.0\n"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readRejectsInvalidDate() throws IOException {
+    new CsvPriceReader().read(writeCsv("Stock1_DAILY.csv", "timestamp,open,high,low,close\n"
+        + "2022-13-10,1.0,1.0,1.0,1.0\n"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readRejectsInvalidNumber() throws IOException {
+    new CsvPriceReader().read(writeCsv("Stock1_DAILY.csv", "timestamp,open,high,low,close\n"
+        + "2022-11-10,1.0,1.0,1.0,abc\n"));
+  }
+
+  @Test
+  public void feedReportsStockAndLineOfInvalidNumber() {
+    CsvPriceReader.Parser parser = new CsvPriceReader().newParser("Stock1");
+    try {
+      parser.feed(ByteBuffer.wrap(("timestamp,open,high,low,close\n"
+          + "2022-11-10,1.0,1.0,1.0,1.0\n"
+          + "2022-11-09,1.0,1.0,1.0,1e\n").getBytes(StandardCharsets.US_ASCII)));
+      fail("Invalid number should not be parsed");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Price '1e' of Stock1 is not a number on line 3", e.getMessage());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readRejectsMissingFile() {
+    new CsvPriceReader().read(new File(directory, "Unknown_DAILY.csv").getPath());
+  }
+
+  @Test
+  public void readAllSkipsFaultyFiles() throws IOException {
+    List<String> paths = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      paths.add(writeCsv("Stock" + i + "_DAILY.csv", "timestamp,open,high,low,close,volume\n"
+          + "2022-11-10,1.0,1.0,1.0," + i + ",100\n"));
+    }
+    paths.add(writeCsv("Faulty_DAILY.csv", "{\"Error Message\": \"Invalid API call.\"}\nabc\n"));
+
+    Map<String, PriceSeries> seriesByPath = new CsvPriceReader().readAll(paths);
+
+    assertEquals(20, seriesByPath.size());
+    for (int i = 0; i < 20; i++) {
+      assertEquals(i, seriesByPath.get(paths.get(i)).getClose(0), 0.0);
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Represents a Test class to test if behaviour of {@link EndOfDayRefreshScheduler} is correct.
+ */
+public class EndOfDayRefreshSchedulerTest {
+
+  private static final String HEADER = "timestamp,open,high,low,close,volume\n";
+  private static final ZoneId ZONE = EndOfDayRefreshScheduler.MARKET_ZONE;
+
+  private File directory;
+  private Map<String, Boolean> compactOpens;
+  private PriceStore priceStore;
+  private StockUtil stockUtil;
+  private EndOfDayRefreshScheduler scheduler;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("refresh").toFile();
+    compactOpens = new ConcurrentHashMap<>();
+    PriceSource source = new PriceSource() {
+      @Override
+      public String getName() {
+        return "test";
+      }
+
+      @Override
+      public InputStream open(String stockName, ApiPeriod period, boolean compact) {
+        if (stockName.equals("Bad") && compact) {
+          throw new IllegalArgumentException("No price data found for Bad");
+        }
+        String rows = compact ? row(0, 3.0) + row(1, 2.0) : row(1, 2.0) + row(2, 1.0);
+        if (compact) {
+          compactOpens.put(stockName, true);
+        }
+        return new ByteArrayInputStream((HEADER + rows).getBytes(StandardCharsets.US_ASCII));
+      }
+    };
+    stockUtil = new StockPriceUtil(source, directory.getPath() + "/");
+    priceStore = new ColumnarPriceStore();
+  }
+
+  @After
+  public void tearDown() {
+    if (scheduler != null) {
+      scheduler.stop();
+    }
+    for (File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  private String row(int daysAgo, double close) {
+    return LocalDate.now().minusDays(daysAgo) + ",1.0,1.0,1.0," + close + ",100\n";
+  }
+
+  private Instant at(String dateTime) {
+    return LocalDateTime.parse(dateTime).atZone(ZONE).toInstant();
+  }
+
+  @Test
+  public void refreshNowReplacesHistoriesOfHeldStocks() throws Exception {
+    for (String ticker : List.of("Stock1", "Stock2")) {
+      stockUtil.fetchStockData(ticker, priceStore);
+      assertEquals(2, priceStore.getSeries(ticker).size());
+    }
+    scheduler = new EndOfDayRefreshScheduler(stockUtil, priceStore, priceStore::getTickers);
+    List<Set<String>> notified = Collections.synchronizedList(new ArrayList<>());
+    scheduler.addRefreshListener(notified::add);
+
+    RefreshStatus status = scheduler.refreshNow().get(10, TimeUnit.SECONDS);
+
+    assertEquals(RefreshStatus.State.IDLE, status.getState());
+    assertEquals(2, status.getTickerCount());
+    assertEquals(2, status.getCompletedCount());
+    assertTrue(status.getFailures().isEmpty());
+    assertNotNull(status.getLastFinished());
+    assertEquals(Set.of("Stock1", "Stock2"), compactOpens.keySet());
+    for (String ticker : List.of("Stock1", "Stock2")) {
+      PriceSeries series = priceStore.getSeries(ticker);
+      assertEquals(3, series.size());
+      assertEquals(3.0, series.getClose(2), 0.0);
+    }
+    assertEquals(List.of(Set.of("Stock1", "Stock2")), notified);
+    assertEquals(status.toString(), scheduler.getStatus().toString());
+  }
+
+  @Test
+  public void refreshNowReportsFailuresAndKeepsPreviousHistory() throws Exception {
+    stockUtil.fetchStockData("Stock1", priceStore);
+    stockUtil.fetchStockData("Bad", priceStore);
+    scheduler = new EndOfDayRefreshScheduler(stockUtil, priceStore, priceStore::getTickers);
+    List<Set<String>> notified = Collections.synchronizedList(new ArrayList<>());
+    scheduler.addRefreshListener(notified::add);
+
+    RefreshStatus status = scheduler.refreshNow().get(10, TimeUnit.SECONDS);
+
+    assertEquals(2, status.getCompletedCount());
+    assertEquals(Map.of("Bad", "No price data found for Bad"), status.getFailures());
+    assertEquals(2, priceStore.getSeries("Bad").size());
+    assertEquals(3, priceStore.getSeries("Stock1").size());
+    assertEquals(List.of(Set.of("Stock1")), notified);
+    assertTrue(status.toString().contains("failed for [Bad]"));
+  }
+
+  @Test
+  public void nextRefreshRunsAfterCloseOnWeekdays() {
+    scheduler = new EndOfDayRefreshScheduler(stockUtil, priceStore, Set::of, LocalTime.of(16, 30),
+        Clock.system(ZONE));
+
+    // Wednesday before and after the refresh time
+    assertEquals(at("2026-10-14T16:30"), scheduler.nextRefreshAfter(at("2026-10-14T09:00")));
+    assertEquals(at("2026-10-15T16:30"), scheduler.nextRefreshAfter(at("2026-10-14T16:30")));
+    // Friday evening and Saturday run on Monday
+    assertEquals(at("2026-10-19T16:30"), scheduler.nextRefreshAfter(at("2026-10-16T18:00")));
+    assertEquals(at("2026-10-19T16:30"), scheduler.nextRefreshAfter(at("2026-10-17T10:00")));
+  }
+
+  @Test
+  public void startSchedulesAndStopCancelsRefresh() {
+    scheduler = new EndOfDayRefreshScheduler(stockUtil, priceStore, Set::of);
+    assertNull(scheduler.getStatus().getNextRun());
+
+    scheduler.start();
+    Instant nextRun = scheduler.getStatus().getNextRun();
+    assertNotNull(nextRun);
+    assertTrue(nextRun.isAfter(Instant.now()));
+
+    scheduler.stop();
+    assertNull(scheduler.getStatus().getNextRun());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void refreshNowFailsOnceStopped() {
+    scheduler = new EndOfDayRefreshScheduler(stockUtil, priceStore, Set::of);
+    scheduler.stop();
+    scheduler.refreshNow();
+  }
+}
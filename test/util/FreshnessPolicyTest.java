@@ -0,0 +1,85 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import org.junit.Test;
+
+/**
+ * Represents a Test class to test if behaviour of {@link FreshnessPolicy} is correct.
+ */
+public class FreshnessPolicyTest {
+
+  // a Monday, whose last completed weekday is the Friday before
+  private static final LocalDate TODAY = LocalDate.of(2026, 10, 12);
+  private static final Instant NOW = TODAY.atTime(12, 0).toInstant(ZoneOffset.UTC);
+  private static final FreshnessPolicy POLICY = new FreshnessPolicy(
+      Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofHours(12));
+
+  private String daysAgo(int days) {
+    return TODAY.minusDays(days).toString();
+  }
+
+  private HydrationMetadata metadata(String lastBarDate, Duration age) {
+    return new HydrationMetadata(lastBarDate, NOW.minus(age), "source");
+  }
+
+  @Test
+  public void decideRefetchesWithoutSavedData() {
+    assertEquals(FreshnessPolicy.Decision.REFETCH, POLICY.decide(null, null, "source"));
+  }
+
+  @Test
+  public void decideReusesDataHoldingLastCompletedWeekday() {
+    assertEquals(FreshnessPolicy.Decision.REUSE, POLICY.decide(daysAgo(3),
+        metadata(daysAgo(3), Duration.ofDays(2)), "source"));
+  }
+
+  @Test
+  public void decideReusesRecentlyFetchedData() {
+    assertEquals(FreshnessPolicy.Decision.REUSE, POLICY.decide(daysAgo(400),
+        metadata(daysAgo(400), Duration.ofHours(11)), "source"));
+  }
+
+  @Test
+  public void decideRefreshesStaleData() {
+    assertEquals(FreshnessPolicy.Decision.DELTA, POLICY.decide(daysAgo(4),
+        metadata(daysAgo(4), Duration.ofHours(12)), "source"));
+    assertEquals(FreshnessPolicy.Decision.DELTA, POLICY.decide(daysAgo(100),
+        metadata(daysAgo(100), Duration.ofDays(1)), "source"));
+    assertEquals(FreshnessPolicy.Decision.REFETCH, POLICY.decide(daysAgo(101),
+        metadata(daysAgo(101), Duration.ofDays(1)), "source"));
+  }
+
+  @Test
+  public void decideNeverReusesDataWithoutMatchingMetadata() {
+    assertEquals(FreshnessPolicy.Decision.DELTA, POLICY.decide(daysAgo(3), null, "source"));
+    assertEquals(FreshnessPolicy.Decision.DELTA, POLICY.decide(daysAgo(3),
+        metadata(daysAgo(4), Duration.ZERO), "source"));
+    assertEquals(FreshnessPolicy.Decision.REFETCH, POLICY.decide(daysAgo(200), null, "source"));
+  }
+
+  @Test
+  public void decideRefetchesDataOfAnotherSource() {
+    assertEquals(FreshnessPolicy.Decision.REFETCH, POLICY.decide(daysAgo(3),
+        metadata(daysAgo(3), Duration.ZERO), "another source"));
+  }
+
+  @Test
+  public void decideWithoutReuseRefreshesFreshData() {
+    FreshnessPolicy policy = POLICY.withoutReuse();
+    assertEquals(FreshnessPolicy.Decision.DELTA, policy.decide(daysAgo(3),
+        metadata(daysAgo(3), Duration.ZERO), "source"));
+    assertEquals(FreshnessPolicy.Decision.REFETCH, policy.decide(daysAgo(400),
+        metadata(daysAgo(400), Duration.ZERO), "source"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructorRejectsNegativeReuseWindow() {
+    new FreshnessPolicy(Clock.systemUTC(), Duration.ofHours(-1));
+  }
+}
@@ -0,0 +1,69 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Represents a Test class to test if behaviour of {@link HydrationMetadata} is correct.
+ */
+public class HydrationMetadataTest {
+
+  private File directory;
+  private String csvPath;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("metadata").toFile();
+    csvPath = new File(directory, "Stock1_DAILY.csv").getPath();
+  }
+
+  @After
+  public void tearDown() {
+    for (File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  @Test
+  public void writeAndReadMetadata() {
+    Instant fetchedAt = Instant.parse("2022-11-10T18:30:00Z");
+    new HydrationMetadata("2022-11-09", fetchedAt, "alphavantage").write(csvPath);
+
+    HydrationMetadata metadata = HydrationMetadata.read(csvPath);
+
+    assertEquals("2022-11-09", metadata.getLastBarDate());
+    assertEquals(fetchedAt, metadata.getFetchedAt());
+    assertEquals("alphavantage", metadata.getSource());
+    assertEquals(1, directory.listFiles().length);
+  }
+
+  @Test
+  public void metadataPathReplacesExtension() {
+    assertEquals("res/stock_value_data/AAPL_DAILY.meta",
+        HydrationMetadata.metadataPathOf("res/stock_value_data/AAPL_DAILY.csv"));
+  }
+
+  @Test
+  public void readReturnsNullWithoutValidMetadata() throws IOException {
+    assertNull(HydrationMetadata.read(csvPath));
+    try (FileWriter writer = new FileWriter(HydrationMetadata.metadataPathOf(csvPath))) {
+      writer.write("lastBarDate=2022-13-01\nfetchedAt=2022-11-10T18:30:00Z\nsource=a\n");
+    }
+    assertNull(HydrationMetadata.read(csvPath));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructorRejectsInvalidDate() {
+    new HydrationMetadata("2022-11-31", Instant.now(), "alphavantage");
+  }
+}
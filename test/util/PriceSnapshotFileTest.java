@@ -0,0 +1,146 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Represents a Test class to test if behaviour of {@link PriceSnapshotFile},
+ * {@link PriceSnapshotConverter} and the lazily loaded columns of {@link PriceSeries} is correct.
+ */
+public class PriceSnapshotFileTest {
+
+  private File directory;
+  private String csvPath;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("snapshot").toFile();
+    csvPath = new File(directory, "Stock1_DAILY.csv").getPath();
+    writeCsv("timestamp,open,high,low,close,volume\n"
+        + "2022-11-10,1.0,1.0,1.0,3.5,100\n"
+        + "2022-11-09,1.0,1.0,1.0,2.5,100\n"
+        + "2022-11-08,1.0,1.0,1.0,1.5,100\n");
+  }
+
+  @After
+  public void tearDown() {
+    for (File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  private void writeCsv(String content) throws IOException {
+    try (FileWriter writer = new FileWriter(csvPath)) {
+      writer.write(content);
+    }
+  }
+
+  @Test
+  public void loadPriceSeriesWritesSnapshot() {
+    assertFalse(PriceSnapshotFile.isFresh(csvPath));
+
+    PriceSeries fromCsv = new StockPriceUtil().loadPriceSeries(csvPath);
+
+    assertTrue(PriceSnapshotFile.isFresh(csvPath));
+    PriceSeries fromSnapshot = PriceSnapshotFile.read(csvPath);
+    assertEquals(3, fromSnapshot.size());
+    for (int i = 0; i < fromCsv.size(); i++) {
+      assertEquals(fromCsv.getEpochDay(i), fromSnapshot.getEpochDay(i));
+      assertEquals(fromCsv.getClose(i), fromSnapshot.getClose(i), 0.0);
+    }
+    assertEquals(EpochDays.parse("2022-11-08"), fromSnapshot.getEpochDay(0));
+    assertEquals(3.5, fromSnapshot.getClose(2), 0.0);
+  }
+
+  @Test
+  public void snapshotIsStaleWhenCsvChanges() throws IOException {
+    new StockPriceUtil().loadPriceSeries(csvPath);
+    writeCsv("timestamp,open,high,low,close,volume\n"
+        + "2022-11-11,1.0,1.0,1.0,4.5,100\n"
+        + "2022-11-10,1.0,1.0,1.0,3.5,100\n"
+        + "2022-11-09,1.0,1.0,1.0,2.5,100\n"
+        + "2022-11-08,1.0,1.0,1.0,1.5,100\n");
+
+    assertFalse(PriceSnapshotFile.isFresh(csvPath));
+    assertEquals(1, PriceSnapshotConverter.convertStale(directory.getPath()));
+    assertTrue(PriceSnapshotFile.isFresh(csvPath));
+    assertEquals(4, PriceSnapshotFile.read(csvPath).size());
+    assertEquals(0, PriceSnapshotConverter.convertStale(directory.getPath()));
+  }
+
+  @Test
+  public void faultySnapshotFallsBackToCsv() throws IOException {
+    try (FileWriter writer = new FileWriter(PriceSnapshotFile.snapshotPathOf(csvPath))) {
+      writer.write("not a snapshot at all, just some text");
+    }
+
+    PriceSeries series = new StockPriceUtil().loadPriceSeries(csvPath);
+
+    assertEquals(3, series.size());
+    assertTrue(PriceSnapshotFile.isFresh(csvPath));
+  }
+
+  @Test
+  public void otherColumnsAreLoadedOnFirstUse() throws IOException {
+    writeCsv("timestamp,open,high,low,close,volume\n"
+        + "2022-11-09,2.0,2.75,1.75,2.5,2000\n"
+        + "2022-11-08,1.0,1.75,0.75,1.5,1000\n");
+
+    PriceSeries series = new StockPriceUtil().loadPriceSeries(csvPath);
+
+    assertTrue(series.isColumnLoaded(PriceColumn.CLOSE));
+    assertFalse(series.isColumnLoaded(PriceColumn.HIGH));
+    assertFalse(series.isColumnLoaded(PriceColumn.VOLUME));
+    assertEquals(2.75, series.getValue(PriceColumn.HIGH, 1), 0.0);
+    assertTrue(series.isColumnLoaded(PriceColumn.HIGH));
+    assertFalse(series.isColumnLoaded(PriceColumn.LOW));
+    assertEquals(1.0, series.getValue(PriceColumn.OPEN, 0), 0.0);
+    assertEquals(0.75, series.getValue(PriceColumn.LOW, 0), 0.0);
+    assertEquals(2000, series.getValue(PriceColumn.VOLUME, 1), 0.0);
+    assertEquals(series.getClose(1), series.getValue(PriceColumn.CLOSE, 1), 0.0);
+  }
+
+  @Test
+  public void closeOnlyRowsHaveNoOtherColumns() {
+    List<String[]> rows = new ArrayList<>();
+    rows.add(new String[]{"2022-11-09", "1.0", "1.0", "1.0", "2.5"});
+    rows.add(new String[]{"2022-11-08", "1.0", "1.0", "1.0", "1.5"});
+
+    PriceSeries series = new StockPriceUtil().getOhlcvSeries(rows);
+
+    assertTrue(series.hasColumn(PriceColumn.CLOSE));
+    assertFalse(series.hasColumn(PriceColumn.VOLUME));
+    assertEquals(2.5, series.getClose(1), 0.0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readMissingColumn() {
+    PriceSeries series = PriceSeries.of(Map.of("2022-11-08", 1.0));
+
+    series.getValue(PriceColumn.OPEN, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readMissingSnapshot() {
+    PriceSnapshotFile.read(csvPath);
+  }
+
+  @Test
+  public void snapshotPathOf() {
+    assertEquals("res/cache/AAPL_DAILY.snap",
+        PriceSnapshotFile.snapshotPathOf("res/cache/AAPL_DAILY.csv"));
+  }
+}
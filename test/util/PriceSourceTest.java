@@ -0,0 +1,112 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.Test;
+
+/**
+ * Represents a Test class to test if behaviour of {@link DirectoryPriceSource} and
+ * {@link SyntheticPriceSource} is correct.
+ */
+public class PriceSourceTest {
+
+  private static final String CACHE_DIRECTORY = "test/resources/stock_value_data_cache/";
+
+  private String read(PriceSource source, String stockName, boolean compact) throws IOException {
+    try (InputStream in = source.open(stockName, ApiPeriod.DAILY, compact)) {
+      return new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+    }
+  }
+
+  @Test
+  public void directorySourceReplaysWholeFile() throws IOException {
+    File file = new File(CACHE_DIRECTORY).listFiles((dir, name) -> name.endsWith("_DAILY.csv"))[0];
+    String stockName = file.getName().substring(0, file.getName().length() - 10);
+
+    String replayed = read(new DirectoryPriceSource(CACHE_DIRECTORY), stockName, false);
+
+    assertEquals(Files.readString(file.toPath()), replayed);
+  }
+
+  @Test
+  public void directorySourceReplaysCompactWindow() throws IOException {
+    File file = new File(CACHE_DIRECTORY).listFiles((dir, name) -> name.endsWith("_DAILY.csv"))[0];
+    String stockName = file.getName().substring(0, file.getName().length() - 10);
+
+    String[] lines = read(new DirectoryPriceSource(CACHE_DIRECTORY), stockName, true).split("\n");
+
+    assertTrue(lines[0].startsWith("timestamp"));
+    assertEquals(Math.min(PriceSource.COMPACT_SIZE + 1,
+        Files.readAllLines(file.toPath()).size()), lines.length);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void directorySourceRejectsUnknownStock() {
+    new DirectoryPriceSource(CACHE_DIRECTORY).open("Unknown", ApiPeriod.DAILY, false);
+  }
+
+  @Test
+  public void syntheticSourceIsDeterministic() throws IOException {
+    PriceSource source = new SyntheticPriceSource(7, "2022-01-03", "2022-12-30");
+
+    String first = read(source, "Stock1", false);
+
+    assertEquals(first, read(new SyntheticPriceSource(7, "2022-01-03", "2022-12-30"),
+        "Stock1", false));
+    assertNotEquals(first, read(source, "Stock2", false));
+    assertNotEquals(first, read(new SyntheticPriceSource(8, "2022-01-03", "2022-12-30"),
+        "Stock1", false));
+  }
+
+  @Test
+  public void openEndedSyntheticSourceOnlyExtendsForward() throws IOException {
+    PriceSource source = new SyntheticPriceSource(7);
+    PriceSource bounded = new SyntheticPriceSource(7, "2000-01-03", "2022-12-30");
+
+    String history = read(bounded, "Stock1", false);
+
+    assertEquals("synthetic:7:2000-01-03", source.getName());
+    assertEquals(source.getName(), new SyntheticPriceSource(7).getName());
+    assertTrue(read(source, "Stock1", false).endsWith(
+        history.substring(history.indexOf('\n') + 1)));
+  }
+
+  @Test
+  public void syntheticSourceGeneratesWeekdaysLatestFirst() throws IOException {
+    File file = Files.createTempFile("synthetic", ".csv").toFile();
+    try {
+      Files.writeString(file.toPath(), read(new SyntheticPriceSource(7, "2022-01-03",
+          "2022-12-30"), "Stock1", false));
+      PriceSeries series = new CsvPriceReader().read(file.getPath());
+
+      assertEquals(260, series.size());
+      assertEquals(EpochDays.parse("2022-01-03"), series.getEpochDay(0));
+      assertEquals(EpochDays.parse("2022-12-30"), series.getEpochDay(259));
+      for (int i = 0; i < series.size(); i++) {
+        assertTrue(TradingCalendar.dayOfWeek(series.getEpochDay(i)) <= 5);
+        assertTrue(series.getValue(PriceColumn.LOW, i) <= series.getClose(i));
+        assertTrue(series.getValue(PriceColumn.HIGH, i) >= series.getClose(i));
+      }
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void syntheticSourceCompactWindowMatchesLatestDays() throws IOException {
+    PriceSource source = new SyntheticPriceSource(7, "2022-01-03", "2022-12-30");
+
+    String full = read(source, "Stock1", false);
+    String compact = read(source, "Stock1", true);
+
+    assertEquals(PriceSource.COMPACT_SIZE + 1, compact.split("\n").length);
+    assertTrue(full.startsWith(compact));
+  }
+}
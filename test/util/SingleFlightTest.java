@@ -0,0 +1,168 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Represents a Test class to test if behaviour of {@link SingleFlight} is correct.
+ */
+public class SingleFlightTest {
+
+  private static final int CALLERS = 6;
+
+  private ExecutorService executor;
+  private File directory;
+
+  @Before
+  public void setUp() throws IOException {
+    executor = Executors.newFixedThreadPool(CALLERS);
+    directory = Files.createTempDirectory("singleflight").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    for (File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  // runs the task on every caller thread at once and returns the futures of the callers
+  private <T> List<Future<T>> runTogether(Callable<T> task) {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<T>> futures = new ArrayList<>();
+    for (int i = 0; i < CALLERS; i++) {
+      futures.add(executor.submit(() -> {
+        start.await();
+        return task.call();
+      }));
+    }
+    start.countDown();
+    return futures;
+  }
+
+  @Test
+  public void concurrentCallersShareOneCall() throws Exception {
+    SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+
+    List<Future<Object>> futures = runTogether(() -> singleFlight.execute("Stock1", () -> {
+      calls.incrementAndGet();
+      awaitQuietly(release);
+      return new Object();
+    }));
+    Thread.sleep(200);
+    release.countDown();
+
+    Object first = futures.get(0).get(5, TimeUnit.SECONDS);
+    for (Future<Object> future : futures) {
+      assertSame(first, future.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, calls.get());
+    assertEquals(0, singleFlight.getRunningCount());
+  }
+
+  @Test
+  public void concurrentCallersShareFailure() throws Exception {
+    SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+
+    List<Future<String>> futures = runTogether(() -> {
+      try {
+        singleFlight.execute("Stock1", () -> {
+          calls.incrementAndGet();
+          awaitQuietly(release);
+          throw new IllegalArgumentException("No price data found for Stock1");
+        });
+        return "no failure";
+      } catch (IllegalArgumentException e) {
+        return e.getMessage();
+      }
+    });
+    Thread.sleep(200);
+    release.countDown();
+
+    for (Future<String> future : futures) {
+      assertEquals("No price data found for Stock1", future.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  public void finishedCallIsNotReused() {
+    SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    AtomicInteger calls = new AtomicInteger();
+
+    assertEquals(1, (int) singleFlight.execute("Stock1", calls::incrementAndGet));
+    assertEquals(2, (int) singleFlight.execute("Stock1", calls::incrementAndGet));
+    assertEquals(3, (int) singleFlight.execute("Stock2", calls::incrementAndGet));
+  }
+
+  @Test
+  public void concurrentFetchesOfSameStockOpenSourceOnce() throws Exception {
+    AtomicInteger opens = new AtomicInteger();
+    String csv = "timestamp,open,high,low,close,volume\n"
+        + LocalDate.now().minusDays(1) + ",1.0,1.0,1.0,2.0,100\n"
+        + LocalDate.now().minusDays(2) + ",1.0,1.0,1.0,1.0,100\n";
+    PriceSource slowSource = new PriceSource() {
+      @Override
+      public String getName() {
+        return "slow";
+      }
+
+      @Override
+      public InputStream open(String stockName, ApiPeriod period, boolean compact) {
+        opens.incrementAndGet();
+        try {
+          Thread.sleep(300);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+      }
+    };
+    StockUtil stockUtil = new StockPriceUtil(slowSource, directory.getPath() + "/");
+    PriceStore priceStore = new ColumnarPriceStore();
+
+    for (Future<Boolean> future : runTogether(() -> {
+      stockUtil.fetchStockData("Stock1", priceStore);
+      return priceStore.containsTicker("Stock1");
+    })) {
+      assertTrue(future.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, opens.get());
+    assertEquals(2.0, priceStore.getSeries("Stock1").getClose(1), 0.0);
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
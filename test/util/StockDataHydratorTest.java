@@ -0,0 +1,267 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Represents a Test class to test if behaviour of {@link StockDataHydrator} is correct. The API is
+ * stood in for by a local server answering the full and compact windows of a stock, and the
+ * current date is fixed so that the freshness of saved data does not depend on the day of the run.
+ */
+public class StockDataHydratorTest {
+
+  private static final String HEADER = "timestamp,open,high,low,close,volume\n";
+  // a Wednesday, whose last completed weekday is the day before
+  private static final LocalDate TODAY = LocalDate.of(2026, 10, 14);
+  private static final Clock CLOCK = Clock.fixed(TODAY.atTime(12, 0).toInstant(ZoneOffset.UTC),
+      ZoneOffset.UTC);
+
+  private HttpServer server;
+  private File directory;
+  private String apiUrl;
+  private String fullResponse;
+  private String compactResponse;
+  private List<String> outputSizes;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("hydrator").toFile();
+    outputSizes = new ArrayList<>();
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/query", exchange -> {
+      boolean compact = exchange.getRequestURI().getQuery().contains("outputsize=compact");
+      outputSizes.add(compact ? "compact" : "full");
+      byte[] body = (compact ? compactResponse : fullResponse).getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.start();
+    apiUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/query";
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+    for (File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  private String row(int daysAgo, double close) {
+    return TODAY.minusDays(daysAgo) + ",1.0,1.0,1.0," + close + ",100\n";
+  }
+
+  // saved data is only reused when it holds the last completed weekday
+  private StockDataHydrator hydrator() {
+    return hydrator(Duration.ZERO);
+  }
+
+  private StockDataHydrator hydrator(Duration reuseWindow) {
+    return new StockDataHydrator(new AlphavantagePriceSource("key", apiUrl,
+        new TokenBucketRateLimiter(1000, Duration.ofSeconds(1))), directory.getPath() + "/",
+        ApiPeriod.DAILY, new FreshnessPolicy(CLOCK, reuseWindow));
+  }
+
+  private String csvPath() {
+    return new File(directory, "Stock1_DAILY.csv").getPath();
+  }
+
+  @Test
+  public void hydrateFetchesFullHistoryWithoutSavedData() throws IOException {
+    fullResponse = HEADER + row(3, 3.0) + row(4, 2.0) + row(5, 1.0);
+
+    PriceSeries fetched = hydrator().hydrate("Stock1");
+
+    assertEquals(3, fetched.size());
+    assertEquals(1.0, fetched.getClose(0), 0.0);
+    assertEquals(3.0, fetched.getClose(2), 0.0);
+    assertEquals(List.of("full"), outputSizes);
+    assertEquals(fullResponse, Files.readString(new File(csvPath()).toPath()));
+  }
+
+  @Test
+  public void hydrateMergesNewDaysFromCompactWindow() throws IOException {
+    fullResponse = HEADER + row(3, 3.0) + row(4, 2.0) + row(5, 1.0);
+    hydrator().hydrate("Stock1");
+    compactResponse = HEADER + row(1, 5.0) + row(2, 4.0) + row(3, 3.0) + row(4, 2.0);
+
+    PriceSeries fetched = hydrator().hydrate("Stock1");
+
+    assertEquals(2, fetched.size());
+    assertEquals(4.0, fetched.getClose(0), 0.0);
+    assertEquals(5.0, fetched.getClose(1), 0.0);
+    assertEquals(List.of("full", "compact"), outputSizes);
+    assertEquals(HEADER + row(1, 5.0) + row(2, 4.0) + row(3, 3.0) + row(4, 2.0) + row(5, 1.0),
+        Files.readString(new File(csvPath()).toPath()));
+  }
+
+  @Test
+  public void hydrateMergesNothingWhenUpToDate() throws IOException {
+    fullResponse = HEADER + row(3, 3.0) + row(4, 2.0);
+    hydrator().hydrate("Stock1");
+    compactResponse = fullResponse;
+
+    assertEquals(0, hydrator().hydrate("Stock1").size());
+    assertEquals(fullResponse, Files.readString(new File(csvPath()).toPath()));
+  }
+
+  @Test
+  public void hydrateFallsBackToFullWhenCompactWindowLeavesGap() throws IOException {
+    fullResponse = HEADER + row(10, 1.0);
+    hydrator().hydrate("Stock1");
+    compactResponse = HEADER + row(1, 3.0) + row(2, 2.0);
+    fullResponse = HEADER + row(1, 3.0) + row(2, 2.0) + row(5, 1.5) + row(10, 1.0);
+
+    assertEquals(4, hydrator().hydrate("Stock1").size());
+
+    assertEquals(List.of("full", "compact", "full"), outputSizes);
+    assertEquals(fullResponse, Files.readString(new File(csvPath()).toPath()));
+  }
+
+  @Test
+  public void hydrateFetchesFullHistoryWhenSavedDataIsOld() throws IOException {
+    fullResponse = HEADER + row(200, 1.0);
+    hydrator().hydrate("Stock1");
+    fullResponse = HEADER + row(1, 2.0) + row(200, 1.0);
+
+    assertEquals(2, hydrator().hydrate("Stock1").size());
+    assertEquals(List.of("full", "full"), outputSizes);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void hydrateRejectsErrorResponse() {
+    fullResponse = "{\"Error Message\": \"Invalid API call.\"}";
+    hydrator().hydrate("Stock1");
+  }
+
+  @Test
+  public void hydrateKeepsSavedDataWhenResponseIsFaulty() throws IOException {
+    fullResponse = HEADER + row(200, 1.0);
+    hydrator().hydrate("Stock1");
+    fullResponse = HEADER + row(1, 2.0) + "abc,1.0,1.0,1.0,1.0,100\n";
+
+    try {
+      hydrator().hydrate("Stock1");
+    } catch (IllegalArgumentException e) {
+      assertEquals(HEADER + row(200, 1.0), Files.readString(new File(csvPath()).toPath()));
+      assertEquals(2, directory.listFiles().length);
+      assertEquals(row(200, 1.0).substring(0, 10),
+          HydrationMetadata.read(csvPath()).getLastBarDate());
+      return;
+    }
+    throw new AssertionError("expected IllegalArgumentException");
+  }
+
+  @Test
+  public void hydrateSavesMetadataOfFetch() {
+    fullResponse = HEADER + row(3, 3.0) + row(4, 2.0);
+    hydrator().hydrate("Stock1");
+
+    HydrationMetadata metadata = HydrationMetadata.read(csvPath());
+    assertEquals(row(3, 3.0).substring(0, 10), metadata.getLastBarDate());
+    assertEquals(CLOCK.instant(), metadata.getFetchedAt());
+    assertEquals("alphavantage:" + apiUrl, metadata.getSource());
+
+    compactResponse = HEADER + row(1, 5.0) + row(3, 3.0);
+    hydrator().hydrate("Stock1");
+
+    assertEquals(row(1, 5.0).substring(0, 10), HydrationMetadata.read(csvPath()).getLastBarDate());
+  }
+
+  @Test
+  public void hydrateReusesDataHoldingLastCompletedDay() {
+    fullResponse = HEADER + row(1, 2.0) + row(2, 1.0);
+    hydrator().hydrate("Stock1");
+
+    assertEquals(0, hydrator().hydrate("Stock1").size());
+    assertEquals(List.of("full"), outputSizes);
+  }
+
+  @Test
+  public void hydrateReusesRecentlyFetchedData() {
+    fullResponse = HEADER + row(200, 1.0);
+    hydrator().hydrate("Stock1");
+
+    assertEquals(0, hydrator(Duration.ofHours(1)).hydrate("Stock1").size());
+    assertEquals(List.of("full"), outputSizes);
+  }
+
+  @Test
+  public void hydrateRefetchesDataOfAnotherSource() {
+    fullResponse = HEADER + row(1, 2.0) + row(2, 1.0);
+    hydrator().hydrate("Stock1");
+    new HydrationMetadata(row(1, 2.0).substring(0, 10), CLOCK.instant(), "synthetic:1")
+        .write(csvPath());
+
+    assertEquals(2, hydrator(Duration.ofHours(1)).hydrate("Stock1").size());
+    assertEquals(List.of("full", "full"), outputSizes);
+    assertEquals("alphavantage:" + apiUrl, HydrationMetadata.read(csvPath()).getSource());
+  }
+
+  @Test
+  public void hydrateStreamsLargeResponse() throws IOException {
+    StringBuilder content = new StringBuilder(HEADER);
+    for (int i = 0; i < 20000; i++) {
+      content.append(row(i + 3, i));
+    }
+    fullResponse = content.toString();
+
+    PriceSeries fetched = hydrator().hydrate("Stock1");
+
+    assertEquals(20000, fetched.size());
+    assertEquals(19999.0, fetched.getClose(0), 0.0);
+    assertEquals(fullResponse, Files.readString(new File(csvPath()).toPath()));
+  }
+
+  @Test
+  public void hydrateIntoStoresStreamedHistoryWithoutReadingFile() {
+    fullResponse = HEADER + row(3, 3.0) + row(4, 2.0) + row(5, 1.0);
+    PriceStore priceStore = new ColumnarPriceStore();
+
+    new StockPriceUtil().hydrateInto(hydrator(), directory.getPath() + "/", "Stock1", priceStore);
+
+    assertEquals(1, priceStore.getMissCount());
+    assertTrue(PriceSnapshotFile.isFresh(csvPath()));
+    assertEquals(3, priceStore.getSeries("Stock1").size());
+    assertEquals(3.0, priceStore.getSeries("Stock1").getClose(2), 0.0);
+  }
+
+  @Test
+  public void hydrateIntoAppendsMergedDaysToSnapshot() {
+    fullResponse = HEADER + row(3, 3.0) + row(4, 2.0) + row(5, 1.0);
+    PriceStore priceStore = new ColumnarPriceStore();
+    StockPriceUtil stockPriceUtil = new StockPriceUtil();
+    stockPriceUtil.hydrateInto(hydrator(), directory.getPath() + "/", "Stock1", priceStore);
+    assertTrue(PriceSnapshotFile.isFresh(csvPath()));
+    compactResponse = HEADER + row(1, 5.0) + row(2, 4.0) + row(3, 3.0);
+
+    stockPriceUtil.hydrateInto(hydrator(), directory.getPath() + "/", "Stock1", priceStore);
+
+    assertTrue(PriceSnapshotFile.isFresh(csvPath()));
+    PriceSeries series = priceStore.getSeries("Stock1");
+    assertEquals(5, series.size());
+    assertEquals(5.0, series.getClose(4), 0.0);
+    assertEquals(1.0, series.getClose(0), 0.0);
+    assertEquals(100.0, series.getValue(PriceColumn.VOLUME, 4), 0.0);
+  }
+}
@@ -0,0 +1,142 @@
+package util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Represents a Test class to test if behaviour of {@link SyntheticMarketGenerator} is correct.
+ */
+public class SyntheticMarketGeneratorTest {
+
+  private File directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("market").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    for (File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  private SyntheticMarketGenerator generator(long seed) {
+    return new SyntheticMarketGenerator(seed, "2021-01-01", "2022-12-31");
+  }
+
+  private String path(String name) {
+    return new File(directory, name).getPath();
+  }
+
+  @Test
+  public void tickerNamesAreUniqueCapitalLetters() {
+    List<String> tickers = SyntheticMarketGenerator.tickerNames(5000);
+
+    assertEquals(5000, tickers.size());
+    assertEquals(5000, new HashSet<>(tickers).size());
+    assertEquals("AAAA", tickers.get(0));
+    assertEquals("AAAB", tickers.get(1));
+    for (String ticker : tickers) {
+      assertTrue(ticker.matches("[A-Z]{4}"));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tickerNamesRejectsNegativeCount() {
+    SyntheticMarketGenerator.tickerNames(-1);
+  }
+
+  @Test
+  public void writePriceFilesMatchesSyntheticSource() throws IOException {
+    List<String> tickers = generator(5).writePriceFiles(directory.getPath() + "/", 20, false);
+
+    assertEquals(SyntheticMarketGenerator.tickerNames(20), tickers);
+    PriceSource source = new SyntheticPriceSource(5, "2021-01-01", "2022-12-31");
+    for (String ticker : tickers) {
+      String csvFilePath = path(ticker + "_DAILY.csv");
+      try (InputStream in = source.open(ticker, ApiPeriod.DAILY, false)) {
+        assertArrayEquals(in.readAllBytes(), Files.readAllBytes(new File(csvFilePath).toPath()));
+      }
+      assertFalse(new File(PriceSnapshotFile.snapshotPathOf(csvFilePath)).exists());
+    }
+  }
+
+  @Test
+  public void writePriceFilesWritesFreshSnapshots() {
+    List<String> tickers = generator(5).writePriceFiles(directory.getPath() + "/", 3, true);
+
+    for (String ticker : tickers) {
+      String csvFilePath = path(ticker + "_DAILY.csv");
+      assertTrue(PriceSnapshotFile.isFresh(csvFilePath));
+      PriceSeries expected = new CsvPriceReader().read(csvFilePath);
+      PriceSeries actual = PriceSnapshotFile.read(csvFilePath);
+      assertEquals(expected.size(), actual.size());
+      assertEquals(expected.getClose(expected.size() - 1), actual.getClose(actual.size() - 1),
+          0.0);
+    }
+  }
+
+  @Test
+  public void writePortfolioFilesNeverSellsMoreThanHeld() {
+    List<String> tickers = SyntheticMarketGenerator.tickerNames(10);
+
+    List<String> portfolios = generator(9).writePortfolioFiles(directory.getPath() + "/",
+        tickers, 3, 500);
+
+    assertEquals(List.of("synthetic_1", "synthetic_2", "synthetic_3"), portfolios);
+    for (String portfolio : portfolios) {
+      List<String[]> rows = new CsvFileUtil().readFile(path(portfolio + ".csv"));
+      assertEquals(500, rows.size());
+      Map<String, Double> holdings = new HashMap<>();
+      String previousDate = "2021-01-01";
+      for (String[] row : rows) {
+        assertTrue(tickers.contains(row[0]));
+        assertTrue(row[2].compareTo(previousDate) >= 0 && row[2].compareTo("2022-12-31") <= 0);
+        assertTrue(TradingCalendar.dayOfWeek(EpochDays.parse(row[2])) <= 5);
+        double quantity = Double.parseDouble(row[1]);
+        assertTrue(quantity > 0 && quantity == Math.floor(quantity));
+        double sign = row[3].equals(TradeType.SELL.getTradeType()) ? -1 : 1;
+        double held = holdings.getOrDefault(row[0], 0.0) + sign * quantity;
+        assertTrue(held >= 0);
+        holdings.put(row[0], held);
+        previousDate = row[2];
+      }
+    }
+  }
+
+  @Test
+  public void generatedFilesDependOnlyOnSeed() throws IOException {
+    List<String> tickers = SyntheticMarketGenerator.tickerNames(5);
+    generator(9).writePortfolioFiles(directory.getPath() + "/", tickers, 1, 200);
+    byte[] first = Files.readAllBytes(new File(path("synthetic_1.csv")).toPath());
+
+    generator(9).writePortfolioFiles(directory.getPath() + "/", tickers, 1, 200);
+    assertArrayEquals(first, Files.readAllBytes(new File(path("synthetic_1.csv")).toPath()));
+
+    generator(10).writePortfolioFiles(directory.getPath() + "/", tickers, 1, 200);
+    assertFalse(new String(first).equals(
+        Files.readString(new File(path("synthetic_1.csv")).toPath())));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void writePortfolioFilesRejectsMissingStocks() {
+    generator(9).writePortfolioFiles(directory.getPath() + "/", List.of(), 1, 10);
+  }
+}
@@ -0,0 +1,48 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+/**
+ * Represents a Test class to test if behaviour of {@link TickerSymbols} is correct.
+ */
+public class TickerSymbolsTest {
+
+  @Test
+  public void idOfReturnsSameIdForSameTicker() {
+    int id = TickerSymbols.idOf("TickerSymbolsTest1");
+
+    assertEquals(id, TickerSymbols.idOf("TickerSymbolsTest1"));
+    assertEquals(id, TickerSymbols.find("TickerSymbolsTest1"));
+    assertEquals("TickerSymbolsTest1", TickerSymbols.nameOf(id));
+    assertNotEquals(id, TickerSymbols.idOf("TickerSymbolsTest2"));
+  }
+
+  @Test
+  public void idsAreDense() {
+    int id = TickerSymbols.idOf("TickerSymbolsTest3");
+
+    assertEquals(TickerSymbols.size() - 1, id);
+  }
+
+  @Test
+  public void findDoesNotRegister() {
+    int size = TickerSymbols.size();
+
+    assertEquals(-1, TickerSymbols.find("TickerSymbolsTestUnknown"));
+    assertEquals(-1, TickerSymbols.find(null));
+    assertEquals(size, TickerSymbols.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nameOfUnknownId() {
+    TickerSymbols.nameOf(TickerSymbols.size());
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void idOfNull() {
+    TickerSymbols.idOf(null);
+  }
+}
@@ -0,0 +1,43 @@
+package util;
+
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import org.junit.Test;
+
+/**
+ * Represents a Test class to test if behaviour of {@link TokenBucketRateLimiter} is correct.
+ */
+public class TokenBucketRateLimiterTest {
+
+  @Test
+  public void burstUpToCapacityDoesNotWait() throws InterruptedException {
+    TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(3, Duration.ofSeconds(3));
+    long start = System.nanoTime();
+    for (int i = 0; i < 3; i++) {
+      rateLimiter.acquire();
+    }
+    assertTrue(System.nanoTime() - start < 500_000_000L);
+  }
+
+  @Test
+  public void callsOverCapacityWaitForRefill() throws InterruptedException {
+    TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(2, Duration.ofMillis(200));
+    long start = System.nanoTime();
+    for (int i = 0; i < 5; i++) {
+      rateLimiter.acquire();
+    }
+    // the last three permits are refilled 100ms apart
+    assertTrue(System.nanoTime() - start >= 290_000_000L);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void capacityShouldBePositive() {
+    new TokenBucketRateLimiter(0, Duration.ofSeconds(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void periodShouldBePositive() {
+    new TokenBucketRateLimiter(1, Duration.ZERO);
+  }
+}
@@ -0,0 +1,81 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Represents a Test class to test if behaviour of {@link TradingCalendar} is correct.
+ */
+public class TradingCalendarTest {
+
+  private TradingCalendar calendar;
+
+  @Before
+  public void setUp() {
+    Map<String, Double> closes = new HashMap<>();
+    closes.put("2022-10-28", 1.0);
+    closes.put("2022-10-31", 1.0);
+    closes.put("2022-11-01", 1.0);
+    closes.put("2022-11-02", 1.0);
+    closes.put("2022-11-04", 1.0);
+    closes.put("2022-11-07", 1.0);
+    calendar = PriceSeries.of(closes).getTradingCalendar();
+  }
+
+  private static int day(String date) {
+    return EpochDays.parse(date);
+  }
+
+  @Test
+  public void isTradingDay() {
+    assertTrue(calendar.isTradingDay("2022-11-01"));
+    assertTrue(calendar.isTradingDay(day("2022-10-28")));
+    assertFalse(calendar.isTradingDay("2022-11-03"));
+    assertFalse(calendar.isTradingDay("2022-10-27"));
+    assertFalse(calendar.isTradingDay("2022-11-08"));
+    assertFalse(calendar.isTradingDay("2022-11-3"));
+  }
+
+  @Test
+  public void nextAndPreviousTradingDay() {
+    assertEquals(day("2022-11-04"), calendar.nextTradingDay(day("2022-11-02")));
+    assertEquals(day("2022-11-04"), calendar.onOrAfter(day("2022-11-03")));
+    assertEquals(day("2022-10-28"), calendar.onOrAfter(day("2022-01-01")));
+    assertEquals(TradingCalendar.NO_TRADING_DAY, calendar.nextTradingDay(day("2022-11-07")));
+    assertEquals(day("2022-11-02"), calendar.previousTradingDay(day("2022-11-04")));
+    assertEquals(day("2022-11-04"), calendar.onOrBefore(day("2022-11-06")));
+    assertEquals(day("2022-11-07"), calendar.onOrBefore(day("2022-12-25")));
+    assertEquals(TradingCalendar.NO_TRADING_DAY, calendar.previousTradingDay(day("2022-10-28")));
+  }
+
+  @Test
+  public void nthTradingDayOfWeek() {
+    assertEquals(day("2022-10-31"), calendar.nthTradingDayOfWeek(day("2022-11-03"), 1));
+    assertEquals(day("2022-11-04"), calendar.nthTradingDayOfWeek(day("2022-11-06"), 4));
+    assertEquals(TradingCalendar.NO_TRADING_DAY,
+        calendar.nthTradingDayOfWeek(day("2022-11-03"), 5));
+  }
+
+  @Test
+  public void nthTradingDayOfMonth() {
+    assertEquals(day("2022-10-31"), calendar.nthTradingDayOfMonth(day("2022-10-01"), 2));
+    assertEquals(day("2022-11-07"), calendar.nthTradingDayOfMonth(day("2022-11-30"), 4));
+    assertEquals(TradingCalendar.NO_TRADING_DAY,
+        calendar.nthTradingDayOfMonth(day("2022-11-30"), 5));
+    assertEquals(TradingCalendar.NO_TRADING_DAY,
+        calendar.nthTradingDayOfMonth(day("2022-12-15"), 1));
+  }
+
+  @Test
+  public void dayOfWeek() {
+    assertEquals(5, TradingCalendar.dayOfWeek(day("2022-11-04")));
+    assertEquals(7, TradingCalendar.dayOfWeek(day("2022-11-06")));
+    assertEquals(4, TradingCalendar.dayOfWeek(0));
+  }
+}